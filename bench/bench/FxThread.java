@@ -0,0 +1,47 @@
+package bench;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Starts the JavaFX toolkit for the benchmarks that display scenes, and runs their measures on the JavaFX thread.
+ * Without any display, the benchmarks have to be launched with the Monocle headless platform in the classpath and
+ * {@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}.
+ */
+public final class FxThread {
+
+    private FxThread() {
+    }
+
+    /**
+     * Starts the JavaFX toolkit and waits for it.
+     */
+    public static void start() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        latch.await();
+        Platform.setImplicitExit(false);
+    }
+
+    /**
+     * Runs a measure on the JavaFX thread and waits for its result.
+     * @param measure the measure to run.
+     * @return the measure's result.
+     * @throws ExecutionException if the measure threw an exception.
+     */
+    public static <T> T call(Callable<T> measure) throws InterruptedException, ExecutionException {
+        FutureTask<T> task = new FutureTask<>(measure);
+        Platform.runLater(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,105 @@
+package bench;
+
+import tiles.Tile;
+import tiles.TileElement;
+import tiles.TileRegistry;
+import utilities.BinaryLevelReader;
+import utilities.LevelCompiler;
+import utilities.LevelReader;
+import utilities.XmlReader;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Measures the loading of synthetic levels of 10k to 500k tiles from their .xml file and from their compiled .lvl file.
+ * Each level is compiled once by the LevelCompiler, then loaded by the XmlReader and by the BinaryLevelReader.
+ * To show where the loading's time goes, it also measures the creation of the same Tile objects from the tile elements alone,
+ * which both readers do after reading their file.
+ * For each level, it prints the median times of a loading, their ratio, the median time of the tiles' creation,
+ * and the times of the first loadings, before the code is compiled, as when the game loads a level once.
+ * Usage : {@code LevelLoadBench [tiles...]}, launched from the project's directory.
+ * @see LevelCompiler
+ * @see BinaryLevelReader
+ * @see SyntheticLevel
+ */
+public class LevelLoadBench {
+
+    /**
+     * Number of loadings run before measuring.
+     */
+    private static final int warmUps = 3;
+    /**
+     * Number of measured loadings.
+     */
+    private static final int runs = 7;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{10000, 50000, 200000, 500000};
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+
+        PrintStream out = System.out;
+        System.out.printf("%10s %10s %10s %12s %12s %8s %14s %16s %16s%n", "tiles", "xml (KB)", "lvl (KB)", "xml (ms)", "lvl (ms)", "ratio",
+                "creation (ms)", "first xml (ms)", "first lvl (ms)");
+        for (int size : sizes) {
+            String name = "./data/" + new SyntheticLevel(size, size).write("Load" + size);
+            File source = new File(name + ".xml");
+            File compiled = new File(name + BinaryLevelReader.extension);
+            // Both readers print the name of each file they read.
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            XmlReader elements = new XmlReader(source.getPath(), "level", true);
+            if (!compiled.isFile() || compiled.lastModified() < source.lastModified())
+                LevelCompiler.compile(elements, "level", source, compiled);
+
+            long[] xmlTimes = new long[runs], binaryTimes = new long[runs], creationTimes = new long[runs];
+            long firstXmlTime = 0, firstBinaryTime = 0;
+            for (int run = 0; run < warmUps + runs; run++) {
+                long start = System.nanoTime();
+                LevelReader xml = new XmlReader(source.getPath(), "level");
+                long xmlTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                LevelReader binary = new BinaryLevelReader(compiled, source, "level");
+                long binaryTime = System.nanoTime() - start;
+                if (count(xml) != count(binary)) throw new IllegalStateException(count(xml) + " tiles read from the .xml file but " + count(binary) + " from the .lvl file");
+
+                ArrayList<Tile> tiles = new ArrayList<>();
+                start = System.nanoTime();
+                for (TileElement element : elements.getTileElements())
+                    TileRegistry.create(element, tiles::add);
+                long creationTime = System.nanoTime() - start;
+                if (run == 0) {
+                    firstXmlTime = xmlTime;
+                    firstBinaryTime = binaryTime;
+                }
+                if (run < warmUps) continue;
+                xmlTimes[run - warmUps] = xmlTime;
+                binaryTimes[run - warmUps] = binaryTime;
+                creationTimes[run - warmUps] = creationTime;
+            }
+            System.setOut(out);
+            Arrays.sort(xmlTimes);
+            Arrays.sort(binaryTimes);
+            Arrays.sort(creationTimes);
+            double xmlTime = xmlTimes[runs / 2] / 1e6, binaryTime = binaryTimes[runs / 2] / 1e6;
+            System.out.printf("%10d %10d %10d %12.1f %12.1f %8.1f %14.1f %16.1f %16.1f%n", size, source.length() / 1024, compiled.length() / 1024,
+                    xmlTime, binaryTime, xmlTime / binaryTime, creationTimes[runs / 2] / 1e6, firstXmlTime / 1e6, firstBinaryTime / 1e6);
+        }
+    }
+
+    /**
+     * @return the number of tiles loaded by a reader.
+     */
+    private static int count(LevelReader reader) {
+        return reader.getPlatformElements().size() + reader.getCoinElements().size() + reader.getSpikeElements().size();
+    }
+}
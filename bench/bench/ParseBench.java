@@ -0,0 +1,137 @@
+package bench;
+
+import com.sun.management.ThreadMXBean;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import tiles.Tile;
+import tiles.TileElement;
+import tiles.TileRegistry;
+import utilities.XmlReader;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static java.lang.Integer.parseInt;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Measures the parsing of level files by the StAX XmlReader and by the DOM parsing it replaced, on synthetic levels of 10k to 500k tiles.
+ * The DOM parsing is done like the former XmlReader did : the whole document is built, normalized,
+ * then each kind of tile is looked up with getElementsByTagName and each tile's children are read the same way.
+ * Both create the same Tile objects through the TileRegistry. For each level, it prints the median time of a parsing
+ * and the bytes allocated by a parsing.
+ * Usage : {@code ParseBench [tiles...]}, launched from the project's directory.
+ * @see XmlReader
+ * @see SyntheticLevel
+ */
+public class ParseBench {
+
+    /**
+     * Number of parsings run before measuring.
+     */
+    private static final int warmUps = 3;
+    /**
+     * Number of measured parsings.
+     */
+    private static final int runs = 7;
+    /**
+     * Kinds of tiles read by the DOM parsing.
+     */
+    private static final String[] kinds = {"platform", "coin", "spike", "door", "npc"};
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{10000, 50000, 200000, 500000};
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        PrintStream out = System.out;
+        System.out.printf("%10s %10s %12s %12s %14s %14s%n", "tiles", "file (KB)", "StAX (ms)", "DOM (ms)", "StAX (MB)", "DOM (MB)");
+        for (int size : sizes) {
+            String fileName = "./data/" + new SyntheticLevel(size, size).write("Parse" + size) + ".xml";
+            long[] staxTimes = new long[runs], domTimes = new long[runs];
+            long staxBytes = 0, domBytes = 0;
+            int staxTiles = 0, domTiles = 0;
+            // The XmlReader prints the name of each file it reads.
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            for (int run = 0; run < warmUps + runs; run++) {
+                long allocated = threads.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                XmlReader reader = new XmlReader(fileName, "level");
+                long stax = System.nanoTime() - start;
+                long staxAllocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+                staxTiles = reader.getPlatformElements().size() + reader.getCoinElements().size() + reader.getSpikeElements().size();
+
+                allocated = threads.getThreadAllocatedBytes(threadId);
+                start = System.nanoTime();
+                domTiles = parseDom(fileName, "level").size();
+                long dom = System.nanoTime() - start;
+                long domAllocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+                if (run < warmUps) continue;
+                staxTimes[run - warmUps] = stax;
+                domTimes[run - warmUps] = dom;
+                staxBytes = staxAllocated;
+                domBytes = domAllocated;
+            }
+            System.setOut(out);
+            if (staxTiles != domTiles) throw new IllegalStateException(staxTiles + " tiles read by StAX but " + domTiles + " by DOM");
+            Arrays.sort(staxTimes);
+            Arrays.sort(domTimes);
+            System.out.printf("%10d %10d %12.1f %12.1f %14.1f %14.1f%n", size, new File(fileName).length() / 1024,
+                    staxTimes[runs / 2] / 1e6, domTimes[runs / 2] / 1e6, staxBytes / 1048576.0, domBytes / 1048576.0);
+        }
+    }
+
+    /**
+     * Reads the tiles of a level file with a DOM Document, the way the former XmlReader did.
+     * @param fileName directory and name of the .xml file.
+     * @param type type of GameScene. Accepted values: level, room.
+     * @return the created tiles.
+     */
+    private static ArrayList<Tile> parseDom(String fileName, String type) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        Document document = factory.newDocumentBuilder().parse(new File(fileName));
+        document.getDocumentElement().normalize();
+
+        ArrayList<Tile> tiles = new ArrayList<>();
+        if (document.getElementsByTagName(type).getLength() == 0) return tiles;
+        TileElement tile = new TileElement();
+        for (String kind : kinds) {
+            NodeList elements = document.getElementsByTagName(kind);
+            for (int i = 0; i < elements.getLength(); i++) {
+                Element element = (Element) elements.item(i);
+                String[] coordinate = text(element, "coordinates").split(",");
+                tile.reset(kind);
+                tile.setFileName("/images/Tiles_256x256/" + text(element, "sprite"));
+                tile.setX(parseInt(coordinate[0].trim()));
+                tile.setY(parseInt(coordinate[1].trim()));
+                tile.setCollision(Boolean.parseBoolean(text(element, "collision")));
+                tile.setNumberX(parseInt(text(element, "numberX").trim()));
+                tile.setNumberY(parseInt(text(element, "numberY").trim()));
+                if (kind.equals("door")) tile.setProperty("direction", text(element, "direction"));
+                TileRegistry.create(tile, tiles::add);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * @return the text of an element's first child of the given name.
+     */
+    private static String text(Element element, String name) {
+        return element.getElementsByTagName(name).item(0).getTextContent();
+    }
+}
@@ -0,0 +1,93 @@
+package bench;
+
+import entities.Hero;
+import javafx.application.Platform;
+import javafx.scene.image.WritableImage;
+import manager.TileManager;
+import scenes.GameScene;
+import scenes.Level;
+import simulation.World;
+import utilities.KeyHandler;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Measures the cost of a frame with the node and the canvas tile renderers, as the level grows, on synthetic levels of 1k to 100k tiles.
+ * The platforms blink, so that every tile is a dynamic tile drawn by the TileRenderer rather than baked into a chunk.
+ * The camera crosses the level, and each frame is rendered by the GameScene, then drawn into an image by a snapshot of the Scene :
+ * it prints the average number of tiles drawn, the time spent in GameScene.render, the time spent drawing the Scene, and their sum.
+ * Usage : {@code RenderBench [tiles...]}, launched from the project's directory with the resources' directory in the classpath.
+ * @see manager.NodeTileRenderer
+ * @see manager.CanvasTileRenderer
+ * @see FxThread
+ */
+public class RenderBench {
+
+    /**
+     * Number of frames rendered before measuring.
+     */
+    private static final int warmUpFrames = 200;
+    /**
+     * Number of measured frames.
+     */
+    private static final int frames = 400;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{1000, 10000, 100000};
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+
+        FxThread.start();
+        System.out.printf("%10s %8s %8s %12s %12s %12s%n", "tiles", "mode", "drawn", "render (us)", "draw (us)", "frame (us)");
+        for (int size : sizes) {
+            for (String mode : new String[]{"node", "canvas"}) {
+                SyntheticLevel level = new SyntheticLevel(size, size);
+                level.setCellsPerTile(1);
+                level.setBlink(true);
+                level.setRenderMode(mode);
+                String name = level.write("Render" + size + mode);
+                double[] result = FxThread.call(() -> measure(name, level.getWidth()));
+                System.out.printf("%10d %8s %8.0f %12.1f %12.1f %12.1f%n", size, mode, result[0], result[1], result[2], result[1] + result[2]);
+            }
+        }
+        Platform.exit();
+    }
+
+    /**
+     * Loads a level like the SceneLoader does, then renders and draws frames while the camera crosses it.
+     * @return the average number of tiles drawn, and the average times in microseconds spent rendering and drawing a frame.
+     */
+    private static double[] measure(String name, int width) {
+        World world = new World(name, "level", new KeyHandler());
+        world.getTileManager().buildAtlas(null);
+        Level scene = new Level(world);
+        Hero hero = world.getHero();
+        TileManager tileManager = world.getTileManager();
+        WritableImage target = new WritableImage(GameScene.screenWidth, GameScene.screenHeight);
+
+        long drawn = 0, renderTime = 0, drawTime = 0;
+        double x = GameScene.screenWidth / 2.0;
+        for (int frame = 0; frame < warmUpFrames + frames; frame++) {
+            x += 16;
+            if (x > width - GameScene.screenWidth / 2.0) x = GameScene.screenWidth / 2.0;
+            long start = System.nanoTime();
+            hero.setX(x);
+            hero.setY(SyntheticLevel.rows * GameScene.tileSize / 2.0);
+            world.getCamera().recenterOnHero();
+            // A time of 0 shows the blinking platforms.
+            scene.render(0, 1);
+            long rendered = System.nanoTime();
+            scene.snapshot(target);
+            long end = System.nanoTime();
+            if (frame < warmUpFrames) continue;
+            drawn += tileManager.getDrawnTiles();
+            renderTime += rendered - start;
+            drawTime += end - rendered;
+        }
+        scene.dispose();
+        return new double[]{drawn / (double) frames, renderTime / (frames * 1000.0), drawTime / (frames * 1000.0)};
+    }
+}
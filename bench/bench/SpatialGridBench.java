@@ -0,0 +1,119 @@
+package bench;
+
+import javafx.scene.input.KeyCode;
+import manager.TileManager;
+import scenes.GameScene;
+import simulation.HeadlessRunner;
+import simulation.World;
+import tiles.Platform;
+import utilities.KeyHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Measures the cost of the Hero's platform queries as the level grows, on synthetic levels of 1k to 200k tiles.
+ * For each level, it prints the time of a query through the TileManager's SpatialGrid, the time of the same query
+ * scanning every platform (the lookup the grid replaced), and the time of a whole World step driven like the HeadlessRunner.
+ * The grid's query time stays flat while the scan grows with the number of platforms.
+ * Usage : {@code SpatialGridBench [tiles...]}, launched from the project's directory with the resources' directory in the classpath.
+ * @see utilities.SpatialGrid
+ * @see SyntheticLevel
+ * @see HeadlessRunner
+ */
+public class SpatialGridBench {
+
+    /**
+     * Number of query rectangles, spread over the whole level.
+     */
+    private static final int queries = 4096;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{1000, 10000, 50000, 200000};
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+
+        System.out.printf("%10s %10s %14s %14s %12s%n", "tiles", "platforms", "grid (ns)", "scan (ns)", "step (us)");
+        for (int size : sizes) {
+            SyntheticLevel level = new SyntheticLevel(size, size);
+            String name = level.write("Grid" + size);
+            KeyHandler keyHandler = new KeyHandler();
+            keyHandler.keysPressed.add(KeyCode.D);
+            World world = new World(name, "level", keyHandler);
+            TileManager tileManager = world.getTileManager();
+            ArrayList<Platform> platforms = tileManager.getPlatforms();
+
+            // Rectangles of the Hero's size, anywhere in the level.
+            double levelWidth = level.getWidth();
+            Random random = new Random(size);
+            double[] rectangles = new double[queries * 2];
+            for (int i = 0; i < queries; i++) {
+                rectangles[i * 2] = random.nextDouble() * levelWidth;
+                rectangles[i * 2 + 1] = random.nextDouble() * GameScene.tileSize * 14;
+            }
+            double width = world.getHero().getHitWidth();
+            double height = world.getHero().getHitHeight();
+
+            ArrayList<Platform> result = new ArrayList<>();
+            long found = 0;
+            double gridTime = Double.MAX_VALUE, scanTime = Double.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                int repeats = 64;
+                long start = System.nanoTime();
+                for (int repeat = 0; repeat < repeats; repeat++) {
+                    for (int i = 0; i < queries; i++) {
+                        result.clear();
+                        tileManager.queryPlatforms(rectangles[i * 2], rectangles[i * 2 + 1], width, height, result);
+                        found += result.size();
+                    }
+                }
+                gridTime = Math.min(gridTime, (System.nanoTime() - start) / (double) (repeats * queries));
+
+                // The scan is much slower, so that it is run over fewer rectangles.
+                int scanned = Math.max(64, queries * 1000 / platforms.size());
+                scanned = Math.min(queries, scanned);
+                start = System.nanoTime();
+                for (int i = 0; i < scanned; i++) {
+                    result.clear();
+                    scan(platforms, rectangles[i * 2], rectangles[i * 2 + 1], width, height, result);
+                    found += result.size();
+                }
+                scanTime = Math.min(scanTime, (System.nanoTime() - start) / (double) scanned);
+            }
+
+            // World steps driven like the HeadlessRunner's bot, after a warm up.
+            double step = 1.0 / GameScene.defaultTickRate;
+            int steps = 20000;
+            long start = 0;
+            for (int i = 0; i < steps * 2; i++) {
+                if (i == steps) start = System.nanoTime();
+                if (i % GameScene.defaultTickRate == 0) keyHandler.keysPressed.add(KeyCode.Z);
+                else keyHandler.keysPressed.remove(KeyCode.Z);
+                world.step(step);
+            }
+            double stepTime = (System.nanoTime() - start) / (steps * 1000.0);
+            world.getTileManager().dispose();
+
+            System.out.printf("%10d %10d %14.1f %14.1f %12.2f%n", size, platforms.size(), gridTime, scanTime, stepTime);
+            // Printing the number of platforms found keeps the queries from being optimized away.
+            if (found == 0) System.out.println("No platform found");
+        }
+    }
+
+    /**
+     * Adds to the result the platforms whose hit box intersects the rectangle, testing every platform.
+     */
+    private static void scan(ArrayList<Platform> platforms, double x, double y, double width, double height, ArrayList<Platform> result) {
+        for (Platform platform : platforms) {
+            if (platform.getHitX() < x + width && x < platform.getHitX() + platform.getHitWidth()
+                    && platform.getHitY() < y + height && y < platform.getHitY() + platform.getHitHeight())
+                result.add(platform);
+        }
+    }
+}
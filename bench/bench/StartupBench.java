@@ -0,0 +1,108 @@
+package bench;
+
+import scenes.SceneLoader;
+import simulation.World;
+import utilities.DiskImageCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Measures the cold and warm loading of Levels and Rooms with the DiskImageCache.
+ * Each loading is done by a new JVM, like a new launch of the game : a cold launch starts with an empty disk cache,
+ * and a warm launch reads the images the previous launch wrote. A launch loads the scene like the SceneLoader does,
+ * parsing the file, decoding the background's blocks around the camera and packing the tiles' sprites,
+ * then prints its time and the disk cache's hits and misses.
+ * The cache is kept in data/generated/image-cache, so that the game's own cache isn't touched. The Rooms have no background, so their launches don't use the cache.
+ * Usage : {@code StartupBench [launches] [scenes...]}, launched from the project's directory with the resources' directory in the classpath.
+ * @see DiskImageCache
+ * @see SceneLoader
+ */
+public class StartupBench {
+
+    /**
+     * Directory of the disk cache used by the launches.
+     */
+    private static final String cacheDirectory = SyntheticLevel.directory + "image-cache";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--launch")) {
+            launch(args[1], args[2], args[3].equals("cold"));
+            return;
+        }
+
+        int launches = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        List<String> scenes = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : List.of("Level1", "Level2", "Level3/Room1");
+        System.out.printf("%-14s %12s %12s %8s %8s%n", "scene", "cold (ms)", "warm (ms)", "misses", "hits");
+        for (String scene : scenes) {
+            String type = scene.contains("/") ? "room" : "level";
+            long[] cold = new long[launches], warm = new long[launches];
+            String[] coldCounts = null, warmCounts = null;
+            for (int i = 0; i < launches; i++) {
+                String[] coldResult = fork(scene, type, "cold");
+                String[] warmResult = fork(scene, type, "warm");
+                cold[i] = Long.parseLong(coldResult[0]);
+                warm[i] = Long.parseLong(warmResult[0]);
+                coldCounts = coldResult;
+                warmCounts = warmResult;
+            }
+            Arrays.sort(cold);
+            Arrays.sort(warm);
+            System.out.printf("%-14s %12d %12d %8s %8s%n", scene, cold[launches / 2], warm[launches / 2], coldCounts[1], warmCounts[2]);
+        }
+    }
+
+    /**
+     * Runs a launch in a new JVM with the same classpath and JavaFX properties.
+     * @return the launch's time in milliseconds, and the disk cache's misses and hits.
+     */
+    private static String[] fork(String scene, String type, String mode) throws IOException, InterruptedException {
+        ArrayList<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String property : new String[]{"glass.platform", "monocle.platform", "prism.order"})
+            if (System.getProperty(property) != null) command.add("-D" + property + "=" + System.getProperty(property));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBench.class.getName());
+        command.addAll(List.of("--launch", scene, type, mode));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = output.readLine(); line != null; line = output.readLine())
+                if (line.startsWith("launch ")) result = line.substring("launch ".length());
+        }
+        if (process.waitFor() != 0 || result == null) throw new IllegalStateException("Launch of " + scene + " failed");
+        return result.split(" ");
+    }
+
+    /**
+     * Loads a scene like the SceneLoader does, and prints its time with the disk cache's misses and hits.
+     */
+    private static void launch(String scene, String type, boolean cold) throws Exception {
+        DiskImageCache.setDirectory(Paths.get(cacheDirectory));
+        if (cold) DiskImageCache.clear();
+        FxThread.start();
+
+        long start = System.nanoTime();
+        SceneLoader loader = new SceneLoader(scene, type);
+        loader.run();
+        World world = loader.get();
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        world.getTileManager().dispose();
+        System.out.println("launch " + elapsed + " " + DiskImageCache.getMisses() + " " + DiskImageCache.getHits());
+        System.exit(0);
+    }
+}
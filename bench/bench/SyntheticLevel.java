@@ -0,0 +1,162 @@
+package bench;
+
+import scenes.GameScene;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Writes synthetic levels of any number of tiles, used by the benchmarks.
+ * A level is made of ground runs under the Hero's start position, and of single platforms, coins and spikes
+ * scattered above it, one tile every few cells : the level gets wider as it holds more tiles, like a real level would.
+ * The same parameters always give the same file.
+ * Note : the files are written in the data/generated directory, which is ignored by git.
+ */
+public class SyntheticLevel {
+
+    /**
+     * Directory of the generated files, relative to the project's directory.
+     */
+    public static final String directory = "./data/generated/";
+    /**
+     * Number of rows of cells the tiles are scattered on, above the ground.
+     */
+    public static final int rows = 8;
+    /**
+     * Row of the ground run.
+     */
+    public static final int groundRow = 13;
+    /**
+     * Maximum number of cells of a ground run, so that the runs fit in the records of the compiled files.
+     * @see utilities.LevelCompiler
+     */
+    public static final int groundRunCells = 4096;
+
+    /**
+     * Number of scattered tiles.
+     */
+    private final int tiles;
+    /**
+     * Seed of the tiles' positions.
+     */
+    private final long seed;
+    /**
+     * Average number of cells per scattered tile.
+     */
+    private int cellsPerTile = 4;
+    /**
+     * Level's render mode. Accepted values: node, canvas.
+     */
+    private String renderMode = "node";
+    /**
+     * Whether the platforms blink, which makes them dynamic tiles instead of being baked into chunks.
+     */
+    private boolean blink;
+
+    /**
+     * Creates a SyntheticLevel. Nothing is written before calling {@link #write(String)}.
+     * @param tiles number of scattered tiles.
+     * @param seed seed of the tiles' positions.
+     */
+    public SyntheticLevel(int tiles, long seed) {
+        this.tiles = tiles;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the level, unless a level of the same name has already been written.
+     * @param name name of the level's file, without extension.
+     * @return the level's name relative to the data directory, as expected by the World and LevelReader.open.
+     */
+    public String write(String name) throws IOException {
+        Path path = Paths.get(directory + name + ".xml");
+        if (Files.isRegularFile(path)) return "generated/" + name;
+        Files.createDirectories(path.getParent());
+
+        int columns = Math.max(16, tiles * cellsPerTile / rows);
+        int size = GameScene.tileSize;
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("""
+                    <?xml version="1.0"?>
+                    <jeux>
+                        <level id="1">
+                            <startPositionX>%d</startPositionX>
+                            <startPositionY>%d</startPositionY>
+                            <startVelocity>160</startVelocity>
+                            <keyOrder>-1</keyOrder>
+                            <blink>%b</blink>
+                            <gravity>165</gravity>
+                            <rotation>0</rotation>
+                            <renderMode>%s</renderMode>
+                    """.formatted(size * 2, size * (groundRow - 2), blink, renderMode));
+            for (int column = 0; column < columns; column += groundRunCells)
+                writeTile(out, "platform", "BGTile (3).png", column * size, groundRow * size, Math.min(groundRunCells, columns - column));
+            for (int i = 0; i < tiles; i++) {
+                int x = random.nextInt(columns) * size;
+                int y = random.nextInt(rows) * size;
+                int kind = random.nextInt(10);
+                if (kind < 7) writeTile(out, "platform", "BGTile (3).png", x, y, 1);
+                else if (kind < 9) writeTile(out, "coin", "Coin.gif", x, y, 1);
+                else writeTile(out, "spike", "Spike.png", x, y, 1);
+            }
+            out.write("""
+                        </level>
+                    </jeux>
+                    """);
+        }
+        return "generated/" + name;
+    }
+
+    private static void writeTile(BufferedWriter out, String kind, String sprite, int x, int y, int numberX) throws IOException {
+        out.write("""
+                        <%s>
+                            <coordinates>%d,%d</coordinates>
+                            <sprite>%s</sprite>
+                            <collision>true</collision>
+                            <numberX>%d</numberX>
+                            <numberY>1</numberY>
+                        </%s>
+                """.formatted(kind, x, y, sprite, numberX, kind));
+    }
+
+    /**
+     * @return the width in pixels of the level's ground.
+     */
+    public int getWidth() {
+        return Math.max(16, tiles * cellsPerTile / rows) * GameScene.tileSize;
+    }
+
+    /**
+     * Sets the average number of cells per scattered tile. The level is written narrower as this number gets lower.
+     * @param cellsPerTile the value to set, at least 1.
+     */
+    public void setCellsPerTile(int cellsPerTile) {
+        this.cellsPerTile = cellsPerTile;
+    }
+
+    /**
+     * @param renderMode the value to set. Accepted values: node, canvas.
+     */
+    public void setRenderMode(String renderMode) {
+        this.renderMode = renderMode;
+    }
+
+    /**
+     * @param blink the value to set.
+     */
+    public void setBlink(boolean blink) {
+        this.blink = blink;
+    }
+}
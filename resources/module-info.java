@@ -1,4 +1,5 @@
 module Platformer {
+    requires java.desktop;
     requires java.xml;
     requires javafx.base;
     requires javafx.controls;
@@ -1,9 +1,10 @@
 package entities;
 
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import scenes.GameScene;
 import utilities.AnimatedSprite;
+import utilities.AnimationClip;
+
+import java.util.EnumMap;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -19,31 +20,80 @@ public abstract class AnimatedThing extends Entity {
     protected AnimatedSprite sprite;
 
     /**
-     * Create an AnimatedThing object from a horizontal spriteSheet with a COLUMN number of sprites.
-     * @param fileName filename of AnimatedThing's spriteSheet.
-     * @param COLUMNS number of horizontal sprites.
-     * @param COUNT index of the actual sprite displayed.
+     * Attitude chosen by the simulation. It is applied to the sprite when the AnimatedThing is rendered.
+     * @see AnimatedSprite#setAttitude(Attitude)
+     */
+    protected Attitude attitude = Attitude.IDLE;
+
+    /**
+     * Clip played for each attitude.
+     * @see AnimationClip
+     */
+    private final EnumMap<Attitude, AnimationClip> clips;
+
+    /**
+     * Dimensions' scale of the sprite.
+     */
+    private final double scale;
+
+    /**
+     * Create an AnimatedThing object animated by a clip for each attitude.
+     * The clips' sprite sheets are only loaded once the AnimatedThing is displayed.
+     * @param clips clip played for each attitude.
      * @param scale sets the dimensions' scale of the sprite.
      * @see AnimatedSprite
      */
+    public AnimatedThing(EnumMap<Attitude, AnimationClip> clips, double scale) {
+        this.clips = clips;
+        this.scale = scale;
+    }
 
-    public AnimatedThing(String fileName, int COLUMNS, int COUNT, double scale) {
-        imageView = new ImageView(new Image(fileName, GameScene.tileSize, GameScene.tileSize, true, true));
-        sprite = new AnimatedSprite(imageView, 0.06, COLUMNS, COUNT, scale);
+    /**
+     * Creates the ImageView and its sprite animation on its first call.
+     * The clips' sprite sheets are packed in a single atlas the first time they are displayed.
+     * @return AnimatedThing's ImageView property value.
+     * @see AnimationClip#pack(java.util.Collection)
+     */
+    @Override
+    public ImageView getImageView() {
+        if (imageView == null) {
+            AnimationClip.pack(clips.values());
+            imageView = new ImageView();
+            sprite = new AnimatedSprite(imageView, clips, scale);
+        }
+        return imageView;
     }
 
     /**
      * @return the sprite's property value.
      */
     public AnimatedSprite getSprite() {
+        getImageView();
         return sprite;
     }
 
+    /**
+     * Releases the AnimatedThing's display : its animation is stopped and its ImageView released.
+     * The display will be loaded again if the AnimatedThing is shown later.
+     */
+    public void dispose() {
+        if (sprite != null) sprite.dispose();
+        sprite = null;
+        imageView = null;
+    }
+
+    /**
+     * @return the attitude's property value.
+     */
+    public Attitude getAttitude() {
+        return attitude;
+    }
+
     @Override
     public String toString() {
         return "entities.AnimatedThing{" +
-                "imageView.worldX= " + imageView.getX() +
-                "imageView.worldY= " + imageView.getY() +
+                "worldX= " + worldX +
+                "worldY= " + worldY +
                 '}';
     }
 }
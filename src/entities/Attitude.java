@@ -0,0 +1,14 @@
+package entities;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Attitudes an AnimatedThing can take. Each attitude is displayed by its own AnimationClip.
+ * @see utilities.AnimationClip
+ * @see utilities.AnimatedSprite
+ */
+public enum Attitude {IDLE, RUN_LEFT, RUN_RIGHT, JUMP, JUMP_LEFT, JUMP_RIGHT, FALL, FALL_LEFT, FALL_RIGHT, DEAD}
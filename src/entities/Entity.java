@@ -1,7 +1,6 @@
 package entities;
 
 import javafx.scene.image.ImageView;
-import javafx.scene.shape.Rectangle;
 import utilities.CollisionChecker;
 
 import java.util.ArrayList;
@@ -22,6 +21,14 @@ public abstract class Entity {
      * Y-axis coordinate.
      */
     protected double worldY;
+    /**
+     * X-axis coordinate at the end of the previous simulation step.
+     */
+    protected double previousX;
+    /**
+     * Y-axis coordinate at the end of the previous simulation step.
+     */
+    protected double previousY;
     /**
      * X-axis velocity.
      */
@@ -54,9 +61,16 @@ public abstract class Entity {
     protected ImageView imageView;
 
     /**
-     * Entity's Rectangle hit box used to perform collision interactions.
+     * Entity's hit box width used to perform collision interactions.
+     * The hit box is placed at the Entity's world coordinates.
+     */
+    protected double hitWidth;
+
+    /**
+     * Entity's hit box height used to perform collision interactions.
+     * The hit box is placed at the Entity's world coordinates.
      */
-    protected Rectangle hitBox;
+    protected double hitHeight;
 
     /**
      * @return Entity's worldX property value.
@@ -86,6 +100,31 @@ public abstract class Entity {
         this.worldY = worldY;
     }
 
+    /**
+     * Saves the actual world coordinates as the previous simulation state.
+     * This method is called before each simulation step so that the display can be interpolated between two steps.
+     */
+    public void savePreviousPosition() {
+        previousX = worldX;
+        previousY = worldY;
+    }
+
+    /**
+     * @param alpha progress between the previous and the actual simulation step, from 0 to 1.
+     * @return Entity's X-axis coordinate interpolated between the previous and the actual simulation step.
+     */
+    public double getInterpolatedX(double alpha) {
+        return previousX + (worldX - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha progress between the previous and the actual simulation step, from 0 to 1.
+     * @return Entity's Y-axis coordinate interpolated between the previous and the actual simulation step.
+     */
+    public double getInterpolatedY(double alpha) {
+        return previousY + (worldY - previousY) * alpha;
+    }
+
     /**
      * @return Entity's X-axis' velocity in pixels per second.
      */
@@ -108,9 +147,16 @@ public abstract class Entity {
     }
 
     /**
-     * @return Entity's hitBox property value.
+     * @return Entity's hitWidth property value.
+     */
+    public double getHitWidth() {
+        return hitWidth;
+    }
+
+    /**
+     * @return Entity's hitHeight property value.
      */
-    public Rectangle getHitBox() {
-        return hitBox;
+    public double getHitHeight() {
+        return hitHeight;
     }
 }
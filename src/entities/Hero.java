@@ -3,22 +3,23 @@ package entities;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
-import javafx.scene.media.AudioClip;
-import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import scenes.GameScene;
+import simulation.World;
+import simulation.WorldListener;
 import tiles.Platform;
 import utilities.AnimatedSprite;
+import utilities.AnimationClip;
 import utilities.Camera;
 import utilities.CollisionChecker;
 import utilities.KeyHandler;
-import utilities.XmlReader;
+import utilities.LevelReader;
 
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.EnumMap;
 
 import static javafx.scene.paint.Color.YELLOW;
 
@@ -35,25 +36,39 @@ public class Hero extends AnimatedThing {
      */
     private static final double scale = 1;
     /**
-     * Hero's ImageView's default source file.
+     * Duration of a frame of the Hero's animations in seconds.
      */
-    private static final String defaultFileName = "/images/Tiles_32x32/Virtual Guy/Idle.png";
+    private static final double frameDuration = 0.06;
     /**
-     * Number of sprites used for the animation.
+     * Directory of the Hero's sprite sheets.
      */
-    private static final int COLUMNS = 10;
+    private static final String spriteDirectory = "/images/Tiles_32x32/Virtual Guy/";
     /**
-     * Actual index referring to the sprite sheet's displayed image.
+     * Clip played for each of the Hero's attitudes, shared by every Hero.
+     * @see AnimationClip
      */
-    private static final int COUNT = 0;
+    private static final EnumMap<Attitude, AnimationClip> clips = new EnumMap<>(Attitude.class);
+
+    static {
+        clips.put(Attitude.IDLE, new AnimationClip(spriteDirectory + "Idle.png", 11, frameDuration, true, AnimationClip.Mirroring.KEEP));
+        clips.put(Attitude.RUN_RIGHT, new AnimationClip(spriteDirectory + "Run.png", 12, frameDuration, true, AnimationClip.Mirroring.RIGHT));
+        clips.put(Attitude.RUN_LEFT, new AnimationClip(spriteDirectory + "Run.png", 12, frameDuration, true, AnimationClip.Mirroring.LEFT));
+        clips.put(Attitude.JUMP, new AnimationClip(spriteDirectory + "Jump.png", 1, frameDuration, false, AnimationClip.Mirroring.KEEP));
+        clips.put(Attitude.JUMP_RIGHT, new AnimationClip(spriteDirectory + "Jump.png", 1, frameDuration, false, AnimationClip.Mirroring.RIGHT));
+        clips.put(Attitude.JUMP_LEFT, new AnimationClip(spriteDirectory + "Jump.png", 1, frameDuration, false, AnimationClip.Mirroring.LEFT));
+        clips.put(Attitude.FALL, new AnimationClip(spriteDirectory + "Fall.png", 1, frameDuration, false, AnimationClip.Mirroring.KEEP));
+        clips.put(Attitude.FALL_RIGHT, new AnimationClip(spriteDirectory + "Fall.png", 1, frameDuration, false, AnimationClip.Mirroring.RIGHT));
+        clips.put(Attitude.FALL_LEFT, new AnimationClip(spriteDirectory + "Fall.png", 1, frameDuration, false, AnimationClip.Mirroring.LEFT));
+        clips.put(Attitude.DEAD, new AnimationClip(spriteDirectory + "Hit.png", 7, frameDuration, false, AnimationClip.Mirroring.KEEP));
+    }
     /**
      * Hero's collected coin number.
      */
     private static int score;
     /**
-     * GameScene in which the Hero belongs.
+     * World in which the Hero belongs.
      */
-    private final GameScene gameScene;
+    private final World world;
     /**
      * Inputs manager for actions to perform.
      */
@@ -82,23 +97,28 @@ public class Hero extends AnimatedThing {
      * Key ImageView used for the Hero's GUI.
      */
     private ImageView key;
+    /**
+     * Score value actually shown by the text field, used to refresh it only when the score changes.
+     */
+    private int displayedScore = -1;
 
     /**
-     * Creates the Hero to be displayed in the GameScene. The Hero performs different actions
+     * Creates the Hero to be simulated in the World. The Hero performs different actions
      * based on the inputs registered by the KeyHandler.
+     * The Hero's display is only loaded once it is shown in a GameScene.
      *
-     * @param gameScene the gameScene where the Hero is displayed.
+     * @param world the World where the Hero is simulated.
      * @param keyHandler the input handler for actions to be performed.
-     * @see GameScene
+     * @see World
      * @see KeyHandler
      */
-    public Hero(GameScene gameScene, KeyHandler keyHandler) {
-        super(defaultFileName, COLUMNS, COUNT, scale);
-        this.gameScene = gameScene;
+    public Hero(World world, KeyHandler keyHandler) {
+        super(clips, scale);
+        this.world = world;
         this.keyHandler = keyHandler;
         loadHeroValues();
-        loadHeroInterface();
-        hitBox = new Rectangle(imageView.getX(), imageView.getY(), GameScene.tileSize, GameScene.tileSize);
+        hitWidth = GameScene.tileSize;
+        hitHeight = GameScene.tileSize;
         accelY = gravity;
         collisions = new ArrayList<>();
         actualState = State.JUMP;
@@ -127,6 +147,7 @@ public class Hero extends AnimatedThing {
      * @return the reference of the collected number of coins field.
      */
     public Text getText() {
+        if (text == null) loadHeroInterface();
         return text;
     }
 
@@ -138,6 +159,14 @@ public class Hero extends AnimatedThing {
         score = score + amount;
     }
 
+    /**
+     * Resets the number of collected coins. It is called when a new GameScene is shown,
+     * rather than when a Hero is created, so that a World loaded in the background doesn't reset the score.
+     */
+    public static void resetScore() {
+        score = 0;
+    }
+
     /**
      * @return the number of collected coins.
      */
@@ -149,6 +178,7 @@ public class Hero extends AnimatedThing {
      * @return the coin ImageView used by the GUI.
      */
     public ImageView getCoin() {
+        if (coin == null) loadHeroInterface();
         return coin;
     }
 
@@ -156,9 +186,24 @@ public class Hero extends AnimatedThing {
      * @return the key ImageView used by the GUI.
      */
     public ImageView getKey() {
+        if (key == null) loadHeroInterface();
         return key;
     }
 
+    /**
+     * Releases the Hero's display and GUI elements.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (coin != null) coin.setImage(null);
+        if (key != null) key.setImage(null);
+        coin = null;
+        key = null;
+        text = null;
+        displayedScore = -1;
+    }
+
     /**
      * Loads the Hero's GUI elements in memory.
      * List of elements loaded :
@@ -171,7 +216,6 @@ public class Hero extends AnimatedThing {
     public void loadHeroInterface() {
         coin = new ImageView(new Image("/images/Tiles_256x256/Coin.gif", 20, 20, true, true));
         key = new ImageView(new Image("/images/Tiles_256x256/pixel-key.png", 40, 40, true, true));
-        score = 0;
         text = new Text();
         coin.setX(960);
         coin.setY(35);
@@ -186,7 +230,7 @@ public class Hero extends AnimatedThing {
 
     /**
      * Assigns the main physics values to the Hero on the creation of this object.
-     * Tha values to be used are extracted form the XmlReader object.
+     * Tha values to be used are extracted form the LevelReader object.
      * List of values loaded :
      * <ul>
      * <li>WorldX (Hero's starting X-axis coordinate)
@@ -194,61 +238,60 @@ public class Hero extends AnimatedThing {
      * <li>Speed (Hero's movement speed on both X and Y axis)
      * <li>Gravity (Hero's gravity applied on Y axis)
      * </ul>
-     * @see XmlReader
+     * @see LevelReader
      */
     public void loadHeroValues() {
-        gravity = gameScene.reader.getGravity();
-        speed = gameScene.reader.getSpeed();
-        worldX = gameScene.reader.getStartPosX();
-        worldY = gameScene.reader.getStartPosY();
+        gravity = world.getReader().getGravity();
+        speed = world.getReader().getSpeed();
+        worldX = world.getReader().getStartPosX();
+        worldY = world.getReader().getStartPosY();
+        savePreviousPosition();
     }
 
     /**
-     * This method is called by the GameScene object to perform the Hero's updates.
+     * This method is called by the World object to perform the Hero's updates.
      * This method is sensitive to inputs registered in the KeyHandler to apply movement speed on both X and Y axes and to perform interactions
      * with the other elements of the scene. Also, it checks if collisions were occurred since last call in order to allow the Hero's movement.
      * @param time the elapsed time since update's last call.
      * @see CollisionChecker
      * @see KeyHandler
-     * @see GameScene
+     * @see World
      */
 
     public void update(double time) {
-        text.setText("x" + score);
-
         resetCollisions();
 
         if (!keyHandler.keysPressed.contains(KeyCode.E)) interact = true;
 
         if (keyHandler.keysPressed.contains(KeyCode.E)) {
-            gameScene.getCollisionChecker().borrowDoor(this);
-            gameScene.getCollisionChecker().isTalking(this);
+            world.getCollisionChecker().borrowDoor(this);
+            world.getCollisionChecker().isTalking(this);
         }
 
-        gameScene.getCollisionChecker().collectCoin(this);
+        world.getCollisionChecker().collectCoin(this);
 
 
         if ((!keyHandler.keysPressed.contains(KeyCode.D) && !keyHandler.keysPressed.contains(KeyCode.Q))
                 || (keyHandler.keysPressed.contains(KeyCode.D) && keyHandler.keysPressed.contains(KeyCode.Q))) {
             velocityX = 0;
             if (actualState.equals(State.JUMP)) {
-                if (velocityY > 0) sprite.setAttitude("fall");
-                else sprite.setAttitude("jump");
-            } else sprite.setAttitude("idle");
+                if (velocityY > 0) attitude = Attitude.FALL;
+                else attitude = Attitude.JUMP;
+            } else attitude = Attitude.IDLE;
         }
         if ((keyHandler.keysPressed.contains(KeyCode.Q) && !keyHandler.keysPressed.contains(KeyCode.D))) {
             velocityX = -speed;
             if (actualState.equals(State.JUMP)) {
-                if (velocityY > 0) sprite.setAttitude("fall_left");
-                else sprite.setAttitude("jump_left");
-            } else sprite.setAttitude("run_left");
+                if (velocityY > 0) attitude = Attitude.FALL_LEFT;
+                else attitude = Attitude.JUMP_LEFT;
+            } else attitude = Attitude.RUN_LEFT;
         }
         if ((keyHandler.keysPressed.contains(KeyCode.D) && !keyHandler.keysPressed.contains(KeyCode.Q))) {
             velocityX = speed;
             if (actualState.equals(State.JUMP)) {
-                if (velocityY > 0) sprite.setAttitude("fall_right");
-                else sprite.setAttitude("jump_right");
-            } else sprite.setAttitude("run_right");
+                if (velocityY > 0) attitude = Attitude.FALL_RIGHT;
+                else attitude = Attitude.JUMP_RIGHT;
+            } else attitude = Attitude.RUN_RIGHT;
         }
 
         if ((keyHandler.keysPressed.contains(KeyCode.Z) || keyHandler.keysPressed.contains(KeyCode.UP))) {
@@ -260,8 +303,8 @@ public class Hero extends AnimatedThing {
             else velocityY += 1.9 * accelY * time;
         }
 
-        gameScene.getCollisionChecker().checkCollision(this);
-        gameScene.getCollisionChecker().isDead(this);
+        world.getCollisionChecker().checkCollision(this);
+        world.getCollisionChecker().isDead(this);
 
         if (collisions.isEmpty()) actualState = State.JUMP;
         else {
@@ -283,16 +326,20 @@ public class Hero extends AnimatedThing {
     }
 
     /**
-     * Renders the Hero's display based on the Camera parameter.
-     * @param camera the camera to use as a display reference.
-     * @see Camera
+     * Renders the Hero's display at its world coordinates, the camera being applied by the GameScene's world layer.
+     * The displayed position is interpolated between the last two simulation steps, and the attitude chosen by the simulation is applied to the sprite.
+     * @param alpha progress between the previous and the actual simulation step, from 0 to 1.
+     * @see GameScene#getWorldLayer()
      */
-    public void render(Camera camera) {
-        imageView.setX(worldX - camera.getWorldX());
-        imageView.setY(worldY - camera.getWorldY());
+    public void render(double alpha) {
+        getSprite().setAttitude(attitude);
+        imageView.setX(getInterpolatedX(alpha));
+        imageView.setY(getInterpolatedY(alpha));
 
-        hitBox.setX(imageView.getX());
-        hitBox.setY(imageView.getY());
+        if (displayedScore != score) {
+            displayedScore = score;
+            getText().setText("x" + score);
+        }
     }
 
     /**
@@ -305,21 +352,21 @@ public class Hero extends AnimatedThing {
     public void setSpawnCoordinates(double x, double y) {
         worldX = x;
         worldY = y;
-        render(gameScene.getSceneCamera());
-        gameScene.getSceneCamera().recenterOnHero();
+        savePreviousPosition();
+        world.getCamera().recenterOnHero();
     }
 
     /**
      * This method makes the Hero jump if he is allowed to.
      * Note that to perform this action, the Hero has to be on a platform (in other words, his state must be FLOOR).
-     * Each time this action is performed, the Hero's attitude changes to "Jump" (which updates his imageView) and a sound is played.
+     * Each time this action is performed, the Hero's attitude changes to JUMP (which updates his imageView once rendered) and a sound is played.
      * @see AnimatedSprite
      */
 
     public void jump() {
         if (actualState.equals(State.FLOOR)) {
             actualState = State.JUMP;
-            sprite.setAttitude("jump");
+            attitude = Attitude.JUMP;
             velocityY = -450;
             playSound("music/jump.wav");
         }
@@ -344,15 +391,12 @@ public class Hero extends AnimatedThing {
     }
 
     /**
-     * Is used to play a sound saved in the resources' directory that matches with the filename parameter.
-     * If none of the files match, a NullPointerException is thrown.
+     * Asks the World's listener to play a sound saved in the resources' directory that matches with the filename parameter.
      * @param filename sound's file name to be played.
-     * @see AudioClip
+     * @see WorldListener#playSound(String)
      */
     public void playSound(String filename) {
-        String url = Objects.requireNonNull(getClass().getResource("/" + filename)).toString();
-        AudioClip clip = new AudioClip(url);
-        clip.play();
+        world.getListener().playSound(filename);
     }
 
     /**
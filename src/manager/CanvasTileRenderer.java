@@ -0,0 +1,98 @@
+package manager;
+
+import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import tiles.Platform;
+import tiles.Tile;
+import utilities.TextureAtlas;
+
+import java.util.List;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Draws the Tile objects in a single Canvas, so that a level only adds one node to the scene graph whatever its number of tiles.
+ * The Canvas lies in the world layer and follows the camera so that it always covers the camera's view.
+ * The Canvas is cleared and the tiles in the camera's view are drawn again on every frame,
+ * from the level's TextureAtlas so that the draw calls share a few source images.
+ * @see TileRenderer
+ */
+public class CanvasTileRenderer implements TileRenderer {
+
+    /**
+     * X-axis coordinate of the Canvas, relative to the screen.
+     */
+    private final double x;
+    /**
+     * Y-axis coordinate of the Canvas, relative to the screen.
+     */
+    private final double y;
+    /**
+     * Canvas' width.
+     */
+    private final double width;
+    /**
+     * Canvas' height.
+     */
+    private final double height;
+    /**
+     * Canvas in which the tiles are drawn. It is only created once the tiles are displayed.
+     */
+    private Canvas canvas;
+
+    /**
+     * Creates a CanvasTileRenderer that covers the camera's view.
+     * @param x X-axis coordinate of the camera's view, relative to the screen.
+     * @param y Y-axis coordinate of the camera's view, relative to the screen.
+     * @param width view's width.
+     * @param height view's height.
+     */
+    public CanvasTileRenderer(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void attach(Group root, List<Tile> tiles) {
+        canvas = new Canvas(width, height);
+        root.getChildren().add(canvas);
+    }
+
+    @Override
+    public int render(List<Tile> visibleTiles, List<Tile> previousVisibleTiles, int frame, double cameraX, double cameraY, boolean platformsShown) {
+        canvas.setLayoutX(cameraX + x);
+        canvas.setLayoutY(cameraY + y);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+
+        int drawnTiles = 0;
+        for (Tile tile : visibleTiles) {
+            if (!tile.isShown() || (!platformsShown && tile instanceof Platform)) continue;
+            TextureAtlas.Region region = tile.getRegion();
+            // Every cell of a run is drawn from the same sprite.
+            for (int cell = 0; cell < tile.getCellCount(); cell++) {
+                double screenX = tile.getCellX(cell) - cameraX - x;
+                double screenY = tile.getCellY(cell) - cameraY - y;
+                if (region != null)
+                    gc.drawImage(region.getImage(), region.getX(), region.getY(), region.getWidth(), region.getHeight(),
+                            screenX, screenY, region.getWidth(), region.getHeight());
+                else gc.drawImage(tile.getImage(), screenX, screenY);
+            }
+            drawnTiles++;
+        }
+        return drawnTiles;
+    }
+
+    @Override
+    public void dispose() {
+        if (canvas != null) canvas.getGraphicsContext2D().clearRect(0, 0, width, height);
+        canvas = null;
+    }
+}
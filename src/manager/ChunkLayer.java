@@ -0,0 +1,300 @@
+package manager;
+
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import scenes.GameScene;
+import tiles.Tile;
+import utilities.TextureAtlas;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Displays the tiles that never change (platforms, spikes and doors) from images baked once at load time.
+ * The level is split into square chunks of chunkTiles x chunkTiles tiles, and the static tiles overlapping each chunk
+ * are blended into the chunk's image. The chunks are indexed by column and row, so that only the chunks overlapping the camera's view are visited and shown.
+ * The baking only writes pixels through a PixelWriter, so it can run on a worker thread.
+ * @see TileManager
+ */
+public class ChunkLayer {
+
+    /**
+     * Number of tiles on each side of a chunk.
+     */
+    public static final int chunkTiles = 16;
+    /**
+     * Size in pixels of a chunk's side.
+     */
+    public static final int chunkSize = chunkTiles * GameScene.tileSize;
+
+    /**
+     * Baked chunks. Only the chunks holding at least one tile are created.
+     */
+    private final ArrayList<Chunk> chunks = new ArrayList<>();
+    /**
+     * Baked chunks by column and row, row after row, inside the bounds of the baked chunks, or null where no chunk was baked.
+     */
+    private Chunk[] grid = new Chunk[0];
+    /**
+     * Column of the grid's first chunk.
+     */
+    private int minColumn;
+    /**
+     * Row of the grid's first chunk.
+     */
+    private int minRow;
+    /**
+     * Number of columns of the grid.
+     */
+    private int columns;
+    /**
+     * Number of rows of the grid.
+     */
+    private int rows;
+    /**
+     * Chunks shown by the last render.
+     */
+    private ArrayList<Chunk> shownChunks = new ArrayList<>();
+    /**
+     * Chunks shown by the render before, swapped with shownChunks on each render.
+     */
+    private ArrayList<Chunk> previousShownChunks = new ArrayList<>();
+    /**
+     * Number of the actual render, used to find the chunks that left the view.
+     */
+    private int frame;
+
+    private ChunkLayer() {
+    }
+
+    /**
+     * Bakes tiles into chunk images, from their region in the level's TextureAtlas.
+     * The tiles are blended in the list's order, and the tiles without region are ignored.
+     * @param tiles the static tiles to bake.
+     * @return the baked ChunkLayer.
+     */
+    public static ChunkLayer bake(List<Tile> tiles) {
+        HashMap<Long, int[]> pixelsByChunk = new HashMap<>();
+        HashMap<TextureAtlas.Region, int[]> sources = new HashMap<>();
+
+        for (Tile tile : tiles) {
+            TextureAtlas.Region region = tile.getRegion();
+            if (region == null) continue;
+            int[] source = sources.computeIfAbsent(region, ChunkLayer::readPixels);
+            int width = (int) region.getWidth();
+            int height = (int) region.getHeight();
+            for (int cell = 0; cell < tile.getCellCount(); cell++) {
+                int x = (int) Math.round(tile.getCellX(cell));
+                int y = (int) Math.round(tile.getCellY(cell));
+
+                for (int row = Math.floorDiv(y, chunkSize); row <= Math.floorDiv(y + height - 1, chunkSize); row++) {
+                    for (int column = Math.floorDiv(x, chunkSize); column <= Math.floorDiv(x + width - 1, chunkSize); column++) {
+                        int[] destination = pixelsByChunk.computeIfAbsent(key(column, row), k -> new int[chunkSize * chunkSize]);
+                        blend(source, width, height, destination, x - column * chunkSize, y - row * chunkSize);
+                    }
+                }
+            }
+        }
+
+        ChunkLayer layer = new ChunkLayer();
+        int minColumn = Integer.MAX_VALUE, minRow = Integer.MAX_VALUE, maxColumn = Integer.MIN_VALUE, maxRow = Integer.MIN_VALUE;
+        for (Map.Entry<Long, int[]> entry : pixelsByChunk.entrySet()) {
+            WritableImage image = new WritableImage(chunkSize, chunkSize);
+            image.getPixelWriter().setPixels(0, 0, chunkSize, chunkSize, PixelFormat.getIntArgbInstance(), entry.getValue(), 0, chunkSize);
+            int column = (int) (entry.getKey() >> 32);
+            int row = (int) (long) entry.getKey();
+            layer.chunks.add(new Chunk(column, row, image));
+            minColumn = Math.min(minColumn, column);
+            minRow = Math.min(minRow, row);
+            maxColumn = Math.max(maxColumn, column);
+            maxRow = Math.max(maxRow, row);
+        }
+        if (layer.chunks.isEmpty()) return layer;
+
+        layer.minColumn = minColumn;
+        layer.minRow = minRow;
+        layer.columns = maxColumn - minColumn + 1;
+        layer.rows = maxRow - minRow + 1;
+        layer.grid = new Chunk[layer.columns * layer.rows];
+        for (Chunk chunk : layer.chunks)
+            layer.grid[(chunk.row - minRow) * layer.columns + chunk.column - minColumn] = chunk;
+        return layer;
+    }
+
+    /**
+     * Adds an ImageView for each chunk in the GameScene's world layer, at the chunk's world coordinates.
+     * They are hidden until they enter the camera's view.
+     * @param root the GameScene's world layer.
+     */
+    public void attach(Group root) {
+        for (Chunk chunk : chunks) {
+            chunk.imageView = new ImageView(chunk.image);
+            chunk.imageView.setX(chunk.column * chunkSize);
+            chunk.imageView.setY(chunk.row * chunkSize);
+            chunk.imageView.setVisible(false);
+            root.getChildren().add(chunk.imageView);
+        }
+    }
+
+    /**
+     * Shows the chunks overlapping the camera's view, and hides the other ones.
+     * @param viewX X-axis world coordinate of the camera's view.
+     * @param viewY Y-axis world coordinate of the camera's view.
+     * @param viewWidth view's width.
+     * @param viewHeight view's height.
+     */
+    public void render(double viewX, double viewY, double viewWidth, double viewHeight) {
+        ArrayList<Chunk> swap = previousShownChunks;
+        previousShownChunks = shownChunks;
+        shownChunks = swap;
+        shownChunks.clear();
+        frame++;
+
+        // Only the grid's cells overlapping the view are visited.
+        int firstColumn = Math.max(minColumn, (int) Math.floor(viewX / chunkSize));
+        int lastColumn = Math.min(minColumn + columns - 1, (int) Math.ceil((viewX + viewWidth) / chunkSize) - 1);
+        int firstRow = Math.max(minRow, (int) Math.floor(viewY / chunkSize));
+        int lastRow = Math.min(minRow + rows - 1, (int) Math.ceil((viewY + viewHeight) / chunkSize) - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Chunk chunk = grid[(row - minRow) * columns + column - minColumn];
+                if (chunk == null || chunk.imageView == null) continue;
+                chunk.frame = frame;
+                chunk.imageView.setVisible(true);
+                shownChunks.add(chunk);
+            }
+        }
+
+        // The chunks shown by the last render that left the view are hidden.
+        for (int i = 0; i < previousShownChunks.size(); i++) {
+            Chunk chunk = previousShownChunks.get(i);
+            if (chunk.frame != frame) chunk.imageView.setVisible(false);
+        }
+    }
+
+    /**
+     * Releases the chunks' images.
+     */
+    public void dispose() {
+        for (Chunk chunk : chunks)
+            if (chunk.imageView != null) chunk.imageView.setImage(null);
+        chunks.clear();
+        grid = new Chunk[0];
+        columns = rows = 0;
+        shownChunks.clear();
+        previousShownChunks.clear();
+    }
+
+    /**
+     * @return the number of baked chunks.
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return the number of chunks drawn by the last render.
+     */
+    public int getDrawnChunks() {
+        return shownChunks.size();
+    }
+
+    /**
+     * @return the number of bytes of the chunks' images, decoded in 32 bits ARGB.
+     */
+    public long getBytes() {
+        return (long) chunks.size() * chunkSize * chunkSize * 4;
+    }
+
+    /**
+     * Reads the pixels of an atlas region in non premultiplied ARGB.
+     */
+    static int[] readPixels(TextureAtlas.Region region) {
+        int width = (int) region.getWidth();
+        int height = (int) region.getHeight();
+        int[] pixels = new int[width * height];
+        region.getImage().getPixelReader().getPixels((int) region.getX(), (int) region.getY(), width, height,
+                PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return pixels;
+    }
+
+    /**
+     * Blends a sprite over a chunk's pixels with the source-over rule, clipped to the chunk.
+     * @param source the sprite's pixels.
+     * @param width the sprite's width.
+     * @param height the sprite's height.
+     * @param destination the chunk's pixels.
+     * @param x X-axis coordinate of the sprite inside the chunk, possibly negative.
+     * @param y Y-axis coordinate of the sprite inside the chunk, possibly negative.
+     */
+    static void blend(int[] source, int width, int height, int[] destination, int x, int y) {
+        int firstColumn = Math.max(0, -x), lastColumn = Math.min(width, chunkSize - x);
+        int firstRow = Math.max(0, -y), lastRow = Math.min(height, chunkSize - y);
+        for (int row = firstRow; row < lastRow; row++) {
+            int sourceIndex = row * width;
+            int destinationIndex = (y + row) * chunkSize + x;
+            for (int column = firstColumn; column < lastColumn; column++) {
+                int src = source[sourceIndex + column];
+                int sourceAlpha = src >>> 24;
+                if (sourceAlpha == 0) continue;
+                if (sourceAlpha == 255) {
+                    destination[destinationIndex + column] = src;
+                    continue;
+                }
+                int dst = destination[destinationIndex + column];
+                int destinationAlpha = (dst >>> 24) * (255 - sourceAlpha) / 255;
+                int alpha = sourceAlpha + destinationAlpha;
+                int red = (((src >> 16) & 0xFF) * sourceAlpha + ((dst >> 16) & 0xFF) * destinationAlpha) / alpha;
+                int green = (((src >> 8) & 0xFF) * sourceAlpha + ((dst >> 8) & 0xFF) * destinationAlpha) / alpha;
+                int blue = ((src & 0xFF) * sourceAlpha + (dst & 0xFF) * destinationAlpha) / alpha;
+                destination[destinationIndex + column] = alpha << 24 | red << 16 | green << 8 | blue;
+            }
+        }
+    }
+
+    private static long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A baked chunk and its display.
+     */
+    private static final class Chunk {
+        /**
+         * Column of the chunk.
+         */
+        private final int column;
+        /**
+         * Row of the chunk.
+         */
+        private final int row;
+        /**
+         * The chunk's baked image.
+         */
+        private final WritableImage image;
+        /**
+         * The chunk's ImageView, created once the layer is attached.
+         */
+        private ImageView imageView;
+        /**
+         * Number of the last render that showed the chunk.
+         */
+        private int frame;
+
+        private Chunk(int column, int row, WritableImage image) {
+            this.column = column;
+            this.row = row;
+            this.image = image;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package manager;
+
+import javafx.scene.Group;
+import tiles.Platform;
+import tiles.Tile;
+
+import java.util.List;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Displays each Tile object with its own ImageView, placed once at the Tile's world coordinates.
+ * The ImageView objects in the camera's view are shown, while the ones that left the view are hidden.
+ * @see TileRenderer
+ */
+public class NodeTileRenderer implements TileRenderer {
+
+    /**
+     * Adds all the Tile objects' node in the GameScene's root. They are hidden until they enter the camera's view.
+     * @param root the GameScene's root node where the Tile objects are displayed.
+     * @param tiles every Tile object of the level.
+     */
+    @Override
+    public void attach(Group root, List<Tile> tiles) {
+        for (Tile tile : tiles) {
+            tile.getNode().setVisible(false);
+            root.getChildren().add(tile.getNode());
+        }
+    }
+
+    @Override
+    public int render(List<Tile> visibleTiles, List<Tile> previousVisibleTiles, int frame, double cameraX, double cameraY, boolean platformsShown) {
+        int drawnTiles = 0;
+        for (Tile tile : visibleTiles) {
+            boolean shown = tile.isShown() && (platformsShown || !(tile instanceof Platform));
+            tile.getNode().setVisible(shown);
+            if (shown) drawnTiles++;
+        }
+
+        for (Tile tile : previousVisibleTiles)
+            if (tile.getRenderFrame() != frame) tile.getNode().setVisible(false);
+        return drawnTiles;
+    }
+
+    /**
+     * The nodes are released with their Tile.
+     * @see Tile#dispose()
+     */
+    @Override
+    public void dispose() {
+    }
+}
@@ -1,12 +1,23 @@
 package manager;
 
 import javafx.scene.Group;
+import javafx.scene.image.Image;
 import scenes.GameScene;
 import tiles.*;
 import utilities.Camera;
-import utilities.XmlReader;
+import utilities.ImageCache;
+import utilities.SpatialGrid;
+import utilities.TextureAtlas;
+import utilities.LevelReader;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -16,117 +27,411 @@ import java.util.ArrayList;
 
 public class TileManager {
     /**
-     * GameScene in which the TileManager belongs.
+     * Number of threads decoding the sprites while a level is loaded.
      */
-    private final GameScene gameScene;
+    public static final int decoderThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    /**
+     * Bounded pool on which the distinct sprites of a level are decoded in parallel. It doesn't prevent the application from exiting.
+     */
+    private static final ExecutorService decoders = Executors.newFixedThreadPool(decoderThreads, runnable -> {
+        Thread thread = new Thread(runnable, "sprite-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
-     * List of all the Tile objects loaded in the GameScene by the XmlReader.
+     * LevelReader from which the Tile objects are loaded.
+     * @see LevelReader
+     */
+    private final LevelReader reader;
+
+    /**
+     * List of all the Tile objects loaded in the GameScene by the LevelReader.
      * @see Tile
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private final ArrayList<Tile> tiles = new ArrayList<>();
     /**
-     * List of all the Platform objects loaded in the GameScene by the XmlReader.
+     * List of all the Platform objects loaded in the GameScene by the LevelReader.
      * @see Platform
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private ArrayList<Platform> platforms;
     /**
-     * List of all the Coin objects loaded in the GameScene by the XmlReader.
+     * List of all the Coin objects loaded in the GameScene by the LevelReader.
      * @see Coin
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private ArrayList<Coin> coins;
     /**
-     * List of all the Door objects loaded in the GameScene by the XmlReader.
+     * List of all the Door objects loaded in the GameScene by the LevelReader.
      * @see Door
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private ArrayList<Door> doors;
     /**
-     * List of all the Spike objects loaded in the GameScene by the XmlReader.
+     * List of all the Spike objects loaded in the GameScene by the LevelReader.
      * @see Spike
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private ArrayList<Spike> spikes;
     /**
-     * List of all the Npc objects loaded in the GameScene by the XmlReader.
+     * List of all the Npc objects loaded in the GameScene by the LevelReader.
      * @see Npc
      * @see GameScene
-     * @see XmlReader
+     * @see LevelReader
      */
     private ArrayList<Npc> npc;
+    /**
+     * Spatial index of the Platform objects, built once the level is loaded.
+     * @see SpatialGrid
+     */
+    private final SpatialGrid<Platform> platformGrid = new SpatialGrid<>(GameScene.tileSize);
+    /**
+     * Tile objects that never change once the level is loaded : they are baked in the ChunkLayer.
+     * @see ChunkLayer
+     */
+    private final ArrayList<Tile> staticTiles = new ArrayList<>();
+    /**
+     * Tile objects whose display changes, such as the coins, the Npc objects and the blinking Platform objects.
+     * They are drawn by the TileRenderer.
+     */
+    private final ArrayList<Tile> dynamicTiles = new ArrayList<>();
+    /**
+     * Spatial index of the dynamic Tile objects by their displayed bounds, used to render only the tiles in the camera's view.
+     * @see SpatialGrid
+     */
+    private final SpatialGrid<Tile> tileGrid = new SpatialGrid<>(GameScene.tileSize * 4);
+    /**
+     * Tile objects in the camera's view during the actual frame.
+     */
+    private ArrayList<Tile> visibleTiles = new ArrayList<>();
+    /**
+     * Tile objects in the camera's view during the previous frame.
+     */
+    private ArrayList<Tile> previousVisibleTiles = new ArrayList<>();
+    /**
+     * Bounds of the camera's view relative to the camera's position, stored as (x, y, width, height).
+     * When the GameScene's root is rotated, it is the bounding box of the rotated screen.
+     */
+    private final double[] view = new double[4];
+    /**
+     * Renderer that displays the tiles in the camera's view, selected by the level's render mode.
+     * @see TileRenderer
+     */
+    private final TileRenderer renderer;
+    /**
+     * Atlas of the sprites used by the level, built before the tiles are displayed.
+     * @see TextureAtlas
+     */
+    private TextureAtlas atlas;
+    /**
+     * Images of the static tiles, baked once the atlas is built.
+     * @see ChunkLayer
+     */
+    private ChunkLayer chunkLayer;
+    /**
+     * Dense grid of tile IDs of the level, or null if the level has none.
+     * @see TileMap
+     */
+    private TileMap tileMap;
+    /**
+     * Display of the TileMap's cells, created once the atlas is built.
+     * @see TileMapLayer
+     */
+    private TileMapLayer tileMapLayer;
+    /**
+     * Number of the actual frame, used to find the tiles that left the camera's view.
+     */
+    private int frame;
+    /**
+     * Number of Tile objects visited by the last render.
+     */
+    private int visitedTiles;
+    /**
+     * Number of Tile objects drawn by the last render.
+     */
+    private int drawnTiles;
 
     /**
-     * Creates a TileManager that loads and adds the tiles in the current GameScene.
-     * Also, the TileManager runs all the updates of the Tiles present in each Level/Room.
-     * @param gameScene the GameScene this object belongs to and where the Tile objects are displayed.
+     * Creates a TileManager that loads the tiles of a Level/Room.
+     * Also, the TileManager runs all the updates of the Tiles present in each Level/Room once they are displayed.
+     * Note : loading the tiles doesn't require any JavaFX toolkit, only their display does.
+     * @param reader the LevelReader from which the Tile objects are loaded.
      * @see #loadLevel()
-     * @see #addTilesOnScene()
-     * @see #render(long time)
+     * @see #addTilesOnScene(Group)
+     * @see #render(long, Camera)
      */
-    public TileManager(GameScene gameScene) {
-        this.gameScene = gameScene;
+    public TileManager(LevelReader reader) {
+        this.reader = reader;
         loadLevel();
-        addTilesOnScene();
+        renderer = reader.getRenderMode().equals("canvas") ? new CanvasTileRenderer(view[0], view[1], view[2], view[3]) : new NodeTileRenderer();
     }
 
     /**
-     * Loads all the Tile objects from the XmlReader.
-     * @see XmlReader
+     * Loads all the Tile objects from the LevelReader.
+     * @see LevelReader
      */
     private void loadLevel() {
-        platforms = gameScene.reader.getPlatformElements();
-        coins = gameScene.reader.getCoinElements();
-        doors = gameScene.reader.getDoorElements();
-        spikes = gameScene.reader.getSpikeElements();
-        npc = gameScene.reader.getNpcElements();
+        platforms = reader.getPlatformElements();
+        coins = reader.getCoinElements();
+        doors = reader.getDoorElements();
+        spikes = reader.getSpikeElements();
+        npc = reader.getNpcElements();
+        tileMap = reader.getTileMap();
 
         tiles.addAll(npc);
         tiles.addAll(coins);
         tiles.addAll(doors);
         tiles.addAll(spikes);
         tiles.addAll(platforms);
+        tiles.addAll(reader.getOtherElements());
+
+        for (Platform platform : platforms)
+            platformGrid.add(platform, platform.getHitX(), platform.getHitY(), platform.getHitWidth(), platform.getHitHeight());
+        platformGrid.build();
+
+        for (Tile tile : tiles) {
+            boolean isStatic = tile instanceof Platform ? !reader.getBlink() : tile instanceof Spike || tile instanceof Door;
+            (isStatic ? staticTiles : dynamicTiles).add(tile);
+        }
+
+        for (Tile tile : dynamicTiles)
+            tileGrid.add(tile, tile.getBoundsX(), tile.getBoundsY(), tile.getBoundsWidth(), tile.getBoundsHeight());
+        tileGrid.build();
+        computeView(reader.getRotation());
     }
 
     /**
-     * Adds all the Tile objects' ImageView (referenced in the tiles ArrayList) in the GameScene.
-     * @see GameScene
+     * Adds the display of the Tile objects (referenced in the tiles ArrayList) in the GameScene's world layer, at their world coordinates.
+     * The TileMap's cells are shown first, below every Tile object.
+     * Depending on the level's render mode, each dynamic tile has its own ImageView or they are all drawn in a single Canvas,
+     * while the static tiles are shown by the chunks' ImageView objects, on top of them.
+     * @param root the GameScene's world layer where the Tile objects are displayed.
+     * @see GameScene#getWorldLayer()
+     * @see TileRenderer#attach(Group, java.util.List)
+     */
+    public void addTilesOnScene(Group root) {
+        buildAtlas(null);
+        if (tileMapLayer != null) tileMapLayer.attach(root);
+        renderer.attach(root, dynamicTiles);
+        chunkLayer.attach(root);
+    }
+
+    /**
+     * Packs the sprites used by the level into a TextureAtlas, and makes every Tile display its sprite from the atlas.
+     * The distinct sprites of the Tile objects and of the TileMap's types are first collected, then decoded in parallel through the ImageCache on the decoders' pool,
+     * and finally copied into the atlas in the order they were collected and released.
+     * The static tiles are then baked into the ChunkLayer, while the TileMap's chunks are baked as they enter the camera's view.
+     * This method can be called from a worker thread before the tiles are displayed, and does nothing once the atlas is built.
+     * @param progress called after each packed sprite with the number of sprites decoded and the total, or null.
+     * @throws IllegalStateException if a sprite can't be decoded. The other sprites are still waited for and every sprite is released before throwing.
+     * @see TextureAtlas
+     */
+    public void buildAtlas(BiConsumer<Integer, Integer> progress) {
+        if (atlas != null) return;
+        LinkedHashMap<String, Sprite> sprites = new LinkedHashMap<>();
+        for (Tile tile : tiles)
+            sprites.putIfAbsent(tile.getRegionName(), new Sprite(tile.getFileName(), tile.getRequestedWidth(), tile.getRequestedHeight()));
+        if (tileMap != null) {
+            for (TileType type : tileMap.getTypes())
+                if (!type.isEmpty()) sprites.putIfAbsent(type.getRegionName(), new Sprite(type.getFileName(), GameScene.tileSize, GameScene.tileSize));
+        }
+
+        ArrayList<Future<Image>> images = new ArrayList<>();
+        for (Sprite sprite : sprites.values())
+            images.add(decoders.submit(() -> ImageCache.acquire(sprite.fileName, sprite.width, sprite.height, true, true)));
+
+        TextureAtlas.Builder builder = new TextureAtlas.Builder();
+        int decoded = 0;
+        boolean interrupted = false;
+        IllegalStateException failure = null;
+        try {
+            for (String regionName : sprites.keySet()) {
+                Future<Image> image = images.get(decoded);
+                // Every sprite is waited for, even after a failure, so that each acquired image is released below.
+                while (true) {
+                    try {
+                        Image result = image.get();
+                        if (failure == null) builder.add(regionName, result);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        if (failure == null) failure = new IllegalStateException("Can't decode " + regionName, e.getCause());
+                        break;
+                    }
+                }
+                if (progress != null) progress.accept(++decoded, sprites.size());
+            }
+            if (failure != null) throw failure;
+            atlas = builder.build();
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+            for (Sprite sprite : sprites.values())
+                ImageCache.release(sprite.fileName, sprite.width, sprite.height, true, true);
+        }
+
+        for (Tile tile : tiles)
+            tile.setRegion(atlas.getRegion(tile.getRegionName()));
+        // An animated sprite isn't packed, so that its static tiles can't be baked : they are displayed with the dynamic tiles instead.
+        boolean moved = false;
+        for (Iterator<Tile> iterator = staticTiles.iterator(); iterator.hasNext(); ) {
+            Tile tile = iterator.next();
+            if (tile.getRegion() != null) continue;
+            iterator.remove();
+            dynamicTiles.add(tile);
+            tileGrid.add(tile, tile.getBoundsX(), tile.getBoundsY(), tile.getBoundsWidth(), tile.getBoundsHeight());
+            moved = true;
+        }
+        if (moved) tileGrid.build();
+        chunkLayer = ChunkLayer.bake(staticTiles);
+        if (tileMap != null) tileMapLayer = new TileMapLayer(tileMap, atlas);
+    }
+
+    /**
+     * @return the chunkLayer's property value, or null if it isn't baked yet.
+     */
+    public ChunkLayer getChunkLayer() {
+        return chunkLayer;
+    }
+
+    /**
+     * @return the tileMap's property value, or null if the level has no TileMap.
+     */
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    /**
+     * Streams the regions of the TileMap around the Hero, if the level has a streamed TileMap.
+     * @param x X-axis world coordinate of the Hero's hit box.
+     * @param y Y-axis world coordinate of the Hero's hit box.
+     * @param width width of the Hero's hit box.
+     * @param height height of the Hero's hit box.
+     * @see TileMap#stream(double, double, double, double)
+     */
+    public void streamRegions(double x, double y, double width, double height) {
+        if (tileMap != null) tileMap.stream(x, y, width, height);
+    }
+
+    /**
+     * @return the tileMapLayer's property value, or null if the level has no TileMap or if the atlas isn't built yet.
      */
-    private void addTilesOnScene() {
-        for(Tile tile : tiles)
-            ((Group) gameScene.getRoot()).getChildren().add(tile.getImageView());
+    public TileMapLayer getTileMapLayer() {
+        return tileMapLayer;
+    }
+
+    /**
+     * @return the atlas' property value, or null if it isn't built yet.
+     */
+    public TextureAtlas getAtlas() {
+        return atlas;
     }
 
     /**
      * Renders the Tile's display based on the GameScene's camera reference.
+     * Only the dynamic tiles in the camera's view are visited and drawn by the TileRenderer, and only the chunks overlapping the view are shown.
      * If the Platforms are set up to blink, this method will set them visible/invisible periodically based on the time parameter.
-     * @param time the camera to use as a display reference.
+     * @param time the actual frame's timestamp in nanoseconds.
+     * @param camera the camera to use as a display reference.
      * @see GameScene
      * @see Camera
      * @see Platform
      */
-    public void render(long time) {
-        for (Tile tile : tiles) {
-            double x = tile.getWorldX();
-            double y = tile.getWorldY();
+    public void render(long time, Camera camera) {
+        double cameraX = camera.getRenderX();
+        double cameraY = camera.getRenderY();
+        boolean platformsShown = (time / 1000000) % 1000 <= 250 || !reader.getBlink();
 
-            tile.getImageView().setX(x - gameScene.getSceneCamera().getWorldX());
-            tile.getImageView().setY(y - gameScene.getSceneCamera().getWorldY());
+        ArrayList<Tile> swap = previousVisibleTiles;
+        previousVisibleTiles = visibleTiles;
+        visibleTiles = swap;
+        visibleTiles.clear();
+        tileGrid.query(cameraX + view[0], cameraY + view[1], view[2], view[3], visibleTiles);
+        frame++;
+        for (Tile tile : visibleTiles)
+            tile.setRenderFrame(frame);
 
-            tile.getHitBox().setX(tile.getImageView().getX());
-            tile.getHitBox().setY(tile.getImageView().getY());
-        }
+        visitedTiles = tileGrid.getVisited();
+        drawnTiles = renderer.render(visibleTiles, previousVisibleTiles, frame, cameraX, cameraY, platformsShown);
+        chunkLayer.render(cameraX + view[0], cameraY + view[1], view[2], view[3]);
+        if (tileMapLayer != null) tileMapLayer.render(cameraX + view[0], cameraY + view[1], view[2], view[3]);
+    }
 
-        for (Platform platform : platforms) {
-            platform.getImageView().setVisible((time / 1000000) % 1000 <= 250 || !gameScene.reader.getBlink());
+    /**
+     * Computes the bounds of the screen seen through the GameScene root's rotation.
+     * @param angle the root's rotation in degrees.
+     */
+    private void computeView(double angle) {
+        double cos = Math.cos(Math.toRadians(-angle));
+        double sin = Math.sin(Math.toRadians(-angle));
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            double x = (corner & 1) == 0 ? 0 : GameScene.screenWidth;
+            double y = (corner & 2) == 0 ? 0 : GameScene.screenHeight;
+            double rotatedX = x * cos - y * sin;
+            double rotatedY = x * sin + y * cos;
+            minX = Math.min(minX, rotatedX);
+            minY = Math.min(minY, rotatedY);
+            maxX = Math.max(maxX, rotatedX);
+            maxY = Math.max(maxY, rotatedY);
         }
+        view[0] = minX;
+        view[1] = minY;
+        view[2] = maxX - minX;
+        view[3] = maxY - minY;
+    }
+
+    /**
+     * @return the bounds of the camera's view relative to the camera's position, stored as (x, y, width, height).
+     */
+    public double[] getView() {
+        return view;
+    }
+
+    /**
+     * @return the number of dynamic Tile objects visited by the last render, in or near the camera's view.
+     */
+    public int getVisitedTiles() {
+        return visitedTiles;
+    }
+
+    /**
+     * @return the number of dynamic Tile objects drawn by the last render.
+     * @see ChunkLayer#getDrawnChunks()
+     */
+    public int getDrawnTiles() {
+        return drawnTiles;
+    }
+
+    /**
+     * Releases the display of every Tile object, and the streamed regions of the TileMap.
+     * @see Tile#dispose()
+     * @see TileMap#close()
+     */
+    public void dispose() {
+        renderer.dispose();
+        if (chunkLayer != null) chunkLayer.dispose();
+        if (tileMapLayer != null) tileMapLayer.dispose();
+        if (tileMap != null) tileMap.close();
+        for (Tile tile : tiles)
+            tile.dispose();
+        atlas = null;
+        chunkLayer = null;
+        tileMapLayer = null;
+    }
+
+    /**
+     * @return the list of all the Tile objects.
+     */
+    public ArrayList<Tile> getTiles() {
+        return tiles;
     }
 
     /**
@@ -136,6 +441,20 @@ public class TileManager {
         return platforms;
     }
 
+    /**
+     * Adds to the result list the Platform objects whose world bounds intersect the provided rectangle.
+     * Only the grid cells overlapped by the rectangle are visited.
+     * @param x X-axis world coordinate.
+     * @param y Y-axis world coordinate.
+     * @param width rectangle's width.
+     * @param height rectangle's height.
+     * @param result list in which the Platform objects are added.
+     * @see SpatialGrid#query(double, double, double, double, java.util.List)
+     */
+    public void queryPlatforms(double x, double y, double width, double height, ArrayList<Platform> result) {
+        platformGrid.query(x, y, width, height, result);
+    }
+
     /**
      * @return the list on Coin objects.
      */
@@ -164,5 +483,27 @@ public class TileManager {
         return npc;
     }
 
+    /**
+     * A sprite to pack into the atlas : its image and its requested size.
+     */
+    private static final class Sprite {
+        /**
+         * Directory and name of the sprite's image.
+         */
+        private final String fileName;
+        /**
+         * Requested width of the sprite.
+         */
+        private final double width;
+        /**
+         * Requested height of the sprite.
+         */
+        private final double height;
 
+        private Sprite(String fileName, double width, double height) {
+            this.fileName = fileName;
+            this.width = width;
+            this.height = height;
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package manager;
+
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import scenes.GameScene;
+import tiles.TileMap;
+import tiles.TileType;
+import utilities.TextureAtlas;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static manager.ChunkLayer.chunkSize;
+import static manager.ChunkLayer.chunkTiles;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Displays the cells of a TileMap, baked into chunk images of chunkTiles x chunkTiles cells like the ChunkLayer.
+ * A grid may be far too large to be baked at once, so a chunk is only baked once it enters the camera's view,
+ * and released once it is more than a chunk away from the view : the number of chunks held stays bounded by the view's size.
+ * At most one chunk is baked by each render, so that entering a new row of chunks doesn't stall a frame,
+ * and the images of the released chunks are reused by the next chunks baked.
+ * The chunks of a streamed grid are only baked once their region is held in memory.
+ * @see TileMap
+ * @see ChunkLayer
+ */
+public class TileMapLayer {
+
+    /**
+     * Maximum number of chunks baked by a render.
+     */
+    public static final int bakesPerRender = 1;
+    /**
+     * Maximum number of released chunks' images kept for the next chunks baked.
+     */
+    public static final int pooledImages = 4;
+
+    /**
+     * The displayed grid.
+     */
+    private final TileMap map;
+    /**
+     * Atlas holding the sprites of the grid's tile types.
+     */
+    private final TextureAtlas atlas;
+    /**
+     * Pixels of the tile types' sprites, by ID, read from the atlas on their first use.
+     */
+    private final int[][] sources;
+    /**
+     * Baked chunks, by column and row of chunk.
+     */
+    private final HashMap<Long, Chunk> chunks = new HashMap<>();
+    /**
+     * ImageView objects and their images of the released chunks, reused by the next chunks baked.
+     */
+    private final ArrayDeque<ImageView> pool = new ArrayDeque<>();
+    /**
+     * Pixels of the chunk being baked, reused by every bake. They are allocated by the first chunk that isn't empty.
+     */
+    private int[] pixels;
+    /**
+     * Group holding the chunks' ImageView objects in the GameScene's world layer.
+     */
+    private final Group group = new Group();
+    /**
+     * Number of chunks drawn by the last render.
+     */
+    private int drawnChunks;
+    /**
+     * Number of chunks baked since the layer was created.
+     */
+    private int bakedChunks;
+
+    /**
+     * Creates a TileMapLayer. No chunk is baked before the first render.
+     * @param map the grid to display.
+     * @param atlas the atlas holding the sprites of the grid's tile types.
+     * @see TileType#getRegionName()
+     */
+    public TileMapLayer(TileMap map, TextureAtlas atlas) {
+        this.map = map;
+        this.atlas = atlas;
+        sources = new int[map.getTypes().length][];
+    }
+
+    /**
+     * Adds the layer in the GameScene's world layer. The chunks are added to it as they are baked.
+     * @param root the GameScene's world layer.
+     */
+    public void attach(Group root) {
+        root.getChildren().add(group);
+    }
+
+    /**
+     * Bakes the chunks entering the camera's view, shows the chunks overlapping it, and releases the chunks far from it.
+     * @param viewX X-axis world coordinate of the camera's view.
+     * @param viewY Y-axis world coordinate of the camera's view.
+     * @param viewWidth view's width.
+     * @param viewHeight view's height.
+     */
+    public void render(double viewX, double viewY, double viewWidth, double viewHeight) {
+        int firstColumn = Math.max(0, Math.floorDiv(map.columnAt(viewX), chunkTiles));
+        int lastColumn = Math.min(Math.floorDiv(map.getColumns() - 1, chunkTiles), Math.floorDiv(map.columnAt(viewX + viewWidth), chunkTiles));
+        int firstRow = Math.max(0, Math.floorDiv(map.rowAt(viewY), chunkTiles));
+        int lastRow = Math.min(Math.floorDiv(map.getRows() - 1, chunkTiles), Math.floorDiv(map.rowAt(viewY + viewHeight), chunkTiles));
+
+        // A chunk is kept until it is more than a chunk away from the view, so that moving back and forth doesn't bake it again.
+        for (Iterator<Map.Entry<Long, Chunk>> iterator = chunks.entrySet().iterator(); iterator.hasNext(); ) {
+            Chunk chunk = iterator.next().getValue();
+            if (chunk.column < firstColumn - 1 || chunk.column > lastColumn + 1 || chunk.row < firstRow - 1 || chunk.row > lastRow + 1) {
+                if (chunk.imageView != null) release(chunk.imageView);
+                iterator.remove();
+            } else if (chunk.imageView != null) {
+                chunk.imageView.setVisible(false);
+            }
+        }
+
+        drawnChunks = 0;
+        int bakes = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                Chunk chunk = chunks.get(key(column, row));
+                if (chunk == null) {
+                    // The other chunks entering the view are baked by the next renders.
+                    if (bakes == bakesPerRender || !map.isLoaded(column * chunkTiles, row * chunkTiles)) continue;
+                    bakes++;
+                    chunk = bake(column, row);
+                    chunks.put(key(column, row), chunk);
+                    if (chunk.imageView != null) group.getChildren().add(chunk.imageView);
+                }
+                if (chunk.imageView == null) continue;
+                chunk.imageView.setVisible(true);
+                drawnChunks++;
+            }
+        }
+    }
+
+    /**
+     * Blends the sprites of a chunk's cells into the chunk's image, taken from the pool if a released chunk left one.
+     * @return the baked chunk, without ImageView if all its cells are empty.
+     */
+    private Chunk bake(int column, int row) {
+        bakedChunks++;
+        boolean empty = true;
+        for (int j = 0; j < chunkTiles; j++) {
+            for (int i = 0; i < chunkTiles; i++) {
+                TileType type = map.getType(column * chunkTiles + i, row * chunkTiles + j);
+                if (type == null) continue;
+                TextureAtlas.Region region = atlas.getRegion(type.getRegionName());
+                if (region == null) continue;
+                if (sources[type.getId()] == null) sources[type.getId()] = ChunkLayer.readPixels(region);
+                if (empty) {
+                    if (pixels == null) pixels = new int[chunkSize * chunkSize];
+                    else Arrays.fill(pixels, 0);
+                    empty = false;
+                }
+                ChunkLayer.blend(sources[type.getId()], (int) region.getWidth(), (int) region.getHeight(), pixels,
+                        i * GameScene.tileSize, j * GameScene.tileSize);
+            }
+        }
+
+        Chunk chunk = new Chunk(column, row);
+        if (empty) return chunk;
+        chunk.imageView = pool.isEmpty() ? new ImageView(new WritableImage(chunkSize, chunkSize)) : pool.pop();
+        // Every pixel of the image is written, so that a reused image keeps nothing of its previous chunk.
+        ((WritableImage) chunk.imageView.getImage()).getPixelWriter()
+                .setPixels(0, 0, chunkSize, chunkSize, PixelFormat.getIntArgbInstance(), pixels, 0, chunkSize);
+        chunk.imageView.setVisible(true);
+        chunk.imageView.setX(map.getCellX(column * chunkTiles));
+        chunk.imageView.setY(map.getCellY(row * chunkTiles));
+        return chunk;
+    }
+
+    /**
+     * Removes a released chunk's ImageView from the layer, and keeps it with its image for the next chunks baked unless the pool is full.
+     */
+    private void release(ImageView imageView) {
+        group.getChildren().remove(imageView);
+        if (pool.size() < pooledImages) pool.push(imageView);
+        else imageView.setImage(null);
+    }
+
+    /**
+     * Releases the chunks' images and the pooled images.
+     */
+    public void dispose() {
+        for (Chunk chunk : chunks.values())
+            if (chunk.imageView != null) chunk.imageView.setImage(null);
+        chunks.clear();
+        for (ImageView imageView : pool)
+            imageView.setImage(null);
+        pool.clear();
+        pixels = null;
+        group.getChildren().clear();
+    }
+
+    /**
+     * @return the number of chunks drawn by the last render.
+     */
+    public int getDrawnChunks() {
+        return drawnChunks;
+    }
+
+    /**
+     * @return the number of chunks baked since the layer was created.
+     */
+    public int getBakedChunks() {
+        return bakedChunks;
+    }
+
+    /**
+     * @return the number of chunks' images held by the baked chunks and by the pool.
+     */
+    public int getHeldImages() {
+        int images = pool.size();
+        for (Chunk chunk : chunks.values())
+            if (chunk.imageView != null) images++;
+        return images;
+    }
+
+    /**
+     * @return the number of bytes of the chunks' images held by the baked chunks and by the pool, decoded in 32 bits ARGB,
+     * and of the pixels of the chunk being baked.
+     */
+    public long getBytes() {
+        return (long) chunkSize * chunkSize * 4 * (getHeldImages() + (pixels != null ? 1 : 0));
+    }
+
+    private static long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A baked chunk and its display.
+     */
+    private static final class Chunk {
+        /**
+         * Column of the chunk.
+         */
+        private final int column;
+        /**
+         * Row of the chunk.
+         */
+        private final int row;
+        /**
+         * The chunk's ImageView, or null if all the chunk's cells are empty.
+         */
+        private ImageView imageView;
+
+        private Chunk(int column, int row) {
+            this.column = column;
+            this.row = row;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package manager;
+
+import javafx.scene.Group;
+import tiles.Tile;
+
+import java.util.List;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Draws the Tile objects in the camera's view. The TileManager selects the tiles to draw, and the TileRenderer displays them.
+ * @see TileManager
+ * @see NodeTileRenderer
+ * @see CanvasTileRenderer
+ */
+public interface TileRenderer {
+
+    /**
+     * Adds the renderer's nodes in the GameScene's world layer, where the nodes use world coordinates.
+     * @param root the GameScene's world layer where the Tile objects are displayed.
+     * @param tiles every Tile object of the level.
+     */
+    void attach(Group root, List<Tile> tiles);
+
+    /**
+     * Draws a frame.
+     * @param visibleTiles the Tile objects in the camera's view, in the level's drawing order.
+     * @param previousVisibleTiles the Tile objects that were in the camera's view during the previous frame.
+     * @param frame number of the actual frame, set as render frame of the visible tiles.
+     * @param cameraX X-axis world coordinate of the camera.
+     * @param cameraY Y-axis world coordinate of the camera.
+     * @param platformsShown whether the blinking Platform objects are shown during this frame.
+     * @return the number of Tile objects drawn.
+     */
+    int render(List<Tile> visibleTiles, List<Tile> previousVisibleTiles, int frame, double cameraX, double cameraY, boolean platformsShown);
+
+    /**
+     * Releases the renderer's nodes.
+     */
+    void dispose();
+}
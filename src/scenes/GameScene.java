@@ -1,7 +1,6 @@
 package scenes;
 
 import entities.Hero;
-import javafx.animation.AnimationTimer;
 import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -13,6 +12,9 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.scene.transform.Rotate;
 import manager.TileManager;
+import simulation.World;
+import simulation.WorldListener;
+import tiles.Npc;
 import utilities.KeyHandler;
 import utilities.*;
 
@@ -28,7 +30,7 @@ import static javafx.scene.paint.Color.WHITE;
  * @date : 23/04/2022
  */
 
-public class GameScene extends Scene {
+public class GameScene extends Scene implements WorldListener {
 
     /**
      * Original Tile's size value.
@@ -60,16 +62,38 @@ public class GameScene extends Scene {
      * Screen's height dimension.
      */
     public static final int screenHeight = tileSize * maxScreenRow;      // 768
+    /**
+     * Default number of simulation steps per second.
+     */
+    public static final int defaultTickRate = 60;
+    /**
+     * Maximum number of simulation steps run during a single frame to catch up with the elapsed time.
+     * The remaining time is dropped, so that a long pause doesn't freeze the game while it catches up.
+     */
+    private static final int maxCatchUpSteps = 5;
     /**
      * GameScene's background image.
      * @see Background
      */
     private final Background backgroundImage;
+    /**
+     * Layer holding the world's content in world coordinates. The camera is applied as a single translation of this layer.
+     */
+    private final Group worldLayer = new Group();
+    /**
+     * Layer holding the HUD in screen coordinates, on top of the world layer.
+     */
+    private final Group hudLayer = new Group();
     /**
      * Inputs manager for actions to perform.
      * @see utilities.KeyHandler
      */
-    private final KeyHandler keyHandler = new KeyHandler();
+    private final KeyHandler keyHandler;
+    /**
+     * Simulation state displayed by the GameScene.
+     * @see World
+     */
+    private final World world;
     /**
      * GameScene's Hero object.
      * @see Hero
@@ -86,18 +110,37 @@ public class GameScene extends Scene {
      */
     private final TileManager tileManager;
     /**
-     * GameScene's CollisionChecker for collision management.
-     * @see CollisionChecker
+     * GameScene's LevelReader for loading parameters based on the type of scene.
+     * @see LevelReader
+     */
+    public LevelReader reader;
+    /**
+     * Number of simulation steps per second.
      */
-    private final CollisionChecker collisionChecker;
+    private int tickRate = defaultTickRate;
     /**
-     * GameScene's XmlReader for loading parameters based on the type of scene.
-     * @see XmlReader
+     * Elapsed time not consumed yet by the simulation steps.
      */
-    public XmlReader reader;
+    private double accumulator;
+    /**
+     * Task that runs the game loop in the FrameScheduler.
+     * @see FrameScheduler
+     */
+    private FrameScheduler.Task loop;
+    /**
+     * Music played indefinitely by the GameScene.
+     * @see #playSoundInf(String)
+     */
+    private AudioClip music;
+    /**
+     * GameScene's disposed property.
+     * @see #dispose()
+     */
+    private boolean disposed = false;
 
     /**
-     * Creates a GameScene for a specific root Node with a specific size by loading parameters from the XmlReader based on the type of scene we create.
+     * Creates a GameScene for a specific root Node with a specific size by loading parameters from the LevelReader based on the type of scene we create.
+     * The simulation is held by a World, and this GameScene only displays it and plays its sounds.
      * @param parent GameScene's root Node.
      * @param WIDTH window's width.
      * @param HEIGHT window's height.
@@ -105,21 +148,37 @@ public class GameScene extends Scene {
      * @param type specifies the type of scene you want to create (!! Case Sensitive). Accepted values: level, room.
      */
     public GameScene(Group parent, int WIDTH, int HEIGHT, String fileName, String type) {
+        this(parent, WIDTH, HEIGHT, new World(fileName, type, new KeyHandler()));
+    }
+
+    /**
+     * Creates a GameScene that displays an already loaded World.
+     * Only the display's nodes are created here, so that the World and its images can be loaded on a worker thread.
+     * @param parent GameScene's root Node.
+     * @param WIDTH window's width.
+     * @param HEIGHT window's height.
+     * @param world the World to display.
+     * @see SceneLoader
+     */
+    public GameScene(Group parent, int WIDTH, int HEIGHT, World world) {
         super(parent, WIDTH, HEIGHT);
         this.setFill(GRAY);
-        reader = new XmlReader("./data/" + fileName + ".xml", type);
-        backgroundImage = new Background(reader.getBackGroundX(), reader.getBackGroundY(), reader.getBackGroundFileName(), this);
-        parent.getChildren().add(backgroundImage.getImageView());
+        this.world = world;
+        keyHandler = world.getKeyHandler();
+        world.setListener(this);
+        Hero.resetScore();
+        reader = world.getReader();
+        hero = world.getHero();
+        camera = world.getCamera();
+        tileManager = world.getTileManager();
+
+        backgroundImage = new Background(reader.getBackgroundLayers());
+        backgroundImage.attach(worldLayer);
 
         setOnKeyPressed(keyHandler);
         setOnKeyReleased(keyHandler);
 
-        hero = new Hero(this, keyHandler);
-        camera = new Camera(GameScene.screenWidth, GameScene.screenHeight, hero);
-
-
-        tileManager = new TileManager(this);
-        collisionChecker = new CollisionChecker(this);
+        tileManager.addTilesOnScene(worldLayer);
 
         //creating the rotation transformation
         Rotate rotate = new Rotate();
@@ -127,47 +186,145 @@ public class GameScene extends Scene {
         rotate.setAngle(reader.getRotation());
         parent.getTransforms().addAll(rotate);
 
-        parent.getChildren().add(hero.getImageView());
-        parent.getChildren().add(hero.getText());
-        parent.getChildren().add(hero.getCoin());
-        parent.getChildren().add(hero.getKey());
+        worldLayer.getChildren().add(hero.getImageView());
+        hudLayer.getChildren().add(hero.getText());
+        hudLayer.getChildren().add(hero.getCoin());
+        hudLayer.getChildren().add(hero.getKey());
+        parent.getChildren().add(worldLayer);
+        parent.getChildren().add(hudLayer);
 
         run();
     }
 
     /**
-     * Lunches a timer which calls the update and render methods. This is the main loop of the game.
+     * Registers the main loop of the game in the FrameScheduler, which calls the update and render methods while this GameScene is shown.
+     * The simulation is stepped with a fixed time step of 1 / tickRate seconds, as many times as needed to consume the elapsed time,
+     * while the display is rendered on every frame by interpolating between the last two simulation steps.
+     * @see FrameScheduler
+     * @see #update(double)
+     * @see #render(long, double)
      */
     public void run() {
-        LongValue lastNanoTime = new LongValue(System.nanoTime());
-
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long time) {
-                double elapsedTime = (time - lastNanoTime.value) / 1000000000.0;
-
-                if (elapsedTime > 0.016) {
-                    lastNanoTime.value = time;
-                    hero.update(elapsedTime);
-                    camera.update(elapsedTime);
-                    render(time);
-                }
+        if (loop != null) return;
+        loop = FrameScheduler.register(this, FrameScheduler.updatePriority, 0, (time, elapsedTime) -> {
+            accumulator += elapsedTime;
+
+            double step = 1.0 / tickRate;
+            int steps = 0;
+            while (accumulator >= step && steps < maxCatchUpSteps) {
+                update(step);
+                accumulator -= step;
+                steps++;
             }
-        };
-        timer.start();
+            if (accumulator >= step) accumulator = 0;
+
+            render(time, accumulator / step);
+        });
+    }
+
+    /**
+     * Resumes the GameScene's simulation and animations. It is called when the GameScene is shown on the Stage.
+     * If the GameScene was disposed, an IllegalStateException is thrown.
+     */
+    public void activate() {
+        if (disposed) throw new IllegalStateException("GameScene already disposed");
+        if (loop == null) run();
+        loop.setPaused(false);
+        hero.getSprite().setPaused(false);
+    }
+
+    /**
+     * Pauses the GameScene's simulation and animations, while keeping its state. It is called when the GameScene is hidden.
+     * Note : the music keeps playing, so that a Level's music goes on inside its Rooms.
+     */
+    public void suspend() {
+        if (disposed) return;
+        if (loop != null) loop.setPaused(true);
+        hero.getSprite().setPaused(true);
+    }
+
+    /**
+     * Releases every resource of the GameScene : its tasks are cancelled, its music is stopped,
+     * and its nodes and images are released. A disposed GameScene can't be shown again.
+     */
+    public void dispose() {
+        if (disposed) return;
+        disposed = true;
+        if (loop != null) loop.cancel();
+        if (music != null) music.stop();
+        music = null;
+        setOnKeyPressed(null);
+        setOnKeyReleased(null);
+        world.setListener(null);
+        hero.dispose();
+        tileManager.dispose();
+        backgroundImage.dispose();
+        worldLayer.getChildren().clear();
+        hudLayer.getChildren().clear();
+        ((Group) getRoot()).getChildren().clear();
+    }
+
+    /**
+     * @return the disposed's property value.
+     */
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Performs a single simulation step.
+     * @param step fixed duration of the simulation step in seconds.
+     * @see World#step(double)
+     */
+    public void update(double step) {
+        world.step(step);
     }
 
     /**
      * Renders every element's display periodically based on the time parameter.
-     * @param time elapsed time since last call.
-     * @see Hero#render(Camera camera)
-     * @see Background#render()
-     * @see TileManager#render(long time)
-     */
-    public void render(long time) {
-        hero.render(camera);
-        backgroundImage.render();
-        tileManager.render(time);
+     * The world's nodes keep their world coordinates : the camera only translates the world layer.
+     * @param time actual frame's timestamp in nanoseconds.
+     * @param alpha progress between the previous and the actual simulation step, from 0 to 1.
+     * @see Hero#render(double alpha)
+     * @see TileManager#render(long time, Camera camera)
+     */
+    public void render(long time, double alpha) {
+        camera.interpolate(alpha);
+        worldLayer.setTranslateX(-camera.getRenderX());
+        worldLayer.setTranslateY(-camera.getRenderY());
+        backgroundImage.render(camera, tileManager.getView());
+        hero.render(alpha);
+        tileManager.render(time, camera);
+    }
+
+    /**
+     * @return the worldLayer's property value.
+     */
+    public Group getWorldLayer() {
+        return worldLayer;
+    }
+
+    /**
+     * @return the hudLayer's property value.
+     */
+    public Group getHudLayer() {
+        return hudLayer;
+    }
+
+    /**
+     * @return the tickRate's property value.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Sets the number of simulation steps per second. The physics results don't depend on the display's refresh rate.
+     * @param tickRate number of simulation steps per second.
+     */
+    public void setTickRate(int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("Unexpected tick rate: " + tickRate);
+        this.tickRate = tickRate;
     }
 
     /**
@@ -241,18 +398,60 @@ public class GameScene extends Scene {
     }
 
     /**
-     * Is used to indefinitely play a sound saved in the resources' directory that matches with the filename parameter.
+     * @return the value of the property world.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Is used to play a sound saved in the resources' directory that matches with the filename parameter.
      * If none of the files match, a NullPointerException is thrown.
      * @param filename sound's file name to be played.
      * @see AudioClip
      */
-    public void playSoundInf(String filename) {
+    @Override
+    public void playSound(String filename) {
         String url = Objects.requireNonNull(getClass().getResource("/" + filename)).toString();
         AudioClip clip = new AudioClip(url);
-        clip.setCycleCount(AudioClip.INDEFINITE);
         clip.play();
     }
 
+    /**
+     * Displays the dialog of the Npc the Hero interacts with.
+     * @param npc the Npc the Hero talks to.
+     * @see Npc#displayDialog(GameScene)
+     */
+    @Override
+    public void talkTo(Npc npc) {
+        npc.displayDialog(this);
+    }
+
+    /**
+     * Requests the transition to the Level or Room the door borrowed by the Hero leads to.
+     * @param direction Room/Level direction of the borrowed door.
+     * @see SceneDirector#requestDirection(String)
+     */
+    @Override
+    public void borrowDoor(String direction) {
+        SceneDirector.requestDirection(direction);
+    }
+
+    /**
+     * Is used to indefinitely play a sound saved in the resources' directory that matches with the filename parameter.
+     * The sound is stopped when the GameScene is disposed.
+     * If none of the files match, a NullPointerException is thrown.
+     * @param filename sound's file name to be played.
+     * @see AudioClip
+     */
+    public void playSoundInf(String filename) {
+        String url = Objects.requireNonNull(getClass().getResource("/" + filename)).toString();
+        if (music != null) music.stop();
+        music = new AudioClip(url);
+        music.setCycleCount(AudioClip.INDEFINITE);
+        music.play();
+    }
+
     /**
      * @return the value of the property tileManager.
      */
@@ -264,6 +463,6 @@ public class GameScene extends Scene {
      * @return the value of the property collisionChecker.
      */
     public CollisionChecker getCollisionChecker() {
-        return collisionChecker;
+        return world.getCollisionChecker();
     }
 }
\ No newline at end of file
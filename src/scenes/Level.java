@@ -1,7 +1,10 @@
 package scenes;
 
 import javafx.scene.Group;
-import utilities.XmlReader;
+import simulation.World;
+import utilities.LevelReader;
+
+import java.util.HashMap;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -12,25 +15,15 @@ import utilities.XmlReader;
 public class Level extends GameScene {
 
     /**
-     * Type of GameScene to load. This property is used by the XmlReader class.
-     * @see XmlReader#XmlReader(String fileName, String type)
+     * Type of GameScene to load. This property is used by the LevelReader class.
+     * @see LevelReader#open(String fileName, String type)
      */
     private static final String type = "level";
     /**
-     * Level's 1st Room property.
+     * Rooms of the Level already created, by name.
      * @see Room
      */
-    public Room Room1;
-    /**
-     * Level's 2nd Room property.
-     * @see Room
-     */
-    public Room Room2;
-    /**
-     * Level's 3rd Room property.
-     * @see Room
-     */
-    public Room Room3;
+    private final HashMap<String, Room> rooms = new HashMap<>();
 
     /**
      * Creates a Level from a specific file name.
@@ -41,36 +34,76 @@ public class Level extends GameScene {
     }
 
     /**
-     * This method uses the XmlReader to get the file directories for the three Rooms of each level.
-     * If another parameter than <i>Room1</i>, <i>Room2</i> or <i>Room3</i> is provided, an IllegalStateException will be thrown.
-     * @param roomNumber The Room's number you try to access.
-     * @return the Room property value based on the roomNumber parameter.
+     * Creates a Level that displays an already loaded World.
+     * @param world the loaded World.
+     * @see SceneLoader
      */
-    public Room accessRoom(String roomNumber) {
-        Room room;
-        switch (roomNumber) {
-            case "Room1" -> {
-                if (Room1 == null) {
-                    Room1 = new Room(reader.getRoomFile("Room1"));
-                }
-                room = Room1;
-            }
-            case "Room2" -> {
-                if (Room2 == null) {
-                    Room2 = new Room(reader.getRoomFile("Room2"));
-                }
-                room = Room2;
-            }
-            case "Room3" -> {
-                if (Room3 == null) {
-                    Room3 = new Room(reader.getRoomFile("Room3"));
-                }
-                room = Room3;
-            }
+    public Level(World world) {
+        super(new Group(), screenWidth, screenHeight, world);
+    }
 
+    /**
+     * @return the type of GameScene loaded by a Level.
+     */
+    public static String getType() {
+        return type;
+    }
 
-            default -> throw new IllegalStateException("Unexpected value: " + roomNumber);
+    /**
+     * This method uses the LevelReader to get the file directory of a Room of the level, and creates the Room on its first access.
+     * If the Level has no Room matching the roomNumber parameter, an IllegalStateException will be thrown.
+     * @param roomNumber The Room's name you try to access, for example <i>Room1</i>.
+     * @return the Room property value based on the roomNumber parameter.
+     * @see LevelReader#getRoomFile(String)
+     */
+    public Room accessRoom(String roomNumber) {
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
+            room = new Room(getRoomFile(roomNumber));
+            rooms.put(roomNumber, room);
         }
         return room;
     }
+
+    /**
+     * @param roomNumber The Room's name, for example <i>Room1</i>.
+     * @return the Room already created for the roomNumber parameter, or null.
+     */
+    public Room getRoom(String roomNumber) {
+        return rooms.get(roomNumber);
+    }
+
+    /**
+     * Adds a Room loaded outside the Level, so that it is returned by the next accesses and disposed with the Level.
+     * @param roomNumber The Room's name, for example <i>Room1</i>.
+     * @param room the loaded Room.
+     * @see SceneLoader
+     */
+    public void addRoom(String roomNumber, Room room) {
+        rooms.put(roomNumber, room);
+    }
+
+    /**
+     * If the Level has no Room matching the roomNumber parameter, an IllegalStateException will be thrown.
+     * @param roomNumber The Room's name, for example <i>Room1</i>.
+     * @return the .xml file of the Room.
+     * @see LevelReader#getRoomFile(String)
+     */
+    public String getRoomFile(String roomNumber) {
+        String roomFile = reader.getRoomFile(roomNumber);
+        if (roomFile.equals("NoSuchFile")) throw new IllegalStateException("Unexpected value: " + roomNumber);
+        return roomFile;
+    }
+
+    /**
+     * Disposes the Level and every Room it has created.
+     * @see GameScene#dispose()
+     */
+    @Override
+    public void dispose() {
+        for (Room room : rooms.values())
+            room.dispose();
+        rooms.clear();
+        super.dispose();
+    }
 }
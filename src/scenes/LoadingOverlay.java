@@ -0,0 +1,66 @@
+package scenes;
+
+import javafx.concurrent.Worker;
+import javafx.scene.Group;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import static javafx.scene.paint.Color.WHITE;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Darkens the shown Scene and displays the progress of a loading running in the background.
+ * @see SceneLoader
+ */
+public class LoadingOverlay extends Group {
+
+    /**
+     * Width of the progress bar.
+     */
+    private static final double barWidth = 300;
+    /**
+     * ProgressBar bound to the Worker's progress.
+     */
+    private final ProgressBar progressBar = new ProgressBar();
+
+    /**
+     * Creates a LoadingOverlay that follows the progress of a Worker, and adds it on top of a root Node.
+     * @param worker the loading to follow.
+     * @param root the shown Scene's root Node.
+     */
+    public LoadingOverlay(Worker<?> worker, Group root) {
+        Rectangle shade = new Rectangle(GameScene.screenWidth, GameScene.screenHeight, Color.rgb(0, 0, 0, 0.6));
+
+        Text text = new Text("Loading...");
+        text.setFont(Font.font("verdana", FontWeight.BOLD, FontPosture.REGULAR, 20));
+        text.setFill(WHITE);
+        text.setX((GameScene.screenWidth - text.getLayoutBounds().getWidth()) / 2);
+        text.setY(GameScene.screenHeight / 2.0 - 20);
+
+        progressBar.setPrefWidth(barWidth);
+        progressBar.setLayoutX((GameScene.screenWidth - barWidth) / 2);
+        progressBar.setLayoutY(GameScene.screenHeight / 2.0);
+        progressBar.progressProperty().bind(worker.progressProperty());
+
+        getChildren().addAll(shade, text, progressBar);
+        root.getChildren().add(this);
+    }
+
+    /**
+     * Stops following the Worker and removes the LoadingOverlay from its root Node.
+     */
+    public void remove() {
+        progressBar.progressProperty().unbind();
+        if (getParent() instanceof Group) ((Group) getParent()).getChildren().remove(this);
+    }
+}
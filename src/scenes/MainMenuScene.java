@@ -15,7 +15,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
-import main.Main;
 
 import java.util.Objects;
 
@@ -62,12 +61,12 @@ public class MainMenuScene extends Scene {
         playBtn.setOnKeyPressed((KeyEvent event) -> {
             //System.out.println(event.getCode());
             if (Objects.equals(event.getCode().toString(), "ENTER")) {
-                Main.actualLevel = difficulty.toString();
+                SceneDirector.requestLevel(difficulty.getValue() != null ? difficulty.getValue() : "Level1");
             }
         });
 
         playBtn.setOnMouseClicked((MouseEvent event) -> {
-            Main.actualLevel = "Level1";
+            SceneDirector.requestLevel(difficulty.getValue() != null ? difficulty.getValue() : "Level1");
         });
     }
 }
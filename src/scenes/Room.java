@@ -1,7 +1,8 @@
 package scenes;
 
 import javafx.scene.Group;
-import utilities.XmlReader;
+import simulation.World;
+import utilities.LevelReader;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -12,8 +13,8 @@ import utilities.XmlReader;
 public class Room extends GameScene {
 
     /**
-     * Type of GameScene to load. This property is used by the XmlReader class.
-     * @see XmlReader#XmlReader(String fileName, String type)
+     * Type of GameScene to load. This property is used by the LevelReader class.
+     * @see LevelReader#open(String fileName, String type)
      */
     private static final String type = "room";
 
@@ -24,4 +25,20 @@ public class Room extends GameScene {
     public Room(String roomName) {
         super(new Group(), screenWidth, screenHeight, roomName, type);
     }
+
+    /**
+     * Creates a Room that displays an already loaded World.
+     * @param world the loaded World.
+     * @see SceneLoader
+     */
+    public Room(World world) {
+        super(new Group(), screenWidth, screenHeight, world);
+    }
+
+    /**
+     * @return the type of GameScene loaded by a Room.
+     */
+    public static String getType() {
+        return type;
+    }
 }
@@ -0,0 +1,248 @@
+package scenes;
+
+import entities.Hero;
+import javafx.concurrent.Worker;
+import javafx.concurrent.WorkerStateEvent;
+import tiles.Door;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Loads in the background the Rooms and Levels behind the doors the Hero comes close to, so that borrowing a door is instant.
+ * They are loaded on the SceneLoader's prefetching worker thread, so that the requested scenes never wait behind them.
+ * The prefetched scenes are kept within a memory budget, which also counts an estimate of the scenes still loading :
+ * a scene is only prefetched if it fits, and once the budget is exceeded the least recently prefetched ones are dropped.
+ * A scene dropped or too large for the budget isn't prefetched again until the Hero leaves its doors.
+ * @see SceneLoader
+ * @see SceneDirector
+ */
+public class RoomPrefetcher {
+
+    /**
+     * Default distance, in pixels between the Hero's and the door's centers, under which the door's target is prefetched.
+     */
+    public static final double defaultDistance = 4 * GameScene.tileSize;
+    /**
+     * Default maximum number of bytes held by the decoded images of the prefetched scenes.
+     */
+    public static final long defaultMemoryBudget = 64L * 1024 * 1024;
+    /**
+     * Number of times per second the distance to the doors is checked.
+     */
+    public static final double rate = 5;
+    /**
+     * Number of bytes charged for a scene still loading, until its actual size is known.
+     */
+    public static final long defaultEstimate = 32L * 1024 * 1024;
+
+    /**
+     * Prefetched scenes by type and file name, from the least to the most recently used.
+     */
+    private final LinkedHashMap<String, SceneLoader> prefetched = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Distance under which a door's target is prefetched.
+     */
+    private double distance = defaultDistance;
+    /**
+     * Maximum number of bytes held by the prefetched scenes.
+     */
+    private long memoryBudget = defaultMemoryBudget;
+    /**
+     * Number of bytes actually held by the prefetched scenes.
+     */
+    private long usedBytes;
+    /**
+     * Number of bytes held by the decoded images of each scene loaded before, by type and file name.
+     */
+    private final HashMap<String, Long> sizes = new HashMap<>();
+    /**
+     * Scenes dropped or too large for the memory budget, which aren't prefetched again until the Hero leaves their doors.
+     */
+    private final HashSet<String> skipped = new HashSet<>();
+    /**
+     * Scenes behind the doors close to the Hero during the last update.
+     */
+    private final HashSet<String> nearby = new HashSet<>();
+
+    /**
+     * Starts prefetching the targets of the doors close to the Hero, if they aren't loaded yet and fit in the memory budget.
+     * @param scene the shown GameScene.
+     * @param level the actual Level, which owns the Rooms.
+     */
+    public void update(GameScene scene, Level level) {
+        Hero hero = scene.getHero();
+        double heroX = hero.getX() + hero.getHitWidth() / 2;
+        double heroY = hero.getY() + hero.getHitHeight() / 2;
+
+        nearby.clear();
+        for (Door door : scene.getTileManager().getDoors()) {
+            double dx = door.getHitX() + door.getHitWidth() / 2 - heroX;
+            double dy = door.getHitY() + door.getHitHeight() / 2 - heroY;
+            if (dx * dx + dy * dy > distance * distance) continue;
+
+            String direction = door.getDirection();
+            if (direction.contains("Room")) {
+                if (level == null || level.getRoom(direction) != null) continue;
+                String roomFile = level.reader.getRoomFile(direction);
+                if (!roomFile.equals("NoSuchFile")) prefetch(roomFile, Room.getType());
+            } else if (direction.contains("Level") && !direction.equals(SceneDirector.getActualLevel())) {
+                prefetch(direction, Level.getType());
+            }
+        }
+        // The skipped scenes may be tried again once the Hero left their doors.
+        skipped.retainAll(nearby);
+    }
+
+    /**
+     * Removes a scene from the prefetched ones so that it can be shown.
+     * @param fileName xml file's name.
+     * @param type type of scene. Accepted values: level, room.
+     * A loading still waiting behind other prefetched scenes is cancelled, so that the scene can be loaded at once on the SceneLoader's own worker thread.
+     * @return the SceneLoader of the scene, loaded or running, or null if the scene wasn't prefetched, its loading wasn't started yet or failed.
+     */
+    public SceneLoader take(String fileName, String type) {
+        SceneLoader loader = prefetched.remove(key(fileName, type));
+        if (loader == null) return null;
+        if (loader.getState() == Worker.State.SUCCEEDED) {
+            usedBytes -= loader.getDecodedBytes();
+            return loader;
+        }
+        if (loader.isDone()) return null;
+        if (loader.isStarted()) return loader;
+        loader.discard();
+        return null;
+    }
+
+    /**
+     * Cancels the running loadings and drops every prefetched scene, releasing their images.
+     */
+    public void clear() {
+        for (SceneLoader loader : prefetched.values())
+            loader.discard();
+        prefetched.clear();
+        skipped.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * @return the distance's property value.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @param distance distance, in pixels, under which a door's target is prefetched.
+     */
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    /**
+     * @return the memoryBudget's property value.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the maximum number of bytes held by the prefetched scenes. The prefetched scenes that exceed it are dropped,
+     * and the scenes skipped under the previous budget may be tried again.
+     * @param memoryBudget the value to set, 0 disabling the prefetching.
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget < 0) throw new IllegalArgumentException("Unexpected memory budget: " + memoryBudget);
+        this.memoryBudget = memoryBudget;
+        skipped.clear();
+        evict();
+    }
+
+    /**
+     * @return the number of bytes actually held by the prefetched scenes.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the number of bytes charged for the scenes still loading.
+     */
+    public long getPendingBytes() {
+        long pendingBytes = 0;
+        for (Map.Entry<String, SceneLoader> entry : prefetched.entrySet())
+            if (!entry.getValue().isDone()) pendingBytes += estimate(entry.getKey());
+        return pendingBytes;
+    }
+
+    /**
+     * Starts loading a scene in the background, unless it was already prefetched, was skipped, or doesn't fit in the memory budget.
+     * A scene larger than the whole budget is skipped until the Hero leaves its doors.
+     * @param fileName xml file's name.
+     * @param type type of scene. Accepted values: level, room.
+     */
+    void prefetch(String fileName, String type) {
+        String key = key(fileName, type);
+        nearby.add(key);
+        if (memoryBudget == 0 || usedBytes >= memoryBudget || prefetched.containsKey(key) || skipped.contains(key)) return;
+        long estimate = estimate(key);
+        if (estimate > memoryBudget) {
+            skipped.add(key);
+            return;
+        }
+        if (usedBytes + getPendingBytes() + estimate > memoryBudget) return;
+
+        SceneLoader loader = new SceneLoader(fileName, type);
+        loader.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, event -> {
+            sizes.put(key, loader.getDecodedBytes());
+            if (prefetched.get(key) != loader) return;
+            // A scene larger than the whole budget is dropped at once, rather than dropping the other scenes first.
+            if (loader.getDecodedBytes() > memoryBudget) {
+                loader.discard();
+                prefetched.remove(key);
+                skipped.add(key);
+                return;
+            }
+            usedBytes += loader.getDecodedBytes();
+            evict();
+        });
+        prefetched.put(key, loader);
+        loader.prefetch();
+    }
+
+    /**
+     * Drops the least recently used loaded scenes until the memory budget is respected, and skips them until the Hero leaves their doors.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, SceneLoader>> iterator = prefetched.entrySet().iterator();
+        while (usedBytes > memoryBudget && iterator.hasNext()) {
+            Map.Entry<String, SceneLoader> entry = iterator.next();
+            SceneLoader loader = entry.getValue();
+            if (loader.getState() != Worker.State.SUCCEEDED) continue;
+            usedBytes -= loader.getDecodedBytes();
+            loader.discard();
+            iterator.remove();
+            skipped.add(entry.getKey());
+        }
+    }
+
+    /**
+     * @return the number of bytes held by a scene once loaded : its size when it was loaded before, or the defaultEstimate.
+     */
+    private long estimate(String key) {
+        return sizes.getOrDefault(key, defaultEstimate);
+    }
+
+    private static String key(String fileName, String type) {
+        return type + ":" + fileName;
+    }
+}
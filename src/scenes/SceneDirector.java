@@ -0,0 +1,263 @@
+package scenes;
+
+import javafx.application.Platform;
+import javafx.concurrent.Worker;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import simulation.World;
+import utilities.FrameScheduler;
+
+import java.util.function.Consumer;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Switches the Scene shown on the Stage when a transition is requested, by the MainMenuScene or by a borrowed Door.
+ * A request only records the targeted Level and Room : the transition itself is applied once, after the current event or pulse,
+ * and the Stage is only touched when the targeted Scene differs from the shown one.
+ * The Levels and Rooms are loaded in the background by a SceneLoader, so that the game doesn't freeze while they are loaded.
+ * @see #requestLevel(String)
+ * @see #requestDirection(String)
+ */
+public final class SceneDirector {
+
+    /**
+     * Name of the main menu, used as a Level name.
+     * @see MainMenuScene
+     */
+    public static final String mainMenu = "MainMenu";
+    /**
+     * Room name that refers to the Level itself rather than to one of its Rooms.
+     */
+    public static final String defaultRoom = "default";
+
+    /**
+     * The Stage on which the Scenes are shown.
+     */
+    private static Stage stage;
+    /**
+     * Name of the Level actually loaded, or mainMenu.
+     */
+    private static String actualLevel;
+    /**
+     * Name of the Room actually shown, or defaultRoom.
+     */
+    private static String actualRoom = defaultRoom;
+    /**
+     * The Level actually loaded, or null while the main menu is shown.
+     * @see Level
+     */
+    private static Level level;
+    /**
+     * The MainMenuScene, or null while a Level is loaded.
+     * @see MainMenuScene
+     */
+    private static MainMenuScene menu;
+    /**
+     * Name of the requested Level. It is equal to actualLevel once the transition is applied.
+     */
+    private static String requestedLevel = mainMenu;
+    /**
+     * Name of the requested Room inside the requested Level.
+     */
+    private static String requestedRoom = defaultRoom;
+    /**
+     * Whether a transition is already waiting to be applied.
+     */
+    private static boolean pending;
+    /**
+     * The loading in progress, or null.
+     * @see SceneLoader
+     */
+    private static SceneLoader loader;
+    /**
+     * Prefetches the scenes behind the doors close to the Hero.
+     * @see RoomPrefetcher
+     */
+    private static final RoomPrefetcher prefetcher = new RoomPrefetcher();
+
+    private SceneDirector() {
+    }
+
+    /**
+     * Binds the SceneDirector to the Stage and shows the main menu.
+     * The Scene shown on the Stage is the FrameScheduler's active Scene : only its callbacks are run.
+     * A GameScene is activated when it is shown and suspended when it is hidden.
+     * @param primaryStage the application's Stage.
+     */
+    public static void start(Stage primaryStage) {
+        stage = primaryStage;
+        stage.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (oldScene instanceof GameScene) ((GameScene) oldScene).suspend();
+            FrameScheduler.setActiveScene(newScene);
+            if (newScene instanceof GameScene) ((GameScene) newScene).activate();
+        });
+        FrameScheduler.register(null, FrameScheduler.backgroundPriority, RoomPrefetcher.rate, (now, elapsedTime) -> {
+            if (loader == null && stage.getScene() instanceof GameScene) prefetcher.update((GameScene) stage.getScene(), level);
+        });
+        apply();
+    }
+
+    /**
+     * Requests to enter a Level, on its main scene. Any name with a matching ./data/[name].xml file is accepted.
+     * @param levelName the Level's name, or mainMenu.
+     */
+    public static void requestLevel(String levelName) {
+        request(levelName, defaultRoom);
+    }
+
+    /**
+     * Requests to enter a Room of the actual Level.
+     * @param roomName the Room's name, for example <i>Room1</i>, or defaultRoom to go back to the Level itself.
+     * @see Level#accessRoom(String)
+     */
+    public static void requestRoom(String roomName) {
+        request(requestedLevel, roomName);
+    }
+
+    /**
+     * Requests the transition leading to the direction of a Door.
+     * A direction that contains <i>Room</i> leads to a Room of the actual Level, one that contains <i>Level</i> leads to another Level,
+     * and any other direction leads back to the actual Level's main scene.
+     * @param direction Room/Level direction of the borrowed door.
+     * @see tiles.Door#getDirection()
+     */
+    public static void requestDirection(String direction) {
+        if (direction.contains("Room")) requestRoom(direction);
+        else if (direction.contains("Level")) requestLevel(direction);
+        else requestRoom(defaultRoom);
+    }
+
+    /**
+     * @return the prefetcher's property value.
+     */
+    public static RoomPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * @return the actualLevel's property value.
+     */
+    public static String getActualLevel() {
+        return actualLevel;
+    }
+
+    /**
+     * Records the requested target and schedules the transition if none is waiting yet.
+     * The transition is deferred so that a Scene is never replaced while one of its callbacks is running.
+     */
+    private static void request(String levelName, String roomName) {
+        requestedLevel = levelName;
+        requestedRoom = roomName;
+        if (pending || stage == null) return;
+        pending = true;
+        Platform.runLater(SceneDirector::apply);
+    }
+
+    /**
+     * Applies the last requested transition. A Level or a Room that isn't loaded yet is first loaded in the background,
+     * and the transition is applied again once the loading is done.
+     * @see #load(String, String, Consumer)
+     */
+    private static void apply() {
+        pending = false;
+        if (loader != null) return;
+        String levelName = requestedLevel;
+        String roomName = requestedRoom;
+
+        if (!levelName.equals(actualLevel)) {
+            if (!levelName.equals(mainMenu)) {
+                load(levelName, Level.getType(), world -> setLevel(levelName, new Level(world)));
+                return;
+            }
+            setLevel(mainMenu, null);
+        }
+
+        Scene target;
+        if (level == null) target = menu;
+        else if (roomName.equals(defaultRoom)) target = level;
+        else {
+            target = level.getRoom(roomName);
+            if (target == null) {
+                Level owner = level;
+                load(owner.getRoomFile(roomName), Room.getType(), world -> owner.addRoom(roomName, new Room(world)));
+                return;
+            }
+        }
+        if (stage.getScene() != target) stage.setScene(target);
+        actualRoom = level == null ? defaultRoom : roomName;
+    }
+
+    /**
+     * Shows a new Level, or the main menu, and disposes the previous Level with its Rooms.
+     * @param levelName the Level's name, or mainMenu.
+     * @param newLevel the Level to show, or null to show the main menu.
+     */
+    private static void setLevel(String levelName, Level newLevel) {
+        Level previousLevel = level;
+        level = newLevel;
+        menu = newLevel == null ? new MainMenuScene(new Group()) : null;
+        actualLevel = levelName;
+        actualRoom = defaultRoom;
+        stage.setScene(newLevel == null ? menu : newLevel);
+
+        // The prefetched Rooms belong to the previous Level.
+        prefetcher.clear();
+        if (previousLevel != null) previousLevel.dispose();
+        // The music is started once the Scene is shown, so that a missing sound file can't prevent the transition.
+        if (newLevel != null) newLevel.playSoundInf("music/Sound.wav");
+    }
+
+    /**
+     * Loads a Level or a Room on the SceneLoader's worker thread, while the shown Scene is suspended behind a LoadingOverlay.
+     * A scene already prefetched is attached at once, and a prefetch already running is waited for instead of being started again.
+     * @param fileName xml file's name.
+     * @param type type of scene to load. Accepted values: level, room.
+     * @param attach called on the JavaFX thread with the loaded World, to create the GameScene.
+     * @see SceneLoader
+     * @see LoadingOverlay
+     */
+    private static void load(String fileName, String type, Consumer<World> attach) {
+        SceneLoader prefetched = prefetcher.take(fileName, type);
+        if (prefetched != null && prefetched.getState() == Worker.State.SUCCEEDED) {
+            attach.accept(prefetched.getValue());
+            apply();
+            return;
+        }
+
+        Scene current = stage.getScene();
+        if (current instanceof GameScene) ((GameScene) current).suspend();
+        SceneLoader task = prefetched != null ? prefetched : new SceneLoader(fileName, type);
+        LoadingOverlay overlay = current != null && current.getRoot() instanceof Group ? new LoadingOverlay(task, (Group) current.getRoot()) : null;
+        loader = task;
+
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, event -> {
+            endLoading(current, overlay);
+            attach.accept(task.getValue());
+            apply();
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> {
+            endLoading(current, overlay);
+            task.getException().printStackTrace();
+            // The shown Scene stays, so the failed request is forgotten.
+            requestedLevel = actualLevel;
+            requestedRoom = actualRoom;
+        });
+        if (prefetched == null) task.start();
+    }
+
+    /**
+     * Removes the LoadingOverlay and resumes the Scene shown during the loading.
+     */
+    private static void endLoading(Scene current, LoadingOverlay overlay) {
+        loader = null;
+        if (overlay != null) overlay.remove();
+        if (current instanceof GameScene && !((GameScene) current).isDisposed()) ((GameScene) current).activate();
+    }
+}
@@ -0,0 +1,194 @@
+package scenes;
+
+import javafx.concurrent.Task;
+import simulation.World;
+import manager.TileManager;
+import utilities.BackgroundLayer;
+import utilities.Camera;
+import utilities.KeyHandler;
+import utilities.LevelReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Loads a Level or a Room on a worker thread : the XML file is parsed, the tiles are created and every image is decoded
+ * before the World is handed back to the JavaFX thread, where only the GameScene is created and attached to the Stage.
+ * The loading's progress can be followed through the progress property.
+ * @see World
+ * @see SceneDirector
+ */
+public class SceneLoader extends Task<World> {
+
+    /**
+     * Worker thread on which the scenes are loaded. It doesn't prevent the application from exiting.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scene-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Worker thread on which the scenes are prefetched. Its lower priority leaves the processor to the requested loadings and to the JavaFX thread,
+     * and a requested loading never waits behind the prefetched ones.
+     * @see RoomPrefetcher
+     */
+    private static final ExecutorService prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scene-prefetcher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /**
+     * xml file's name.
+     */
+    private final String fileName;
+    /**
+     * Type of scene to load. Accepted values: level, room.
+     */
+    private final String type;
+    /**
+     * Number of bytes held by the decoded images, set once the loading succeeded.
+     */
+    private volatile long decodedBytes;
+    /**
+     * Whether the worker thread began the loading.
+     */
+    private volatile boolean started;
+    /**
+     * The loaded World, from the end of the loading until it is handed to the JavaFX thread, so that a late cancellation can release it.
+     */
+    private final AtomicReference<World> loaded = new AtomicReference<>();
+    /**
+     * Whether the SceneLoader's result was dropped, in which case a World loaded afterwards is released at once.
+     */
+    private boolean discarded;
+
+    /**
+     * Creates a SceneLoader for a Level or a Room. The loading begins once the SceneLoader is started.
+     * @param fileName xml file's name.
+     * @param type specifies the type of scene you want to load (!! Case Sensitive). Accepted values: level, room.
+     * @see #start()
+     * @see #prefetch()
+     */
+    public SceneLoader(String fileName, String type) {
+        this.fileName = fileName;
+        this.type = type;
+    }
+
+    /**
+     * Submits the SceneLoader to the worker thread.
+     */
+    public void start() {
+        executor.execute(this);
+    }
+
+    /**
+     * Submits the SceneLoader to the prefetching worker thread, behind the other prefetched scenes.
+     */
+    public void prefetch() {
+        prefetcher.execute(this);
+    }
+
+    /**
+     * Parses the XML file, creates the World, decodes the background's blocks around the camera's view and packs the tiles' sprites into the level's atlas.
+     * If the loading fails once the World is created, the World is disposed before the exception is rethrown,
+     * so that its decoded blocks, its sprites and its TileMap's region file are released.
+     * A World whose loading is cancelled is disposed too, here or once the cancellation reaches the JavaFX thread.
+     * @return the loaded World.
+     * @see TileManager#buildAtlas(java.util.function.BiConsumer)
+     */
+    @Override
+    protected World call() {
+        started = true;
+        World world = new World(fileName, type, new KeyHandler());
+        try {
+            LevelReader reader = world.getReader();
+            TileManager tileManager = world.getTileManager();
+
+            Camera camera = world.getCamera();
+            long backgroundBytes = 0;
+            for (BackgroundLayer layer : reader.getBackgroundLayers()) {
+                layer.preload(camera.getWorldX(), camera.getWorldY(), tileManager.getView());
+                backgroundBytes += layer.getBytes();
+            }
+            updateProgress(1, 2);
+            tileManager.buildAtlas((decoded, total) -> updateProgress(1 + decoded, 2 + total));
+            if (isCancelled()) {
+                dispose(world);
+                return null;
+            }
+            decodedBytes = backgroundBytes + tileManager.getAtlas().getBytes() + tileManager.getChunkLayer().getBytes();
+            updateProgress(1, 1);
+            // Past this check, a cancellation lands before the World is handed back, and cancelled() releases it.
+            loaded.set(world);
+            if (isCancelled() && loaded.compareAndSet(world, null)) {
+                dispose(world);
+                return null;
+            }
+            return world;
+        } catch (Throwable e) {
+            dispose(world);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the SceneLoader's result : a running loading is cancelled, and the images of a loaded World are released.
+     * A loading that ends before it can be cancelled releases its World once it reaches the JavaFX thread.
+     * @see manager.TileManager#dispose()
+     */
+    public void discard() {
+        discarded = true;
+        if (getState() == State.SUCCEEDED) dispose(getValue());
+        else cancel();
+    }
+
+    /**
+     * Releases the World of a discarded loading that ended before it could be cancelled.
+     */
+    @Override
+    protected void succeeded() {
+        loaded.set(null);
+        if (discarded) dispose(getValue());
+    }
+
+    /**
+     * Releases the World of a loading cancelled once it was loaded, which won't be handed back.
+     */
+    @Override
+    protected void cancelled() {
+        World world = loaded.getAndSet(null);
+        if (world != null) dispose(world);
+    }
+
+    /**
+     * Releases the images of a World that won't be displayed.
+     */
+    private static void dispose(World world) {
+        world.getTileManager().dispose();
+        for (BackgroundLayer layer : world.getReader().getBackgroundLayers())
+            layer.dispose();
+    }
+
+    /**
+     * @return the decodedBytes' property value.
+     */
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * @return whether the worker thread began the loading : a SceneLoader not started yet is still waiting behind the other loadings.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+}
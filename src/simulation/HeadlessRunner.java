@@ -0,0 +1,55 @@
+package simulation;
+
+import javafx.scene.input.KeyCode;
+import scenes.GameScene;
+import tiles.TileMap;
+import utilities.KeyHandler;
+
+import static java.lang.Integer.parseInt;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Runs a Level or a Room's simulation without any Stage nor JavaFX toolkit, as fast as possible.
+ * A simple bot runs to the right and jumps every second.
+ * Usage : {@code HeadlessRunner [fileName] [type] [steps]}, for example {@code HeadlessRunner Level1 level 36000}.
+ * Note : it has to be launched from the project's directory, with the resources' directory in the classpath.
+ * @see World
+ */
+public class HeadlessRunner {
+
+    public static void main(String[] args) {
+        String fileName = args.length > 0 ? args[0] : "Level1";
+        String type = args.length > 1 ? args[1] : "level";
+        int steps = args.length > 2 ? parseInt(args[2]) : 36000;
+        double step = 1.0 / GameScene.defaultTickRate;
+
+        KeyHandler keyHandler = new KeyHandler();
+        keyHandler.keysPressed.add(KeyCode.D);
+        World world = new World(fileName, type, keyHandler);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            // The jump key is held during one step every second.
+            if (i % GameScene.defaultTickRate == 0) keyHandler.keysPressed.add(KeyCode.Z);
+            else keyHandler.keysPressed.remove(KeyCode.Z);
+            world.step(step);
+        }
+        double elapsed = (System.nanoTime() - start) / 1000000000.0;
+
+        double simulated = steps * step;
+        System.out.printf("Simulated %.1f s in %.3f s (x%.0f real time)%n", simulated, elapsed, simulated / elapsed);
+        TileMap tileMap = world.getTileManager().getTileMap();
+        if (tileMap != null && tileMap.isStreamed()) {
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("Tile map : %d x %d cells, %d regions read, %d held (%d KB), heap %d / %d MB%n", tileMap.getColumns(), tileMap.getRows(),
+                    tileMap.getReadRegions(), tileMap.getLoadedRegions(), tileMap.getBytes() / 1024,
+                    (runtime.totalMemory() - runtime.freeMemory()) / 1048576, runtime.maxMemory() / 1048576);
+        }
+        System.out.println("Hero : " + world.getHero().getX() + ", " + world.getHero().getY() + " - score " + world.getHero().getScore());
+    }
+}
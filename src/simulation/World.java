@@ -0,0 +1,152 @@
+package simulation;
+
+import entities.Hero;
+import manager.TileManager;
+import scenes.GameScene;
+import utilities.Camera;
+import utilities.CollisionChecker;
+import utilities.KeyHandler;
+import utilities.LevelReader;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Simulation state of a Level or a Room : the loaded tiles, the Hero and the Camera, without any JavaFX view.
+ * A World can be stepped by a GameScene, or in a plain JVM without any JavaFX toolkit.
+ * @see GameScene
+ * @see HeadlessRunner
+ */
+public class World {
+
+    /**
+     * Listener used when the World doesn't have any display.
+     */
+    private static final WorldListener silentListener = new WorldListener() {
+    };
+
+    /**
+     * LevelReader for loading parameters based on the type of scene.
+     * @see LevelReader
+     */
+    private final LevelReader reader;
+    /**
+     * Inputs manager that drives the Hero.
+     * @see KeyHandler
+     */
+    private final KeyHandler keyHandler;
+    /**
+     * World's Hero object.
+     * @see Hero
+     */
+    private final Hero hero;
+    /**
+     * World's camera, which follows the Hero.
+     * @see Camera
+     */
+    private final Camera camera;
+    /**
+     * World's TileManager.
+     * @see TileManager
+     */
+    private final TileManager tileManager;
+    /**
+     * World's CollisionChecker for collision management.
+     * @see CollisionChecker
+     */
+    private final CollisionChecker collisionChecker;
+    /**
+     * Listener notified of the simulation's events.
+     * @see WorldListener
+     */
+    private WorldListener listener = silentListener;
+
+    /**
+     * Creates a World by loading parameters and tiles from the LevelReader based on the type of scene we create.
+     * @param fileName xml file's name.
+     * @param type specifies the type of scene you want to create (!! Case Sensitive). Accepted values: level, room.
+     * @param keyHandler the input handler that drives the Hero.
+     */
+    public World(String fileName, String type, KeyHandler keyHandler) {
+        this.keyHandler = keyHandler;
+        reader = LevelReader.open("./data/" + fileName, type);
+        hero = new Hero(this, keyHandler);
+        camera = new Camera(GameScene.screenWidth, GameScene.screenHeight, hero);
+        tileManager = new TileManager(reader);
+        collisionChecker = new CollisionChecker(this);
+    }
+
+    /**
+     * Performs a single simulation step. The regions of a streamed TileMap are streamed around the Hero before it moves.
+     * @param step duration of the simulation step in seconds.
+     * @see Hero#update(double)
+     * @see Camera#update(double)
+     * @see TileManager#streamRegions(double, double, double, double)
+     */
+    public void step(double step) {
+        tileManager.streamRegions(hero.getX(), hero.getY(), hero.getHitWidth(), hero.getHitHeight());
+        hero.savePreviousPosition();
+        hero.update(step);
+        camera.update(step);
+    }
+
+    /**
+     * @return the value of the property reader.
+     */
+    public LevelReader getReader() {
+        return reader;
+    }
+
+    /**
+     * @return the value of the property keyHandler.
+     */
+    public KeyHandler getKeyHandler() {
+        return keyHandler;
+    }
+
+    /**
+     * @return the value of the property hero.
+     */
+    public Hero getHero() {
+        return hero;
+    }
+
+    /**
+     * @return the value of the property camera.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * @return the value of the property tileManager.
+     */
+    public TileManager getTileManager() {
+        return tileManager;
+    }
+
+    /**
+     * @return the value of the property collisionChecker.
+     */
+    public CollisionChecker getCollisionChecker() {
+        return collisionChecker;
+    }
+
+    /**
+     * @return the value of the property listener.
+     */
+    public WorldListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the listener notified of the simulation's events.
+     * @param listener the listener to notify, or null to ignore the events.
+     */
+    public void setListener(WorldListener listener) {
+        this.listener = listener == null ? silentListener : listener;
+    }
+}
@@ -0,0 +1,107 @@
+package simulation;
+
+import scenes.GameScene;
+import tiles.RegionFile;
+import tiles.TileMap;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static java.lang.Integer.parseInt;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Generates a Room made of a streamed TileMap of any size : flat ground, fences every few tiles, and solid ground below.
+ * It writes the RegionFile and the room's .xml file in the data/generated directory, which is ignored by git, one region at a time,
+ * so that worlds much larger than the memory can be generated, then walked by the HeadlessRunner.
+ * Usage : {@code WorldGenerator [name] [columns] [rows]}, for example {@code WorldGenerator Huge 40000 4096},
+ * then {@code java -Xmx32m HeadlessRunner generated/Huge room 1200000}.
+ * Note : the IDs refer to the lines of resources/tiles.txt.
+ * @see RegionFile#write(String, int, int, RegionFile.Generator)
+ * @see HeadlessRunner
+ */
+public class WorldGenerator {
+
+    /**
+     * Row of the ground's surface.
+     */
+    private static final int groundRow = 16;
+    /**
+     * ID of the ground's surface : Tile (2).png, solid.
+     */
+    private static final short groundId = 15;
+    /**
+     * ID of the ground under the surface : Tile (5).png, solid.
+     */
+    private static final short earthId = 18;
+    /**
+     * ID of the fences on the ground : Fence (1).png, only displayed.
+     */
+    private static final short fenceId = 9;
+    /**
+     * Directory of the generated files, relative to the project's directory.
+     */
+    public static final String directory = "./data/generated/";
+
+    public static void main(String[] args) throws IOException {
+        String name = args.length > 0 ? args[0] : "Huge";
+        int columns = args.length > 1 ? parseInt(args[1]) : 40000;
+        int rows = args.length > 2 ? parseInt(args[2]) : 4096;
+
+        long start = System.nanoTime();
+        generate(name, columns, rows);
+        String regionFileName = directory + name + RegionFile.extension;
+        long bytes = Files.size(Paths.get(regionFileName));
+        System.out.printf("Generated %s : %d x %d cells, %d MB in %.1f s%n", regionFileName, columns, rows, bytes / 1048576, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Writes the RegionFile and the room's .xml file of a generated world.
+     * @param name name of the files, without extension.
+     * @param columns number of columns of the grid.
+     * @param rows number of rows of the grid.
+     * @return the room's name relative to the data directory, as expected by the World.
+     */
+    public static String generate(String name, int columns, int rows) throws IOException {
+        Files.createDirectories(Paths.get(directory));
+        String regionFileName = directory + name + RegionFile.extension;
+        RegionFile.write(regionFileName, columns, rows, (regionColumn, regionRow, ids) -> {
+            boolean filled = false;
+            for (int j = 0; j < TileMap.regionTiles; j++) {
+                int row = regionRow * TileMap.regionTiles + j;
+                for (int i = 0; i < TileMap.regionTiles; i++) {
+                    int column = regionColumn * TileMap.regionTiles + i;
+                    if (column >= columns || row >= rows) continue;
+                    short id = row > groundRow ? earthId : row == groundRow ? groundId : row == groundRow - 1 && column % 12 == 0 ? fenceId : -1;
+                    ids[j * TileMap.regionTiles + i] = id;
+                    filled |= id >= 0;
+                }
+            }
+            return filled;
+        });
+
+        String room = """
+                <?xml version="1.0"?>
+                <jeux>
+                    <room id="1">
+                        <startPositionX>%d</startPositionX>
+                        <startPositionY>%d</startPositionY>
+                        <startVelocity>150</startVelocity>
+                        <keyOrder>1</keyOrder>
+                        <gravity>250</gravity>
+                        <rotation>0</rotation>
+                        <tileMap x="0" y="0" loadRadius="1" unloadRadius="2">%s</tileMap>
+                    </room>
+                </jeux>
+                """.formatted(GameScene.tileSize * 2, GameScene.tileSize * (groundRow - 3), regionFileName);
+        Files.writeString(Paths.get(directory + name + ".xml"), room, StandardCharsets.UTF_8);
+        return "generated/" + name;
+    }
+}
@@ -0,0 +1,46 @@
+package simulation;
+
+import tiles.Coin;
+import tiles.Npc;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Receives the events raised by a World's simulation that have to be shown or heard by the player.
+ * Every method does nothing by default, so that a World can be simulated without any display.
+ * @see World
+ */
+public interface WorldListener {
+
+    /**
+     * Is called when a sound has to be played.
+     * @param filename sound's file name in the resources' directory.
+     */
+    default void playSound(String filename) {
+    }
+
+    /**
+     * Is called when the Hero collects a coin.
+     * @param coin the collected Coin.
+     */
+    default void coinCollected(Coin coin) {
+    }
+
+    /**
+     * Is called when the Hero interacts with a Npc.
+     * @param npc the Npc the Hero talks to.
+     */
+    default void talkTo(Npc npc) {
+    }
+
+    /**
+     * Is called when the Hero borrows a door.
+     * @param direction Room/Level direction of the borrowed door.
+     */
+    default void borrowDoor(String direction) {
+    }
+}
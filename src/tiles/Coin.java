@@ -8,6 +8,11 @@ package tiles;
 
 public class Coin extends Tile {
 
+    /**
+     * Coin's collected property.
+     */
+    private boolean collected = false;
+
     /**
      * Creates a Coin object at X and Y coordinates with the provided collision property and an ImageView provided by the fileName image.
      * @param fileName directory and name for the imageview's image property.
@@ -18,4 +23,27 @@ public class Coin extends Tile {
     public Coin(String fileName, double x, double y, boolean collision) {
         super(fileName, x, y, collision);
     }
+
+    /**
+     * @return the collected's property value.
+     */
+    public boolean isCollected() {
+        return collected;
+    }
+
+    /**
+     * @return false once the Coin is collected.
+     */
+    @Override
+    public boolean isShown() {
+        return !collected;
+    }
+
+    /**
+     * Marks the Coin as collected : collisions are no longer checked with it and it is no longer displayed.
+     */
+    public void collect() {
+        collected = true;
+        collision = false;
+    }
 }
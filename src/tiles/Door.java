@@ -1,7 +1,6 @@
 package tiles;
 
-import javafx.scene.image.Image;
-import main.Main;
+import scenes.SceneDirector;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -12,8 +11,7 @@ import main.Main;
 public class Door extends Tile {
     /**
      * Destination of the door. It can be a room or a level.
-     * @see Main#actualLevel
-     * @see Main#actualRoom
+     * @see SceneDirector#requestDirection(String)
      */
     private final String direction;
 
@@ -27,9 +25,8 @@ public class Door extends Tile {
      */
     public Door(String fileName, double x, double y, boolean collision, String direction) {
         super(fileName, x, y, collision);
-        double requestedWidth = 150;
-        double requestedHeight = 90;
-        imageView.setImage(new Image(fileName, requestedWidth, requestedHeight, true, true));
+        requestedWidth = 150;
+        requestedHeight = 90;
         this.direction = direction;
     }
 
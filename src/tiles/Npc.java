@@ -1,6 +1,7 @@
 package tiles;
 
 import javafx.geometry.HPos;
+import javafx.geometry.Point2D;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
@@ -56,8 +57,10 @@ public class Npc extends Tile {
             root.setVgap(15);
             root.setAlignment(Pos.CENTER);
 
-            root.setLayoutX(scene.getHero().getImageView().getX() + 100);
-            root.setLayoutY(scene.getHero().getImageView().getY() - 100);
+            // The Hero is displayed in world coordinates, the dialog in screen coordinates.
+            Point2D heroPosition = scene.getWorldLayer().localToParent(scene.getHero().getImageView().getX(), scene.getHero().getImageView().getY());
+            root.setLayoutX(heroPosition.getX() + 100);
+            root.setLayoutY(heroPosition.getY() - 100);
 
             Label labelTitle = new Label("I need to have the missing line of code .\nTo repair the program !");
             root.add(labelTitle, 0, 0, 2, 1);
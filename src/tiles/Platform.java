@@ -18,4 +18,17 @@ public class Platform extends Tile {
     public Platform(String fileName, double x, double y, boolean collision) {
         super(fileName, x, y, collision);
     }
+
+    /**
+     * Creates a run of numberX by numberY Platform cells as a single Platform object.
+     * @param fileName directory and name for the imageview's image property.
+     * @param x X-axis coordinate of the run's first cell.
+     * @param y Y-axis coordinate of the run's first cell.
+     * @param collision collision check property.
+     * @param numberX number of cells along the X-axis, towards the negative coordinates if negative.
+     * @param numberY number of cells along the Y-axis, towards the negative coordinates if negative.
+     */
+    public Platform(String fileName, double x, double y, boolean collision, int numberX, int numberY) {
+        super(fileName, x, y, collision, numberX, numberY);
+    }
 }
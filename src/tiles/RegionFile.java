@@ -0,0 +1,205 @@
+package tiles;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * File holding the tile IDs of a TileMap split into square regions of regionTiles x regionTiles cells,
+ * so that a region can be read on its own without reading the rest of the grid.
+ * The file is made of :
+ * <ul>
+ * <li>a header : magic, version, number of columns and rows of the grid, and number of cells on each side of a region.
+ * <li>an offset table : the position in the file of each region, row of regions after row of regions, or 0 if all its cells are empty.
+ * <li>the regions' cells, row after row, as 2 bytes IDs. The cells outside the grid and the empty cells have the ID -1.
+ * </ul>
+ * Regions can be read from any thread.
+ * @see TileMap#open(String, String, int, int, int, int)
+ */
+public final class RegionFile implements Closeable {
+
+    /**
+     * Extension of the region files.
+     */
+    public static final String extension = ".tmr";
+    /**
+     * First int of every region file.
+     */
+    public static final int magic = 0x544D5200;
+    /**
+     * Version of the region files' layout. Files of another version are rejected.
+     */
+    public static final int version = 1;
+    /**
+     * Size in bytes of the header.
+     */
+    private static final int headerSize = 4 * 5;
+
+    /**
+     * The opened file.
+     */
+    private final FileChannel channel;
+    /**
+     * Number of columns of the grid.
+     */
+    private final int columns;
+    /**
+     * Number of rows of the grid.
+     */
+    private final int rows;
+    /**
+     * Number of regions along the X-axis.
+     */
+    private final int regionColumns;
+
+    private RegionFile(FileChannel channel, int columns, int rows) {
+        this.channel = channel;
+        this.columns = columns;
+        this.rows = rows;
+        regionColumns = Math.floorDiv(columns + TileMap.regionTiles - 1, TileMap.regionTiles);
+    }
+
+    /**
+     * Opens a region file. Only its header is read.
+     * @param fileName directory and name of the file.
+     * @return the opened RegionFile.
+     * @throws IOException if the file can't be read, or has another format or another region size.
+     */
+    public static RegionFile open(String fileName) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != magic || header.getInt(4) != version) throw new IOException(fileName + " : unknown format");
+            if (header.getInt(4 * 4) != TileMap.regionTiles) throw new IOException(fileName + " : regions of " + header.getInt(4 * 4) + " cells");
+            return new RegionFile(channel, header.getInt(4 * 2), header.getInt(4 * 3));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the cells of a region.
+     * @param regionColumn column of the region.
+     * @param regionRow row of the region.
+     * @return the IDs of the region's cells, row after row, or null if all its cells are empty.
+     * @throws IOException if the file can't be read.
+     */
+    public short[] read(int regionColumn, int regionRow) throws IOException {
+        ByteBuffer offset = ByteBuffer.allocate(8);
+        readFully(channel, offset, headerSize + 8L * ((long) regionRow * regionColumns + regionColumn));
+        if (offset.getLong(0) == 0) return null;
+
+        ByteBuffer cells = ByteBuffer.allocate(TileMap.regionTiles * TileMap.regionTiles * 2);
+        readFully(channel, cells, offset.getLong(0));
+        short[] ids = new short[TileMap.regionTiles * TileMap.regionTiles];
+        cells.flip().asShortBuffer().get(ids);
+        return ids;
+    }
+
+    /**
+     * Writes a region file, one region at a time, so that grids much larger than the memory can be written.
+     * The file is written in a temporary file first, then moved to its path.
+     * @param fileName directory and name of the file.
+     * @param columns number of columns of the grid.
+     * @param rows number of rows of the grid.
+     * @param generator fills in the cells of each region.
+     */
+    public static void write(String fileName, int columns, int rows, Generator generator) throws IOException {
+        int regionColumns = Math.floorDiv(columns + TileMap.regionTiles - 1, TileMap.regionTiles);
+        int regionRows = Math.floorDiv(rows + TileMap.regionTiles - 1, TileMap.regionTiles);
+        Path path = Paths.get(fileName);
+        Path temporary = Paths.get(fileName + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            header.putInt(magic).putInt(version).putInt(columns).putInt(rows).putInt(TileMap.regionTiles).flip();
+            writeFully(channel, header, 0);
+
+            ByteBuffer offsets = ByteBuffer.allocate(8 * regionColumns);
+            long position = headerSize + 8L * regionColumns * regionRows;
+            short[] ids = new short[TileMap.regionTiles * TileMap.regionTiles];
+            ByteBuffer cells = ByteBuffer.allocate(ids.length * 2);
+            for (int regionRow = 0; regionRow < regionRows; regionRow++) {
+                offsets.clear();
+                for (int regionColumn = 0; regionColumn < regionColumns; regionColumn++) {
+                    Arrays.fill(ids, (short) -1);
+                    if (!generator.fill(regionColumn, regionRow, ids)) {
+                        offsets.putLong(0);
+                        continue;
+                    }
+                    cells.clear();
+                    cells.asShortBuffer().put(ids);
+                    writeFully(channel, cells, position);
+                    offsets.putLong(position);
+                    position += cells.capacity();
+                }
+                offsets.flip();
+                writeFully(channel, offsets, headerSize + 8L * regionRow * regionColumns);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the columns' property value.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the rows' property value.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new EOFException("Truncated region file");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+
+    /**
+     * Fills in the cells of the regions of a RegionFile being written.
+     */
+    @FunctionalInterface
+    public interface Generator {
+        /**
+         * @param regionColumn column of the region.
+         * @param regionRow row of the region.
+         * @param ids IDs of the region's cells, row after row, filled with -1.
+         * @return false if all the region's cells are empty, so that they aren't written.
+         */
+        boolean fill(int regionColumn, int regionRow, short[] ids) throws IOException;
+    }
+}
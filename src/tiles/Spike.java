@@ -16,10 +16,23 @@ public class Spike extends Tile {
      * @param collision collision check property.
      */
     public Spike(String fileName, double x, double y, boolean collision) {
-        super(fileName, x, y, collision);
-        hitBox.setHeight(hitBox.getHeight() / 2);
-        hitBox.setWidth(56);
-        hitBox.setX(x + (64 - 56) / 2.0);
-        hitBox.setY(y + 32);
+        this(fileName, x, y, collision, 1, 1);
+    }
+
+    /**
+     * Creates a run of numberX by numberY Spike cells as a single Spike object.
+     * @param fileName directory and name for the imageview's image property.
+     * @param x X-axis coordinate of the run's first cell.
+     * @param y Y-axis coordinate of the run's first cell.
+     * @param collision collision check property.
+     * @param numberX number of cells along the X-axis, towards the negative coordinates if negative.
+     * @param numberY number of cells along the Y-axis, towards the negative coordinates if negative.
+     */
+    public Spike(String fileName, double x, double y, boolean collision, int numberX, int numberY) {
+        super(fileName, x, y, collision, numberX, numberY);
+        hitHeight = hitHeight / 2;
+        hitWidth = 56;
+        hitOffsetX = (64 - 56) / 2.0;
+        hitOffsetY = 32;
     }
 }
@@ -1,9 +1,16 @@
 package tiles;
 
+import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Rectangle;
 import scenes.GameScene;
+import utilities.ImageCache;
+import utilities.ImageSize;
+import utilities.TextureAtlas;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -24,10 +31,59 @@ public abstract class Tile {
     protected final double worldY;
 
     /**
-     * Tile's ImageView to be displayed.
+     * Directory and name of the Tile's image.
+     */
+    protected final String fileName;
+
+    /**
+     * Requested width of the displayed image.
+     */
+    protected double requestedWidth = GameScene.tileSize;
+
+    /**
+     * Requested height of the displayed image.
+     */
+    protected double requestedHeight = GameScene.tileSize;
+
+    /**
+     * Tile's decoded image, shared with the other tiles of the same file and size. It is only loaded once the Tile is displayed.
+     * @see Image
+     * @see ImageCache
+     */
+    protected Image image;
+
+    /**
+     * Region of the Tile's sprite inside the level's TextureAtlas, or null if the Tile displays its own image.
+     * @see TextureAtlas
+     */
+    protected TextureAtlas.Region region;
+
+    /**
+     * Tile's ImageView to be displayed. It is only created once the Tile is displayed.
      * @see ImageView
      */
     protected ImageView imageView;
+    /**
+     * Shape filled with the Tile's sprite repeated over every cell of its run. It is only created once a run is displayed.
+     * @see #getNode()
+     */
+    protected Rectangle runShape;
+    /**
+     * Number of cells of the Tile's run along the X-axis.
+     */
+    protected final int columns;
+    /**
+     * Number of cells of the Tile's run along the Y-axis.
+     */
+    protected final int rows;
+    /**
+     * Signed distance between two cells of the run along the X-axis.
+     */
+    protected final double stepX;
+    /**
+     * Signed distance between two cells of the run along the Y-axis.
+     */
+    protected final double stepY;
 
     /**
      * Tile's collision property.
@@ -39,26 +95,69 @@ public abstract class Tile {
     protected boolean collision;
 
     /**
-     * Tile's Rectangle hit box used to perform collision interactions.
-     * @see Rectangle
+     * X-axis offset of the hit box from the Tile's world coordinate.
+     */
+    protected double hitOffsetX;
+
+    /**
+     * Y-axis offset of the hit box from the Tile's world coordinate.
+     */
+    protected double hitOffsetY;
+
+    /**
+     * Hit box's width used to perform collision interactions.
      */
-    protected Rectangle hitBox;
+    protected double hitWidth;
+
+    /**
+     * Hit box's height used to perform collision interactions.
+     */
+    protected double hitHeight;
+
+    /**
+     * Last frame during which the Tile was in the camera's view.
+     * @see manager.TileManager#render(long, utilities.Camera)
+     */
+    private int renderFrame;
 
     /**
      * Creates a Tile object at X and Y coordinates with the provided collision property and an ImageView provided by the fileName image.
+     * The image isn't decoded here : the hit box is computed from the image's header, so that the Tile can be used without any JavaFX toolkit.
      * @param fileName directory and name for the imageview's image property.
      * @param x X-axis coordinate.
      * @param y Y-axis coordinate.
      * @param collision collision check property.
+     * @see ImageSize#fit(String, double, double, boolean)
      */
     public Tile(String fileName, double x, double y, boolean collision) {
-        imageView = new ImageView(new Image(fileName, GameScene.tileSize, GameScene.tileSize, true, true));
+        this(fileName, x, y, collision, 1, 1);
+    }
+
+    /**
+     * Creates a run of numberX by numberY identical Tile cells, spaced by one tile, as a single Tile object.
+     * A negative number lays the cells out towards the negative coordinates, starting from the X and Y coordinates.
+     * Collisions are still checked cell by cell, but the run is displayed and indexed as one object.
+     * @param fileName directory and name for the imageview's image property.
+     * @param x X-axis coordinate of the run's first cell.
+     * @param y Y-axis coordinate of the run's first cell.
+     * @param collision collision check property.
+     * @param numberX number of cells along the X-axis.
+     * @param numberY number of cells along the Y-axis.
+     * @see #getCellX(int)
+     * @see #getCellY(int)
+     */
+    public Tile(String fileName, double x, double y, boolean collision, int numberX, int numberY) {
+        this.fileName = fileName;
         worldX = x;
         worldY = y;
-        imageView.setX(worldX);
-        imageView.setY(worldY);
         this.collision = collision;
-        hitBox = new Rectangle(imageView.getX(), imageView.getY(), imageView.getImage().getWidth(), imageView.getImage().getHeight());
+        columns = Math.max(1, Math.abs(numberX));
+        rows = Math.max(1, Math.abs(numberY));
+        stepX = numberX < 0 ? -GameScene.tileSize : GameScene.tileSize;
+        stepY = numberY < 0 ? -GameScene.tileSize : GameScene.tileSize;
+        double[] size = ImageSize.fit(fileName, GameScene.tileSize, GameScene.tileSize, true);
+        hitWidth = size[0];
+        hitHeight = size[1];
     }
 
     /**
@@ -76,12 +175,135 @@ public abstract class Tile {
     }
 
     /**
+     * @return the fileName's property value.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Acquires the Tile's image from the ImageCache on its first call.
+     * @return the image's property value.
+     * @see ImageCache#acquire(String, double, double, boolean, boolean)
+     */
+    public Image getImage() {
+        if (image == null) image = ImageCache.acquire(fileName, requestedWidth, requestedHeight, true, true);
+        return image;
+    }
+
+    /**
+     * @return the name of the Tile's sprite, used as its region's name in a TextureAtlas.
+     * @see TextureAtlas#regionName(String, double, double)
+     */
+    public String getRegionName() {
+        return TextureAtlas.regionName(fileName, requestedWidth, requestedHeight);
+    }
+
+    /**
+     * @return the region's property value.
+     */
+    public TextureAtlas.Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Makes the Tile display its sprite from a TextureAtlas' region rather than from its own image.
+     * @param region the region of the Tile's sprite, or null.
+     */
+    public void setRegion(TextureAtlas.Region region) {
+        this.region = region;
+    }
+
+    /**
+     * Creates the Tile's ImageView at its world coordinates on its first call.
+     * If the Tile has a region, the ImageView shows it from the atlas image.
      * @return the imageView's property value.
      */
     public ImageView getImageView() {
+        if (imageView == null) {
+            if (region != null) {
+                imageView = new ImageView(region.getImage());
+                imageView.setViewport(region.getViewport());
+            } else imageView = new ImageView(getImage());
+            imageView.setX(worldX);
+            imageView.setY(worldY);
+        }
         return imageView;
     }
 
+    /**
+     * Creates the node displaying the Tile on its first call. A single cell is displayed by its ImageView,
+     * while a run is displayed by one Rectangle filled with an ImagePattern of its sprite, repeated every tile.
+     * @return the Tile's node.
+     * @see #getImageView()
+     */
+    public Node getNode() {
+        if (getCellCount() == 1) return getImageView();
+        if (runShape == null) {
+            // The pattern's cell is a whole tile, with the sprite at its top left corner, so that the run looks like separate ImageViews.
+            PixelReader source = region != null ? region.getImage().getPixelReader() : getImage().getPixelReader();
+            int sourceX = region != null ? (int) region.getX() : 0;
+            int sourceY = region != null ? (int) region.getY() : 0;
+            int width = (int) Math.min(GameScene.tileSize, region != null ? region.getWidth() : getImage().getWidth());
+            int height = (int) Math.min(GameScene.tileSize, region != null ? region.getHeight() : getImage().getHeight());
+            WritableImage cell = new WritableImage(GameScene.tileSize, GameScene.tileSize);
+            cell.getPixelWriter().setPixels(0, 0, width, height, source, sourceX, sourceY);
+
+            runShape = new Rectangle(getBoundsX(), getBoundsY(), columns * GameScene.tileSize, rows * GameScene.tileSize);
+            runShape.setFill(new ImagePattern(cell, getBoundsX(), getBoundsY(), GameScene.tileSize, GameScene.tileSize, false));
+        }
+        return runShape;
+    }
+
+    /**
+     * Releases the Tile's image and ImageView. They will be loaded again if the Tile is displayed later.
+     * @see ImageCache#release(String, double, double, boolean, boolean)
+     */
+    public void dispose() {
+        if (imageView != null) imageView.setImage(null);
+        imageView = null;
+        if (runShape != null) runShape.setFill(null);
+        runShape = null;
+        if (image != null) ImageCache.release(fileName, requestedWidth, requestedHeight, true, true);
+        image = null;
+        region = null;
+    }
+
+    /**
+     * @return the requestedWidth's property value, an upper bound of the displayed image's width.
+     */
+    public double getRequestedWidth() {
+        return requestedWidth;
+    }
+
+    /**
+     * @return the requestedHeight's property value, an upper bound of the displayed image's height.
+     */
+    public double getRequestedHeight() {
+        return requestedHeight;
+    }
+
+    /**
+     * @return true if the Tile has to be displayed while it is in the camera's view.
+     */
+    public boolean isShown() {
+        return true;
+    }
+
+    /**
+     * @return the renderFrame's property value.
+     */
+    public int getRenderFrame() {
+        return renderFrame;
+    }
+
+    /**
+     * @param renderFrame the value to set.
+     */
+    public void setRenderFrame(int renderFrame) {
+        this.renderFrame = renderFrame;
+    }
+
     /**
      * @return the collision's property value.
      */
@@ -98,10 +320,140 @@ public abstract class Tile {
     }
 
     /**
-     * @return the hitBox's property value.
+     * @return the number of cells of the Tile's run.
+     */
+    public int getCellCount() {
+        return columns * rows;
+    }
+
+    /**
+     * @return the columns' property value.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the rows' property value.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of cells along the X-axis, negative if the run goes towards the negative coordinates.
+     */
+    public int getNumberX() {
+        return stepX < 0 ? -columns : columns;
+    }
+
+    /**
+     * @return the number of cells along the Y-axis, negative if the run goes towards the negative coordinates.
+     */
+    public int getNumberY() {
+        return stepY < 0 ? -rows : rows;
+    }
+
+    /**
+     * @param cell index of the cell in the run, counted column by column.
+     * @return the cell's X-axis world coordinate.
+     */
+    public double getCellX(int cell) {
+        return worldX + stepX * (cell / rows);
+    }
+
+    /**
+     * @param cell index of the cell in the run, counted column by column.
+     * @return the cell's Y-axis world coordinate.
+     */
+    public double getCellY(int cell) {
+        return worldY + stepY * (cell % rows);
+    }
+
+    /**
+     * @param cell index of the cell in the run, counted column by column.
+     * @return the cell's hit box' X-axis world coordinate.
+     */
+    public double getCellHitX(int cell) {
+        return getCellX(cell) + hitOffsetX;
+    }
+
+    /**
+     * @param cell index of the cell in the run, counted column by column.
+     * @return the cell's hit box' Y-axis world coordinate.
+     */
+    public double getCellHitY(int cell) {
+        return getCellY(cell) + hitOffsetY;
+    }
+
+    /**
+     * @return the X-axis world coordinate of the run's display bounds.
+     */
+    public double getBoundsX() {
+        return stepX < 0 ? worldX + stepX * (columns - 1) : worldX;
+    }
+
+    /**
+     * @return the Y-axis world coordinate of the run's display bounds.
+     */
+    public double getBoundsY() {
+        return stepY < 0 ? worldY + stepY * (rows - 1) : worldY;
+    }
+
+    /**
+     * @return the width of the run's display bounds, an upper bound of the displayed images' width.
+     */
+    public double getBoundsWidth() {
+        return (columns - 1) * GameScene.tileSize + requestedWidth;
+    }
+
+    /**
+     * @return the height of the run's display bounds, an upper bound of the displayed images' height.
+     */
+    public double getBoundsHeight() {
+        return (rows - 1) * GameScene.tileSize + requestedHeight;
+    }
+
+    /**
+     * @return the X-axis world coordinate of the box holding the hit boxes of every cell.
+     */
+    public double getHitX() {
+        return getBoundsX() + hitOffsetX;
+    }
+
+    /**
+     * @return the Y-axis world coordinate of the box holding the hit boxes of every cell.
+     */
+    public double getHitY() {
+        return getBoundsY() + hitOffsetY;
+    }
+
+    /**
+     * @return the width of the box holding the hit boxes of every cell.
+     */
+    public double getHitWidth() {
+        return (columns - 1) * GameScene.tileSize + hitWidth;
+    }
+
+    /**
+     * @return the height of the box holding the hit boxes of every cell.
+     */
+    public double getHitHeight() {
+        return (rows - 1) * GameScene.tileSize + hitHeight;
+    }
+
+    /**
+     * @return the hitWidth's property value, the width of a single cell's hit box.
+     */
+    public double getCellHitWidth() {
+        return hitWidth;
+    }
+
+    /**
+     * @return the hitHeight's property value, the height of a single cell's hit box.
      */
-    public Rectangle getHitBox() {
-        return hitBox;
+    public double getCellHitHeight() {
+        return hitHeight;
     }
 
 
@@ -0,0 +1,208 @@
+package tiles;
+
+import java.util.HashMap;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Description of a tile element of a level file : its kind, image, first cell's coordinates, number of cells,
+ * and the properties specific to its kind, such as a Door's direction.
+ * @see TileRegistry
+ */
+public final class TileElement {
+
+    /**
+     * Name of the element, the kind of Tile it describes.
+     */
+    private String kind;
+    /**
+     * Directory and name of the Tile's image.
+     */
+    private String fileName;
+    /**
+     * X-axis coordinate of the first cell.
+     */
+    private int x;
+    /**
+     * Y-axis coordinate of the first cell.
+     */
+    private int y;
+    /**
+     * Collision check property.
+     */
+    private boolean collision;
+    /**
+     * Number of cells along the X-axis, towards the negative coordinates if negative.
+     */
+    private int numberX = 1;
+    /**
+     * Number of cells along the Y-axis, towards the negative coordinates if negative.
+     */
+    private int numberY = 1;
+    /**
+     * Properties specific to the element's kind, by name.
+     */
+    private final HashMap<String, String> properties = new HashMap<>();
+
+    /**
+     * Resets the element, so that a single instance can be reused for every element of a file.
+     * @param kind name of the element.
+     */
+    public void reset(String kind) {
+        this.kind = kind;
+        fileName = "";
+        x = 0;
+        y = 0;
+        collision = false;
+        numberX = 1;
+        numberY = 1;
+        properties.clear();
+    }
+
+    /**
+     * @return a copy of the element.
+     */
+    public TileElement copy() {
+        TileElement copy = new TileElement();
+        copy.kind = kind;
+        copy.fileName = fileName;
+        copy.setCell(x, y, collision, numberX, numberY);
+        copy.properties.putAll(properties);
+        return copy;
+    }
+
+    /**
+     * Sets the element's coordinates, collision and number of cells.
+     * @param x X-axis coordinate of the first cell.
+     * @param y Y-axis coordinate of the first cell.
+     * @param collision collision check property.
+     * @param numberX number of cells along the X-axis.
+     * @param numberY number of cells along the Y-axis.
+     */
+    public void setCell(int x, int y, boolean collision, int numberX, int numberY) {
+        this.x = x;
+        this.y = y;
+        this.collision = collision;
+        this.numberX = numberX;
+        this.numberY = numberY;
+    }
+
+    /**
+     * @return the kind's property value.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the fileName's property value.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @param fileName the value to set.
+     */
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * @return the x's property value.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @param x the value to set.
+     */
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    /**
+     * @return the y's property value.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @param y the value to set.
+     */
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    /**
+     * @return the collision's property value.
+     */
+    public boolean getCollision() {
+        return collision;
+    }
+
+    /**
+     * @param collision the value to set.
+     */
+    public void setCollision(boolean collision) {
+        this.collision = collision;
+    }
+
+    /**
+     * @return the numberX's property value.
+     */
+    public int getNumberX() {
+        return numberX;
+    }
+
+    /**
+     * @param numberX the value to set.
+     */
+    public void setNumberX(int numberX) {
+        this.numberX = numberX;
+    }
+
+    /**
+     * @return the numberY's property value.
+     */
+    public int getNumberY() {
+        return numberY;
+    }
+
+    /**
+     * @param numberY the value to set.
+     */
+    public void setNumberY(int numberY) {
+        this.numberY = numberY;
+    }
+
+    /**
+     * @param name the property's name.
+     * @param defaultValue value returned if the element has no such property.
+     * @return the property's value.
+     */
+    public String getProperty(String name, String defaultValue) {
+        return properties.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * @param name the property's name.
+     * @param value the value to set.
+     */
+    public void setProperty(String name, String value) {
+        properties.put(name, value);
+    }
+
+    /**
+     * @return the properties' property value.
+     */
+    public HashMap<String, String> getProperties() {
+        return properties;
+    }
+}
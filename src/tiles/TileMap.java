@@ -0,0 +1,582 @@
+package tiles;
+
+import scenes.GameScene;
+import utilities.ImageSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Dense grid of tile IDs, split into square regions of regionTiles x regionTiles cells.
+ * Each ID refers to a TileType of the tile-type table, which gives the cells' sprite and flags.
+ * A cell only costs the 2 bytes of its ID : no Tile object is created for the grid, whose cells are displayed
+ * by the TileMapLayer and checked for collisions by the CollisionChecker directly from the IDs.
+ * <ul>
+ * <li>A grid read from a text file of whitespace separated numbers, one line per row of tiles, is held entirely in memory.
+ * <li>A grid read from a RegionFile is streamed : only the regions around the Hero are held in memory.
+ * They are read in the background once they are within the load radius, and released once they are beyond the unload radius.
+ * </ul>
+ * Note : loading a TileMap doesn't require any JavaFX toolkit.
+ * @see TileType
+ * @see RegionFile
+ * @see manager.TileMapLayer
+ * @see utilities.CollisionChecker
+ */
+public final class TileMap {
+
+    /**
+     * Directory of the tile types' sprites.
+     */
+    public static final String spriteDirectory = "/images/Tiles_256x256/";
+    /**
+     * Number of cells on each side of a region. It is a multiple of the ChunkLayer's chunkTiles, so that a chunk never spans two regions.
+     * @see manager.ChunkLayer#chunkTiles
+     */
+    public static final int regionTiles = 64;
+    /**
+     * Cells of every region whose cells are all empty.
+     */
+    private static final short[] emptyRegion = new short[regionTiles * regionTiles];
+    /**
+     * Single thread reading the streamed regions in the background. It doesn't prevent the application from exiting.
+     */
+    private static final ExecutorService regionLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "region-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Arrays.fill(emptyRegion, (short) -1);
+    }
+
+    /**
+     * Number of columns of the grid.
+     */
+    private final int columns;
+    /**
+     * Number of rows of the grid.
+     */
+    private final int rows;
+    /**
+     * Number of regions along the X-axis.
+     */
+    private final int regionColumns;
+    /**
+     * Number of regions along the Y-axis.
+     */
+    private final int regionRows;
+    /**
+     * IDs of the cells of each region, row after row, or null if the region isn't held in memory.
+     * The regions are indexed by regionRow * regionColumns + regionColumn.
+     */
+    private final short[][] regions;
+    /**
+     * Indexes of the regions held in memory, in their first heldCount elements.
+     */
+    private final int[] heldRegions;
+    /**
+     * Number of regions held in memory.
+     */
+    private int heldCount;
+    /**
+     * Reading of each region being read in the background, or null, by index of region.
+     */
+    private final Future<?>[] pendingRegions;
+    /**
+     * Indexes of the regions being read in the background, in their first pendingCount elements.
+     */
+    private final int[] pendingIndexes;
+    /**
+     * Number of regions being read in the background.
+     */
+    private int pendingCount;
+    /**
+     * File the regions are streamed from, or null if the whole grid is held in memory.
+     */
+    private final RegionFile file;
+    /**
+     * Distance in regions from the Hero's region under which the regions are read.
+     */
+    private final int loadRadius;
+    /**
+     * Distance in regions from the Hero's region beyond which the regions are released.
+     * It is larger than the load radius, so that a Hero moving back and forth across a region's edge doesn't read the same regions again and again.
+     */
+    private final int unloadRadius;
+    /**
+     * Column of the region under the Hero's center at the last stream, used to release and request the regions only when it changes.
+     */
+    private int centerColumn = Integer.MIN_VALUE;
+    /**
+     * Row of the region under the Hero's center at the last stream.
+     */
+    private int centerRow = Integer.MIN_VALUE;
+    /**
+     * Index of the last region accessed, or -1. It is only forgotten once this region is released.
+     */
+    private int lastIndex = -1;
+    /**
+     * Cells of the last region accessed.
+     */
+    private short[] lastRegion;
+    /**
+     * Number of regions read from the file.
+     */
+    private long readRegions;
+    /**
+     * Tile types, by ID.
+     */
+    private final TileType[] types;
+    /**
+     * X-axis world coordinate of the grid's top left corner.
+     */
+    private final int x;
+    /**
+     * Y-axis world coordinate of the grid's top left corner.
+     */
+    private final int y;
+
+    private TileMap(int columns, int rows, TileType[] types, int x, int y, RegionFile file, int loadRadius, int unloadRadius) {
+        this.columns = columns;
+        this.rows = rows;
+        this.types = types;
+        this.x = x;
+        this.y = y;
+        this.file = file;
+        this.loadRadius = loadRadius;
+        this.unloadRadius = Math.max(loadRadius, unloadRadius);
+        regionColumns = Math.floorDiv(columns + regionTiles - 1, regionTiles);
+        regionRows = Math.floorDiv(rows + regionTiles - 1, regionTiles);
+        regions = new short[regionColumns * regionRows][];
+        heldRegions = new int[regions.length];
+        pendingRegions = new Future<?>[file != null ? regions.length : 0];
+        pendingIndexes = new int[pendingRegions.length];
+    }
+
+    /**
+     * Loads a grid and its tile-type table from the resources.
+     * Every line of the tile-type table holds a sprite's file name, optionally followed by comma separated flags :
+     * solid (collides like a Platform), deadly (kills like a Spike) or empty (neither displayed nor checked).
+     * @param gridFileName directory and name of the grid's file.
+     * @param typesFileName directory and name of the tile-type table's file.
+     * @param x X-axis world coordinate of the grid's top left corner.
+     * @param y Y-axis world coordinate of the grid's top left corner.
+     * @return the loaded TileMap.
+     * @throws IOException if a file can't be read, if the rows don't have the same length, or if an ID has no type.
+     */
+    public static TileMap load(String gridFileName, String typesFileName, int x, int y) throws IOException {
+        TileType[] types = readTypes(typesFileName);
+        URL url = ImageSize.resolve(gridFileName);
+        if (url == null) throw new IOException("No such file : " + gridFileName);
+
+        short[] ids = new short[4096];
+        int count = 0;
+        int columns = -1;
+        int rowStart = 0;
+        try (InputStream in = new BufferedInputStream(url.openStream())) {
+            // The grid is parsed byte per byte, so that no String is created for the cells.
+            int value = -1;
+            for (int read = in.read(); ; read = in.read()) {
+                if (read >= '0' && read <= '9') {
+                    value = (value < 0 ? 0 : value * 10) + read - '0';
+                    if (value >= types.length) throw new IOException(gridFileName + " : no tile type for ID " + value);
+                    continue;
+                }
+                if (value >= 0) {
+                    if (count == ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+                    ids[count++] = (short) value;
+                    value = -1;
+                }
+                if (read == '\n' || read < 0) {
+                    if (count > rowStart) {
+                        if (columns < 0) columns = count - rowStart;
+                        else if (count - rowStart != columns)
+                            throw new IOException(gridFileName + " : row " + (rowStart / columns + 1) + " has " + (count - rowStart) + " cells instead of " + columns);
+                        rowStart = count;
+                    }
+                    if (read < 0) break;
+                } else if (read != ' ' && read != '\t' && read != '\r' && read != ',') {
+                    throw new IOException(gridFileName + " : unexpected character '" + (char) read + "'");
+                }
+            }
+        }
+        if (columns < 0) return new TileMap(0, 0, types, x, y, null, 0, 0);
+
+        TileMap map = new TileMap(columns, count / columns, types, x, y, null, 0, 0);
+        for (int regionRow = 0; regionRow < map.regionRows; regionRow++) {
+            for (int regionColumn = 0; regionColumn < map.regionColumns; regionColumn++) {
+                short[] region = emptyRegion.clone();
+                int width = Math.min(regionTiles, columns - regionColumn * regionTiles);
+                int height = Math.min(regionTiles, map.rows - regionRow * regionTiles);
+                for (int j = 0; j < height; j++)
+                    System.arraycopy(ids, (regionRow * regionTiles + j) * columns + regionColumn * regionTiles, region, j * regionTiles, width);
+                map.hold(regionRow * map.regionColumns + regionColumn, region);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Opens a grid streamed from a RegionFile, and its tile-type table from the resources. No region is read before the first call to stream.
+     * @param regionFileName directory and name of the RegionFile.
+     * @param typesFileName directory and name of the tile-type table's file.
+     * @param x X-axis world coordinate of the grid's top left corner.
+     * @param y Y-axis world coordinate of the grid's top left corner.
+     * @param loadRadius distance in regions from the Hero's region under which the regions are read.
+     * @param unloadRadius distance in regions from the Hero's region beyond which the regions are released, at least the load radius.
+     * @return the opened TileMap.
+     * @throws IOException if a file can't be read.
+     * @see #stream(double, double, double, double)
+     */
+    public static TileMap open(String regionFileName, String typesFileName, int x, int y, int loadRadius, int unloadRadius) throws IOException {
+        TileType[] types = readTypes(typesFileName);
+        RegionFile file = RegionFile.open(regionFileName);
+        return new TileMap(file.getColumns(), file.getRows(), types, x, y, file, Math.max(0, loadRadius), unloadRadius);
+    }
+
+    /**
+     * Streams the regions around the Hero : the regions read in the background are made available,
+     * the regions within the load radius are requested, and the regions beyond the unload radius are released.
+     * The regions under the provided rectangle, widened by a tile, are read right away if they aren't available yet,
+     * so that the collisions are never checked against a missing region. It does nothing if the whole grid is held in memory.
+     * @param x X-axis world coordinate of the Hero's hit box.
+     * @param y Y-axis world coordinate of the Hero's hit box.
+     * @param width width of the Hero's hit box.
+     * @param height height of the Hero's hit box.
+     */
+    public void stream(double x, double y, double width, double height) {
+        if (file == null) return;
+        // Backwards, so that a removed reading is replaced by a reading already checked.
+        for (int i = pendingCount - 1; i >= 0; i--) {
+            int index = pendingIndexes[i];
+            if (pendingRegions[index].isDone()) putRegion(index, removePending(i));
+        }
+
+        int column = Math.floorDiv(columnAt(x + width / 2), regionTiles);
+        int row = Math.floorDiv(rowAt(y + height / 2), regionTiles);
+        // The regions held and requested only depend on the Hero's region, so that they are only updated once the Hero enters another region.
+        if (column != centerColumn || row != centerRow) {
+            centerColumn = column;
+            centerRow = row;
+            release();
+            request();
+        }
+
+        int firstColumn = Math.max(0, Math.floorDiv(columnAt(x - GameScene.tileSize), regionTiles));
+        int lastColumn = Math.min(regionColumns - 1, Math.floorDiv(columnAt(x + width + GameScene.tileSize), regionTiles));
+        int firstRow = Math.max(0, Math.floorDiv(rowAt(y - GameScene.tileSize), regionTiles));
+        int lastRow = Math.min(regionRows - 1, Math.floorDiv(rowAt(y + height + GameScene.tileSize), regionTiles));
+        for (int regionRow = firstRow; regionRow <= lastRow; regionRow++) {
+            for (int regionColumn = firstColumn; regionColumn <= lastColumn; regionColumn++) {
+                int index = regionRow * regionColumns + regionColumn;
+                if (regions[index] != null) continue;
+                if (pendingRegions[index] != null) {
+                    for (int i = 0; i < pendingCount; i++) {
+                        if (pendingIndexes[i] != index) continue;
+                        putRegion(index, removePending(i));
+                        break;
+                    }
+                    continue;
+                }
+                try {
+                    readRegions++;
+                    short[] region = file.read(regionColumn, regionRow);
+                    hold(index, region != null ? region : emptyRegion);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    hold(index, emptyRegion);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the regions held and cancels the readings of the regions beyond the unload radius from the Hero's region.
+     */
+    private void release() {
+        for (int i = heldCount - 1; i >= 0; i--) {
+            int index = heldRegions[i];
+            if (distance(index) <= unloadRadius) continue;
+            regions[index] = null;
+            heldRegions[i] = heldRegions[--heldCount];
+            if (index == lastIndex) {
+                lastIndex = -1;
+                lastRegion = null;
+            }
+        }
+        for (int i = pendingCount - 1; i >= 0; i--)
+            if (distance(pendingIndexes[i]) > unloadRadius) removePending(i).cancel(false);
+    }
+
+    /**
+     * Requests the reading in the background of the regions within the load radius from the Hero's region, unless they are held or being read.
+     */
+    private void request() {
+        for (int regionRow = Math.max(0, centerRow - loadRadius); regionRow <= Math.min(regionRows - 1, centerRow + loadRadius); regionRow++) {
+            for (int regionColumn = Math.max(0, centerColumn - loadRadius); regionColumn <= Math.min(regionColumns - 1, centerColumn + loadRadius); regionColumn++) {
+                int index = regionRow * regionColumns + regionColumn;
+                if (regions[index] != null || pendingRegions[index] != null) continue;
+                int column = regionColumn, row = regionRow;
+                pendingRegions[index] = regionLoader.submit(() -> file.read(column, row));
+                pendingIndexes[pendingCount++] = index;
+            }
+        }
+    }
+
+    /**
+     * Removes a reading from the regions being read in the background.
+     * @param i position of the reading's region in pendingIndexes. The last reading takes its place.
+     * @return the removed reading.
+     */
+    private Future<?> removePending(int i) {
+        int index = pendingIndexes[i];
+        Future<?> pending = pendingRegions[index];
+        pendingRegions[index] = null;
+        pendingIndexes[i] = pendingIndexes[--pendingCount];
+        return pending;
+    }
+
+    /**
+     * Holds a region in memory.
+     */
+    private void hold(int index, short[] region) {
+        regions[index] = region;
+        heldRegions[heldCount++] = index;
+    }
+
+    /**
+     * Waits for a region read in the background and holds it in memory. A region that can't be read is held as an empty region.
+     */
+    private void putRegion(int index, Future<?> pending) {
+        boolean interrupted = false;
+        short[] region = null;
+        while (true) {
+            try {
+                region = (short[]) pending.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                break;
+            } catch (CancellationException e) {
+                break;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        readRegions++;
+        hold(index, region != null ? region : emptyRegion);
+    }
+
+    /**
+     * Releases the streamed regions and closes the RegionFile. The regions of a grid held in memory are kept.
+     */
+    public void close() {
+        if (file == null) return;
+        for (int i = 0; i < pendingCount; i++)
+            pendingRegions[pendingIndexes[i]].cancel(false);
+        Arrays.fill(pendingRegions, null);
+        pendingCount = 0;
+        Arrays.fill(regions, null);
+        heldCount = 0;
+        centerColumn = Integer.MIN_VALUE;
+        centerRow = Integer.MIN_VALUE;
+        lastIndex = -1;
+        lastRegion = null;
+        try {
+            file.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads a tile-type table.
+     * @return the tile types, by ID.
+     */
+    private static TileType[] readTypes(String typesFileName) throws IOException {
+        URL url = ImageSize.resolve(typesFileName);
+        if (url == null) throw new IOException("No such file : " + typesFileName);
+        ArrayList<TileType> types = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                String[] fields = line.split(",");
+                boolean solid = false, deadly = false, empty = false;
+                for (int i = 1; i < fields.length; i++) {
+                    switch (fields[i].trim()) {
+                        case "solid" -> solid = true;
+                        case "deadly" -> deadly = true;
+                        case "empty" -> empty = true;
+                        default -> throw new IOException(typesFileName + " : unknown flag '" + fields[i].trim() + "'");
+                    }
+                }
+                types.add(new TileType(types.size(), spriteDirectory + fields[0].trim(), solid, deadly, empty));
+            }
+        }
+        if (types.size() > Short.MAX_VALUE) throw new IOException(typesFileName + " : too many tile types");
+        return types.toArray(new TileType[0]);
+    }
+
+    /**
+     * @param column column of the cell.
+     * @param row row of the cell.
+     * @return the cell's type, or null if the cell is outside the grid or empty.
+     */
+    public TileType getType(int column, int row) {
+        int id = getId(column, row);
+        if (id < 0) return null;
+        TileType type = types[id];
+        return type.isEmpty() ? null : type;
+    }
+
+    /**
+     * @param column column of the cell.
+     * @param row row of the cell.
+     * @return the cell's ID, or -1 if the cell is outside the grid, if it has no tile, or if its region isn't held in memory.
+     */
+    public int getId(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) return -1;
+        int index = (row / regionTiles) * regionColumns + column / regionTiles;
+        if (index != lastIndex) {
+            short[] region = regions[index];
+            if (region == null) return -1;
+            lastIndex = index;
+            lastRegion = region;
+        }
+        return lastRegion[(row % regionTiles) * regionTiles + column % regionTiles];
+    }
+
+    /**
+     * @param column column of the cell.
+     * @param row row of the cell.
+     * @return true if the cell's region is held in memory, or if the cell is outside the grid.
+     */
+    public boolean isLoaded(int column, int row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) return true;
+        return regions[(row / regionTiles) * regionColumns + column / regionTiles] != null;
+    }
+
+    /**
+     * @param worldX X-axis world coordinate.
+     * @return the column holding this coordinate, possibly outside the grid.
+     */
+    public int columnAt(double worldX) {
+        return (int) Math.floor((worldX - x) / GameScene.tileSize);
+    }
+
+    /**
+     * @param worldY Y-axis world coordinate.
+     * @return the row holding this coordinate, possibly outside the grid.
+     */
+    public int rowAt(double worldY) {
+        return (int) Math.floor((worldY - y) / GameScene.tileSize);
+    }
+
+    /**
+     * @param column a column of the grid.
+     * @return the X-axis world coordinate of the column's left edge.
+     */
+    public double getCellX(int column) {
+        return x + (double) column * GameScene.tileSize;
+    }
+
+    /**
+     * @param row a row of the grid.
+     * @return the Y-axis world coordinate of the row's top edge.
+     */
+    public double getCellY(int row) {
+        return y + (double) row * GameScene.tileSize;
+    }
+
+    /**
+     * @return the columns' property value.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the rows' property value.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the x's property value.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the y's property value.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return the tile types, by ID.
+     */
+    public TileType[] getTypes() {
+        return types;
+    }
+
+    /**
+     * @return true if the grid is streamed from a RegionFile.
+     */
+    public boolean isStreamed() {
+        return file != null;
+    }
+
+    /**
+     * @return the number of regions held in memory.
+     */
+    public int getLoadedRegions() {
+        return heldCount;
+    }
+
+    /**
+     * @return the number of regions read from the RegionFile.
+     */
+    public long getReadRegions() {
+        return readRegions;
+    }
+
+    /**
+     * @return the number of bytes of the IDs held in memory.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (int i = 0; i < heldCount; i++)
+            if (regions[heldRegions[i]] != emptyRegion) bytes += (long) regionTiles * regionTiles * 2;
+        return bytes;
+    }
+
+    /**
+     * @return the Chebyshev distance in regions between a region and the Hero's region.
+     */
+    private int distance(int index) {
+        return Math.max(Math.abs(index % regionColumns - centerColumn), Math.abs(index / regionColumns - centerRow));
+    }
+}
@@ -0,0 +1,125 @@
+package tiles;
+
+import scenes.GameScene;
+
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import static java.lang.Integer.signum;
+import static java.lang.Math.abs;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Maps the tile elements' names of the level files to the factories creating their Tile objects.
+ * The level readers only go through this registry, so a new kind of Tile is supported once it is registered.
+ * @see #register(String, boolean, Factory)
+ * @see utilities.LevelReader
+ */
+public final class TileRegistry {
+
+    /**
+     * Registered kinds, by element's name.
+     */
+    private static final HashMap<String, Kind> kinds = new HashMap<>();
+
+    static {
+        register("platform", true, (element, x, y, numberX, numberY) -> new Platform(element.getFileName(), x, y, element.getCollision(), numberX, numberY));
+        register("spike", true, (element, x, y, numberX, numberY) -> new Spike(element.getFileName(), x, y, element.getCollision(), numberX, numberY));
+        register("coin", false, (element, x, y, numberX, numberY) -> new Coin(element.getFileName(), x, y, element.getCollision()));
+        register("npc", false, (element, x, y, numberX, numberY) -> new Npc(element.getFileName(), x, y, element.getCollision()));
+        register("door", false, (element, x, y, numberX, numberY) -> new Door(element.getFileName(), x, y, element.getCollision(), element.getProperty("direction", "")));
+    }
+
+    private TileRegistry() {
+    }
+
+    /**
+     * Registers a kind of Tile. A kind registered again replaces the previous one.
+     * @param name the element's name in the level files.
+     * @param run true if a run of cells is created as a single Tile, false if a Tile is created for each cell.
+     * @param factory creates the Tile objects of an element.
+     */
+    public static void register(String name, boolean run, Factory factory) {
+        synchronized (kinds) {
+            kinds.put(name, new Kind(run, factory));
+        }
+    }
+
+    /**
+     * @param name an element's name.
+     * @return true if a kind of Tile is registered for this name.
+     */
+    public static boolean isRegistered(String name) {
+        synchronized (kinds) {
+            return kinds.containsKey(name);
+        }
+    }
+
+    /**
+     * Creates the Tile objects described by an element : a single Tile for the kinds created by run, or one Tile per cell otherwise.
+     * An element of an unknown kind, or without any cell, creates nothing.
+     * @param element the element.
+     * @param result called with each created Tile.
+     */
+    public static void create(TileElement element, Consumer<Tile> result) {
+        Kind kind;
+        synchronized (kinds) {
+            kind = kinds.get(element.getKind());
+        }
+        int numberX = element.getNumberX();
+        int numberY = element.getNumberY();
+        if (kind == null || numberX == 0 || numberY == 0) return;
+
+        if (kind.run) {
+            result.accept(kind.factory.create(element, element.getX(), element.getY(), numberX, numberY));
+            return;
+        }
+        for (int i = 0; i < abs(numberX); i++) {
+            for (int j = 0; j < abs(numberY); j++) {
+                int x = element.getX() + signum(numberX) * i * GameScene.tileSize;
+                int y = element.getY() + signum(numberY) * j * GameScene.tileSize;
+                result.accept(kind.factory.create(element, x, y, 1, 1));
+            }
+        }
+    }
+
+    /**
+     * Creates a Tile from an element of the level files.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * @param element the element, whose properties shouldn't be kept as the element may be reused.
+         * @param x X-axis coordinate of the Tile.
+         * @param y Y-axis coordinate of the Tile.
+         * @param numberX number of cells along the X-axis, 1 for the kinds created per cell.
+         * @param numberY number of cells along the Y-axis, 1 for the kinds created per cell.
+         * @return the created Tile.
+         */
+        Tile create(TileElement element, int x, int y, int numberX, int numberY);
+    }
+
+    /**
+     * A registered kind of Tile.
+     */
+    private static final class Kind {
+        /**
+         * Whether a run of cells is created as a single Tile.
+         */
+        private final boolean run;
+        /**
+         * Creates the Tile objects.
+         */
+        private final Factory factory;
+
+        private Kind(boolean run, Factory factory) {
+            this.run = run;
+            this.factory = factory;
+        }
+    }
+}
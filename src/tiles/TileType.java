@@ -0,0 +1,98 @@
+package tiles;
+
+import scenes.GameScene;
+import utilities.TextureAtlas;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Type of the cells of a TileMap : their sprite and how the Hero interacts with them.
+ * The types are read from a tile-type table, one type per line, whose line number (from 0) is the type's ID.
+ * @see TileMap
+ */
+public final class TileType {
+
+    /**
+     * ID of the type, as written in the TileMap's grid.
+     */
+    private final int id;
+    /**
+     * Directory and name of the cells' image.
+     */
+    private final String fileName;
+    /**
+     * Whether the Hero collides with the cells, as with a Platform.
+     */
+    private final boolean solid;
+    /**
+     * Whether the Hero dies when touching the cells, as with a Spike.
+     */
+    private final boolean deadly;
+    /**
+     * Whether the cells are neither displayed nor checked for collisions.
+     */
+    private final boolean empty;
+
+    /**
+     * Creates a TileType object.
+     * @param id ID of the type.
+     * @param fileName directory and name of the cells' image.
+     * @param solid whether the Hero collides with the cells.
+     * @param deadly whether the Hero dies when touching the cells.
+     * @param empty whether the cells are neither displayed nor checked for collisions.
+     */
+    public TileType(int id, String fileName, boolean solid, boolean deadly, boolean empty) {
+        this.id = id;
+        this.fileName = fileName;
+        this.solid = solid;
+        this.deadly = deadly;
+        this.empty = empty;
+    }
+
+    /**
+     * @return the id's property value.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the fileName's property value.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return the name of the type's sprite, displayed at the tiles' size, used as its region's name in a TextureAtlas.
+     * @see TextureAtlas#regionName(String, double, double)
+     */
+    public String getRegionName() {
+        return TextureAtlas.regionName(fileName, GameScene.tileSize, GameScene.tileSize);
+    }
+
+    /**
+     * @return the solid's property value.
+     */
+    public boolean isSolid() {
+        return solid;
+    }
+
+    /**
+     * @return the deadly's property value.
+     */
+    public boolean isDeadly() {
+        return deadly;
+    }
+
+    /**
+     * @return the empty's property value.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+}
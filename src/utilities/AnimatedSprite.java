@@ -1,10 +1,9 @@
 package utilities;
 
-import javafx.animation.AnimationTimer;
-import javafx.geometry.Rectangle2D;
-import javafx.scene.image.Image;
+import entities.Attitude;
 import javafx.scene.image.ImageView;
-import scenes.GameScene;
+
+import java.util.EnumMap;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -12,156 +11,139 @@ import scenes.GameScene;
  * @date : 23/04/2022
  */
 
+/**
+ * Plays the AnimationClip matching an AnimatedThing's attitude on its ImageView.
+ * Advancing a frame only swaps a precomputed viewport : nothing is decoded nor allocated while the animation runs.
+ * @see AnimationClip
+ */
 public class AnimatedSprite {
 
-    /**
-     * Number of horizontal sprites.
-     */
-    private final int columns;
-
     /**
      * AnimatedSprite's imageView property.
      * @see ImageView
      */
     private final ImageView imageView;
 
+    /**
+     * Clip played for each attitude.
+     * @see AnimationClip
+     */
+    private final EnumMap<Attitude, AnimationClip> clips;
+
     /**
      * AnimatedSprite's scaling property on both X and Y axes.
      */
     private final double scale;
 
     /**
-     * Index of the actual sprite shown.
+     * Index of the actual frame shown.
      */
     private int index;
 
+    /**
+     * Time in seconds the actual frame has been shown.
+     */
+    private double frameTime;
+
     /**
      * Animated Object's attitude property.
      */
-    private String attitude = "idle";
+    private Attitude attitude;
+
+    /**
+     * Clip matching the actual attitude.
+     */
+    private AnimationClip clip;
 
     /**
-     * Create the sprite Animation for an AnimatedThing's imageView
-     * @param imageView imageView of the selected sprite from entities.AnimatedThing's spriteSheet
-     * @param columns   number of sprites
-     * @param index     index of the actual sprite
-     * @param duration  requested elapsedTime between two sprite changes
+     * Task that renders the animation in the FrameScheduler.
+     * @see FrameScheduler
      */
+    private final FrameScheduler.Task animation;
 
-    public AnimatedSprite(ImageView imageView, double duration, int columns, int index, double scale) {
-        this.index = index;
-        this.columns = columns;
+    /**
+     * Create the sprite Animation for an AnimatedThing's imageView, beginning with the IDLE attitude.
+     * The animation is rendered by the FrameScheduler, only while the imageView belongs to the active Scene.
+     * @param imageView imageView on which the clips are played.
+     * @param clips clip played for each attitude.
+     * @param scale sets the dimensions' scale of the sprite.
+     */
+    public AnimatedSprite(ImageView imageView, EnumMap<Attitude, AnimationClip> clips, double scale) {
         this.imageView = imageView;
+        this.clips = clips;
         this.scale = scale;
+        setAttitude(Attitude.IDLE);
 
-        LongValue lastNanoTime = new LongValue(System.nanoTime());
+        animation = FrameScheduler.register(imageView, FrameScheduler.animationPriority, 0, (now, elapsedTime) -> step(elapsedTime));
+    }
+
+    /**
+     * @return the animation's property value.
+     */
+    public FrameScheduler.Task getAnimation() {
+        return animation;
+    }
 
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long l) {
-                double elapsedTime = (l - lastNanoTime.value) / 1000000000.0;
-                if (elapsedTime >= duration) {
-                    lastNanoTime.value = l;
-                    animatedRender();
-                }
-            }
-        };
-        timer.start();
+    /**
+     * Pauses or resumes the animation.
+     * @param paused the value to set.
+     */
+    public void setPaused(boolean paused) {
+        animation.setPaused(paused);
+    }
 
+    /**
+     * Stops the animation and releases the displayed image.
+     */
+    public void dispose() {
+        animation.cancel();
+        imageView.setImage(null);
     }
 
     /**
-     * Select render type depending on the actual attitude
+     * Advances the actual clip by the elapsed time, frame by frame.
+     * @param elapsedTime elapsed time in seconds since the last step.
      */
-    public void animatedRender() {
-        switch (attitude) {
-            case "run_right" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Run.png", GameScene.tileSize * 12, GameScene.tileSize, true, true));
-                if (index < columns) {
-                    imageView.setViewport(new Rectangle2D(index * GameScene.tileSize, 0, GameScene.tileSize, GameScene.tileSize));
-                    imageView.setScaleX(scale);
-                    imageView.setScaleY(scale);
-                    index++;
-                } else index = 0;
-            }
-
-            case "run_left" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Run.png", GameScene.tileSize * 12, GameScene.tileSize, true, true));
-                if (index < columns) {
-                    imageView.setViewport(new Rectangle2D(index * GameScene.tileSize, 0, GameScene.tileSize, GameScene.tileSize));
-                    imageView.setScaleX(-scale);
-                    imageView.setScaleY(scale);
-                    index++;
-                } else index = 0;
-            }
-
-            case "jump" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Jump.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-            }
-
-            case "fall" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Fall.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-            }
-
-            case "jump_left" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Jump.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-                imageView.setScaleX(-scale);
-                imageView.setScaleY(scale);
-            }
-
-            case "jump_right" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Jump.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-                imageView.setScaleX(scale);
-                imageView.setScaleY(scale);
-            }
-
-            case "fall_left" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Fall.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-                imageView.setScaleX(-scale);
-                imageView.setScaleY(scale);
-            }
-
-            case "fall_right" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Fall.png", GameScene.tileSize, GameScene.tileSize, true, true));
-                imageView.setViewport(new Rectangle2D(0, 0, GameScene.tileSize, GameScene.tileSize));
-                imageView.setScaleX(scale);
-                imageView.setScaleY(scale);
-            }
-
-            case "dead" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Hit.png", GameScene.tileSize * 7, GameScene.tileSize, true, true));
-                if (index < 7) {
-                    imageView.setViewport(new Rectangle2D(index * GameScene.tileSize, 0, GameScene.tileSize, GameScene.tileSize));
-                    index++;
-                } else {
-                    index = 0;
-                    attitude = "idle";
-                }
-            }
-
-            case "idle" -> {
-                imageView.setImage(new Image("/images/Tiles_32x32/Virtual Guy/Idle.png", GameScene.tileSize * 11, GameScene.tileSize, true, true));
-                if (index < columns) {
-                    imageView.setViewport(new Rectangle2D(index * GameScene.tileSize, 0, GameScene.tileSize, GameScene.tileSize));
-                    if (imageView.getScaleX() > 0) imageView.setScaleX(scale);
-                    else imageView.setScaleX(-scale);
-                    imageView.setScaleY(scale);
-                    index++;
-                } else index = 0;
-            }
+    public void step(double elapsedTime) {
+        frameTime += elapsedTime;
+        int frame = index;
+        while (frameTime >= clip.getFrameDuration()) {
+            frameTime -= clip.getFrameDuration();
+            if (frame + 1 < clip.getFrameCount()) frame++;
+            else if (clip.isLooping()) frame = 0;
+            else frameTime = 0;
+        }
+        if (frame != index) {
+            index = frame;
+            imageView.setViewport(clip.getViewport(index));
         }
     }
 
     /**
-     * Sets the attitude's property value.
+     * Sets the attitude's property value. When it changes, the matching clip is played from its first frame.
      * @param attitude attitude value to overwrite to the actual one.
      */
-    public void setAttitude(String attitude) {
+    public void setAttitude(Attitude attitude) {
+        if (attitude == this.attitude) return;
         this.attitude = attitude;
+        clip = clips.get(attitude);
+        index = 0;
+        frameTime = 0;
+
+        imageView.setImage(clip.getImage());
+        imageView.setViewport(clip.getViewport(0));
+        switch (clip.getMirroring()) {
+            case RIGHT -> imageView.setScaleX(scale);
+            case LEFT -> imageView.setScaleX(-scale);
+            case KEEP -> imageView.setScaleX(imageView.getScaleX() < 0 ? -scale : scale);
+        }
+        imageView.setScaleY(scale);
+    }
+
+    /**
+     * @return the attitude's property value.
+     */
+    public Attitude getAttitude() {
+        return attitude;
     }
 }
@@ -0,0 +1,176 @@
+package utilities;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import scenes.GameScene;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * An animation read from a horizontal sprite sheet : the sheet is decoded once, and the viewport of every frame is computed once,
+ * so that playing the animation only swaps viewports.
+ * The clip's description doesn't require any JavaFX toolkit : the sheet is only decoded once the clip is displayed.
+ * @see AnimatedSprite
+ */
+public class AnimationClip {
+
+    /**
+     * Directory and name of the sprite sheet.
+     */
+    private final String fileName;
+    /**
+     * Viewport of each frame inside the scaled sprite sheet.
+     */
+    private final Rectangle2D[] viewports;
+    /**
+     * Duration of a frame in seconds.
+     */
+    private final double frameDuration;
+    /**
+     * Whether the animation starts again once its last frame is shown. Otherwise, the last frame stays displayed.
+     */
+    private final boolean looping;
+    /**
+     * Orientation of the frames.
+     */
+    private final Mirroring mirroring;
+    /**
+     * The decoded sprite sheet, or the atlas image that holds it once the clip is packed. It is shared by every sprite playing this clip.
+     * @see ImageCache
+     * @see #pack(Collection)
+     */
+    private volatile Image image;
+    /**
+     * Region of the sprite sheet inside a TextureAtlas, or null while the clip isn't packed.
+     * @see TextureAtlas
+     */
+    private TextureAtlas.Region region;
+
+    /**
+     * Creates a clip from a horizontal sprite sheet made of square frames, scaled to the GameScene's tileSize.
+     * @param fileName directory and name of the sprite sheet.
+     * @param frames number of frames of the sprite sheet.
+     * @param frameDuration duration of a frame in seconds.
+     * @param looping whether the animation starts again once its last frame is shown.
+     * @param mirroring orientation of the frames.
+     */
+    public AnimationClip(String fileName, int frames, double frameDuration, boolean looping, Mirroring mirroring) {
+        this.fileName = fileName;
+        this.frameDuration = frameDuration;
+        this.looping = looping;
+        this.mirroring = mirroring;
+        viewports = new Rectangle2D[frames];
+        for (int i = 0; i < frames; i++)
+            viewports[i] = new Rectangle2D(i * GameScene.tileSize, 0, GameScene.tileSize, GameScene.tileSize);
+    }
+
+    /**
+     * Packs the sprite sheets of several clips into a single TextureAtlas, so that they are all displayed from the same image.
+     * Each clip then references its sheet's region by name, and its frames' viewports are moved inside the region.
+     * The clips already packed are ignored.
+     * @param clips the clips to pack.
+     * @see TextureAtlas
+     */
+    public static synchronized void pack(Collection<AnimationClip> clips) {
+        TextureAtlas.Builder builder = new TextureAtlas.Builder();
+        ArrayList<AnimationClip> packed = new ArrayList<>();
+        for (AnimationClip clip : clips) {
+            if (clip.region != null) continue;
+            builder.add(clip.getRegionName(), ImageCache.acquire(clip.fileName, clip.getSheetWidth(), GameScene.tileSize, true, true));
+            packed.add(clip);
+        }
+        if (packed.isEmpty()) return;
+
+        TextureAtlas atlas = builder.build();
+        for (AnimationClip clip : packed) {
+            ImageCache.release(clip.fileName, clip.getSheetWidth(), GameScene.tileSize, true, true);
+            TextureAtlas.Region sheet = atlas.getRegion(clip.getRegionName());
+            if (sheet == null) continue;
+            for (int i = 0; i < clip.viewports.length; i++)
+                clip.viewports[i] = new Rectangle2D(sheet.getX() + i * GameScene.tileSize, sheet.getY(), GameScene.tileSize, GameScene.tileSize);
+            clip.region = sheet;
+            clip.image = sheet.getImage();
+        }
+    }
+
+    /**
+     * @return the name of the clip's sprite sheet, used as its region's name in a TextureAtlas.
+     */
+    public String getRegionName() {
+        return TextureAtlas.regionName(fileName, getSheetWidth(), GameScene.tileSize);
+    }
+
+    /**
+     * Decodes the sprite sheet on its first call, unless the clip was packed in a TextureAtlas. The sheet stays in the ImageCache for the application's lifetime.
+     * @return the image's property value.
+     */
+    public Image getImage() {
+        if (image == null) {
+            synchronized (this) {
+                if (image == null)
+                    image = ImageCache.acquire(fileName, getSheetWidth(), GameScene.tileSize, true, true);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * @param index the frame's index.
+     * @return the frame's viewport inside the sprite sheet.
+     */
+    public Rectangle2D getViewport(int index) {
+        return viewports[index];
+    }
+
+    /**
+     * @return the number of frames.
+     */
+    public int getFrameCount() {
+        return viewports.length;
+    }
+
+    /**
+     * @return the scaled sprite sheet's width.
+     */
+    private double getSheetWidth() {
+        return GameScene.tileSize * viewports.length;
+    }
+
+    /**
+     * @return the frameDuration's property value.
+     */
+    public double getFrameDuration() {
+        return frameDuration;
+    }
+
+    /**
+     * @return the looping's property value.
+     */
+    public boolean isLooping() {
+        return looping;
+    }
+
+    /**
+     * @return the mirroring's property value.
+     */
+    public Mirroring getMirroring() {
+        return mirroring;
+    }
+
+    /**
+     * Orientation of a clip's frames.
+     * <ul>
+     * <li>RIGHT: the frames are displayed as drawn in the sprite sheet.
+     * <li>LEFT: the frames are mirrored horizontally.
+     * <li>KEEP: the orientation of the previous clip is kept.
+     * </ul>
+     */
+    public enum Mirroring {RIGHT, LEFT, KEEP}
+}
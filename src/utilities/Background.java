@@ -1,8 +1,9 @@
 package utilities;
 
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import scenes.GameScene;
+import javafx.scene.Group;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -10,60 +11,63 @@ import scenes.GameScene;
  * @date : 23/04/2022
  */
 
+/**
+ * GameScene's background, made of one or several layers drawn from back to front.
+ * Each layer is streamed in blocks around the camera's view and scrolls with its own scroll factor.
+ * @see BackgroundLayer
+ */
 public final class Background {
 
     /**
-     * BackGround's ImageView property to be displayed.
-     */
-    private final ImageView backGroundImage;
-
-    /**
-     * GameScene in which the BackGround is displayed.
-     * @see GameScene
+     * BackGround's layers, from back to front.
      */
-    private final GameScene gameScene;
+    private final ArrayList<BackgroundLayer> layers;
 
     /**
-     * X-axis coordinate.
+     * Creates a BackGround from its layers.
+     * @param layers the layers, from back to front.
+     * @see LevelReader#getBackgroundLayers()
      */
-    private final double x;
+    public Background(List<BackgroundLayer> layers) {
+        this.layers = new ArrayList<>(layers);
+    }
 
     /**
-     * Y-axis coordinate.
+     * Adds the layers in the GameScene's world layer, behind the nodes added afterwards.
+     * @param root the GameScene's world layer.
      */
-    private final double y;
-
+    public void attach(Group root) {
+        for (BackgroundLayer layer : layers)
+            layer.attach(root);
+    }
 
     /**
-     * Creates a BackGround image from a file to be displayed at X and Y coordinates of the GameScene.
-     * @param x X-axis coordinate.
-     * @param y Y-axis coordinate.
-     * @param fileName ImageView's file directory and name.
-     * @param gameScene GameScene to be displayed.
+     * Updates the layers' scrolling and the blocks displayed around the camera's view.
+     * @param camera the GameScene's camera.
+     * @param view bounds of the camera's view relative to the camera's position, stored as (x, y, width, height).
+     * @see manager.TileManager#getView()
      */
-    public Background(double x, double y, String fileName, GameScene gameScene) {
-        this.backGroundImage = new ImageView(new Image(fileName, gameScene.reader.getBackGroundWidth(), gameScene.reader.getBackGroundHeight(), false, false));
-        this.backGroundImage.setX(x);
-        this.backGroundImage.setY(y);
-        this.gameScene = gameScene;
-        this.x = x;
-        this.y = y;
+    public void render(Camera camera, double[] view) {
+        for (BackgroundLayer layer : layers)
+            layer.render(camera.getRenderX(), camera.getRenderY(), view);
     }
 
     /**
-     * Renders the BackGround's display based on the GameScene's camera reference.
-     * @see Camera
+     * Releases the BackGround's blocks.
      */
-    public void render() {
-        backGroundImage.setX(x - gameScene.getSceneCamera().getWorldX());
-        backGroundImage.setY(y - gameScene.getSceneCamera().getWorldY());
+    public void dispose() {
+        for (BackgroundLayer layer : layers)
+            layer.dispose();
     }
 
     /**
-     * @return the imageView's property value.
+     * @return the number of bytes held by the layers' decoded blocks.
      */
-    public ImageView getImageView() {
-        return backGroundImage;
+    public long getBytes() {
+        long bytes = 0;
+        for (BackgroundLayer layer : layers)
+            bytes += layer.getBytes();
+        return bytes;
     }
 
 }
@@ -0,0 +1,464 @@
+package utilities;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * A background image displayed in blocks : only the blocks around the camera's view are decoded and kept,
+ * so that the memory used by a background depends on the screen's size rather than on the image's size.
+ * Each block is decoded from its region of the source file, subsampled to about its displayed size.
+ * A layer can repeat itself horizontally and/or vertically, and scrolls with a scroll factor relative to the world :
+ * 1 scrolls with the tiles, 0 stays fixed on the screen, and values in between give a parallax effect.
+ * The layer's description doesn't require any JavaFX toolkit, only its display does.
+ * @see Background
+ */
+public class BackgroundLayer {
+
+    /**
+     * Displayed size in pixels of a block's side.
+     */
+    public static final int blockSize = 512;
+    /**
+     * Distance around the camera's view within which the blocks are decoded ahead of time.
+     */
+    public static final int margin = blockSize / 4;
+
+    /**
+     * Worker thread on which the blocks are decoded. It doesn't prevent the application from exiting.
+     */
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "background-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // The blocks are decoded in memory, without temporary files.
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * Directory and name of the source image.
+     */
+    private final String fileName;
+    /**
+     * X-axis world coordinate of the layer.
+     */
+    private final double x;
+    /**
+     * Y-axis world coordinate of the layer.
+     */
+    private final double y;
+    /**
+     * Displayed width of the image.
+     */
+    private final double width;
+    /**
+     * Displayed height of the image.
+     */
+    private final double height;
+    /**
+     * Part of the camera's movement applied to the layer.
+     */
+    private final double scrollFactor;
+    /**
+     * Whether the image is repeated horizontally.
+     */
+    private final boolean repeatX;
+    /**
+     * Whether the image is repeated vertically.
+     */
+    private final boolean repeatY;
+    /**
+     * Number of blocks on a row of the image.
+     */
+    private final int columns;
+    /**
+     * Number of blocks on a column of the image.
+     */
+    private final int rows;
+    /**
+     * Width and height of the source image, read from its header on the first decoding.
+     * @see ImageSize#read(String)
+     */
+    private volatile int[] sourceSize;
+
+    /**
+     * Decoded blocks of the image, by block.
+     */
+    private final HashMap<Long, Image> blocks = new HashMap<>();
+    /**
+     * Blocks being decoded.
+     */
+    private final HashSet<Long> pending = new HashSet<>();
+    /**
+     * Displayed blocks, by position. A repeated block has several positions.
+     */
+    private final HashMap<Long, ImageView> views = new HashMap<>();
+    /**
+     * Positions of the blocks around the camera's view during the actual frame.
+     */
+    private final HashSet<Long> visible = new HashSet<>();
+    /**
+     * Group holding the displayed blocks. It is created once the layer is attached.
+     */
+    private Group group;
+    /**
+     * Whether the layer was disposed.
+     */
+    private boolean disposed;
+
+    /**
+     * Creates a BackgroundLayer displayed at X and Y world coordinates with the provided size.
+     * @param fileName directory and name of the source image.
+     * @param x X-axis world coordinate.
+     * @param y Y-axis world coordinate.
+     * @param width displayed width of the image.
+     * @param height displayed height of the image.
+     * @param scrollFactor part of the camera's movement applied to the layer.
+     * @param repeatX whether the image is repeated horizontally.
+     * @param repeatY whether the image is repeated vertically.
+     */
+    public BackgroundLayer(String fileName, double x, double y, double width, double height, double scrollFactor, boolean repeatX, boolean repeatY) {
+        this.fileName = fileName;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.scrollFactor = scrollFactor;
+        this.repeatX = repeatX;
+        this.repeatY = repeatY;
+        columns = Math.max(1, (int) Math.ceil(width / blockSize));
+        rows = Math.max(1, (int) Math.ceil(height / blockSize));
+    }
+
+    /**
+     * Adds the layer's Group in the GameScene's world layer.
+     * @param root the GameScene's world layer.
+     */
+    public void attach(Group root) {
+        group = new Group();
+        root.getChildren().add(group);
+    }
+
+    /**
+     * Decodes on the calling thread the blocks around the camera's view. It is called before the layer is displayed,
+     * usually by a worker thread loading the scene, so that the first frame doesn't miss any block.
+     * @param cameraX X-axis world coordinate of the camera.
+     * @param cameraY Y-axis world coordinate of the camera.
+     * @param view bounds of the camera's view relative to the camera's position, stored as (x, y, width, height).
+     */
+    public void preload(double cameraX, double cameraY, double[] view) {
+        collectVisible(cameraX, cameraY, view);
+        for (long position : visible) {
+            long block = blockOf(position);
+            if (!blocks.containsKey(block)) {
+                Image image = decode(block);
+                if (image != null) blocks.put(block, image);
+            }
+        }
+    }
+
+    /**
+     * Shows the blocks around the camera's view, requests the decoding of the missing ones,
+     * and releases the blocks that left the view.
+     * @param cameraX X-axis world coordinate of the camera.
+     * @param cameraY Y-axis world coordinate of the camera.
+     * @param view bounds of the camera's view relative to the camera's position, stored as (x, y, width, height).
+     */
+    public void render(double cameraX, double cameraY, double[] view) {
+        if (group == null) return;
+        group.setTranslateX(cameraX * (1 - scrollFactor));
+        group.setTranslateY(cameraY * (1 - scrollFactor));
+
+        collectVisible(cameraX, cameraY, view);
+        for (long position : visible) {
+            ImageView blockView = views.get(position);
+            if (blockView == null) {
+                int column = (int) (position >> 32);
+                int row = (int) position;
+                blockView = new ImageView();
+                blockView.setX(x + Math.floorDiv(column, columns) * width + Math.floorMod(column, columns) * blockSize);
+                blockView.setY(y + Math.floorDiv(row, rows) * height + Math.floorMod(row, rows) * blockSize);
+                blockView.setFitWidth(blockWidth(Math.floorMod(column, columns)));
+                blockView.setFitHeight(blockHeight(Math.floorMod(row, rows)));
+                views.put(position, blockView);
+                group.getChildren().add(blockView);
+            }
+            if (blockView.getImage() == null) {
+                long block = blockOf(position);
+                Image image = blocks.get(block);
+                if (image != null) blockView.setImage(image);
+                else request(block);
+            }
+        }
+
+        Iterator<Map.Entry<Long, ImageView>> iterator = views.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, ImageView> entry = iterator.next();
+            if (visible.contains(entry.getKey())) continue;
+            entry.getValue().setImage(null);
+            group.getChildren().remove(entry.getValue());
+            iterator.remove();
+        }
+        if (blocks.size() > views.size()) releaseHiddenBlocks();
+    }
+
+    /**
+     * Releases the layer's blocks and nodes. The blocks still being decoded are dropped once decoded.
+     */
+    public void dispose() {
+        disposed = true;
+        for (ImageView view : views.values())
+            view.setImage(null);
+        views.clear();
+        blocks.clear();
+        if (group != null) group.getChildren().clear();
+    }
+
+    /**
+     * @return the number of bytes held by the decoded blocks.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Image image : blocks.values())
+            bytes += (long) image.getWidth() * (long) image.getHeight() * 4;
+        return bytes;
+    }
+
+    /**
+     * @return the fileName's property value.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return the x's property value.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return the y's property value.
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return the width's property value.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height's property value.
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the scrollFactor's property value.
+     */
+    public double getScrollFactor() {
+        return scrollFactor;
+    }
+
+    /**
+     * @return the repeatX's property value.
+     */
+    public boolean isRepeatX() {
+        return repeatX;
+    }
+
+    /**
+     * @return the repeatY's property value.
+     */
+    public boolean isRepeatY() {
+        return repeatY;
+    }
+
+    /**
+     * @return the number of decoded blocks.
+     */
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Fills the visible set with the positions of the blocks overlapping the camera's view, extended by the margin.
+     * A position is made of the block's column and row, counted from the layer's origin across the repetitions.
+     */
+    private void collectVisible(double cameraX, double cameraY, double[] view) {
+        visible.clear();
+        double left = cameraX * scrollFactor + view[0] - margin;
+        double right = left + view[2] + 2 * margin;
+        double top = cameraY * scrollFactor + view[1] - margin;
+        double bottom = top + view[3] + 2 * margin;
+
+        int firstPeriodX = repeatX ? (int) Math.floor((left - x) / width) : 0;
+        int lastPeriodX = repeatX ? (int) Math.floor((right - x) / width) : 0;
+        int firstPeriodY = repeatY ? (int) Math.floor((top - y) / height) : 0;
+        int lastPeriodY = repeatY ? (int) Math.floor((bottom - y) / height) : 0;
+
+        for (int row = firstPeriodY * rows; row < (lastPeriodY + 1) * rows; row++) {
+            double blockY = y + Math.floorDiv(row, rows) * height + Math.floorMod(row, rows) * blockSize;
+            if (blockY >= bottom || blockY + blockHeight(Math.floorMod(row, rows)) <= top) continue;
+            for (int column = firstPeriodX * columns; column < (lastPeriodX + 1) * columns; column++) {
+                double blockX = x + Math.floorDiv(column, columns) * width + Math.floorMod(column, columns) * blockSize;
+                if (blockX >= right || blockX + blockWidth(Math.floorMod(column, columns)) <= left) continue;
+                visible.add(key(column, row));
+            }
+        }
+    }
+
+    /**
+     * Decodes a block on the worker thread. The block is handed to the JavaFX thread once decoded.
+     */
+    private void request(long block) {
+        if (!pending.add(block)) return;
+        executor.execute(() -> {
+            Image image = decode(block);
+            Platform.runLater(() -> {
+                pending.remove(block);
+                if (!disposed && image != null) blocks.put(block, image);
+            });
+        });
+    }
+
+    /**
+     * Drops the decoded blocks that aren't displayed anymore.
+     */
+    private void releaseHiddenBlocks() {
+        HashSet<Long> shown = new HashSet<>();
+        for (long position : views.keySet())
+            shown.add(blockOf(position));
+        blocks.keySet().retainAll(shown);
+    }
+
+    /**
+     * Loads a block from the DiskImageCache, or decodes it.
+     * @return the block's image, or null if the source image can't be read.
+     * @see DiskImageCache
+     */
+    private Image decode(long block) {
+        int column = (int) (block >> 32);
+        int row = (int) block;
+        return DiskImageCache.load(fileName, "block " + column + "," + row + "|" + width + "x" + height, () -> decode(column, row));
+    }
+
+    /**
+     * Decodes a block from its region of the source image. The region is subsampled while it is read,
+     * then scaled down to the block's displayed size, so that a block never holds more pixels than it displays.
+     * @return the decoded block, or null if the source image can't be read.
+     */
+    private Image decode(int column, int row) {
+        if (sourceSize == null) sourceSize = ImageSize.read(fileName);
+        URL url = ImageSize.resolve(fileName);
+        if (sourceSize == null || url == null) return null;
+
+        double scaleX = sourceSize[0] / width;
+        double scaleY = sourceSize[1] / height;
+        int sourceX = (int) Math.floor(column * blockSize * scaleX);
+        int sourceY = (int) Math.floor(row * blockSize * scaleY);
+        int sourceWidth = Math.min(sourceSize[0] - sourceX, (int) Math.ceil(blockWidth(column) * scaleX));
+        int sourceHeight = Math.min(sourceSize[1] - sourceY, (int) Math.ceil(blockHeight(row) * scaleY));
+        if (sourceWidth <= 0 || sourceHeight <= 0) return null;
+
+        try (InputStream stream = url.openStream(); ImageInputStream input = ImageIO.createImageInputStream(stream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle(sourceX, sourceY, sourceWidth, sourceHeight));
+                param.setSourceSubsampling(Math.max(1, (int) scaleX), Math.max(1, (int) scaleY), 0, 0);
+                return toImage(reader.read(0, param), (int) Math.ceil(blockWidth(column)), (int) Math.ceil(blockHeight(row)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Copies a decoded region into a JavaFX image, scaled down to at most the provided size.
+     */
+    private static Image toImage(BufferedImage region, int maxWidth, int maxHeight) {
+        int width = Math.min(region.getWidth(), maxWidth);
+        int height = Math.min(region.getHeight(), maxHeight);
+        if (width != region.getWidth() || height != region.getHeight()) {
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(region, 0, 0, width, height, null);
+            graphics.dispose();
+            region = scaled;
+        }
+        int[] pixels = region.getRGB(0, 0, width, height, null, 0, width);
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return image;
+    }
+
+    /**
+     * @return the displayed width of a block of the image.
+     */
+    private double blockWidth(int column) {
+        return Math.min(blockSize, width - column * blockSize);
+    }
+
+    /**
+     * @return the displayed height of a block of the image.
+     */
+    private double blockHeight(int row) {
+        return Math.min(blockSize, height - row * blockSize);
+    }
+
+    /**
+     * @return the block displayed at a position, the repetitions sharing the same blocks.
+     */
+    private long blockOf(long position) {
+        return key(Math.floorMod((int) (position >> 32), columns), Math.floorMod((int) position, rows));
+    }
+
+    private static long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+}
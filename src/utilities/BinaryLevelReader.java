@@ -0,0 +1,141 @@
+package utilities;
+
+import tiles.TileElement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Loads a Level or a Room from its compiled .lvl file, read through a memory-mapped file without any text parsing.
+ * The file is made of :
+ * <ul>
+ * <li>a header : magic, version, length and last modification time of the .xml file it was compiled from.
+ * <li>a string table, referenced by index by the rest of the file.
+ * <li>the scene's type and parameters, its room files, its background layers and its TileMap's files.
+ * <li>a tile-type table : kind, image and properties, such as a Door's direction, of each distinct tile.
+ * <li>the packed tile records : type, collision, coordinates and number of cells, on 16 bytes each.
+ * </ul>
+ * @see LevelCompiler
+ * @see LevelReader#open(String, String)
+ */
+public class BinaryLevelReader extends LevelReader {
+
+    /**
+     * Extension of the compiled files.
+     */
+    public static final String extension = ".lvl";
+    /**
+     * First int of every compiled file.
+     */
+    public static final int magic = 0x4C564C00;
+    /**
+     * Version of the compiled files' layout. Files of another version are ignored.
+     */
+    public static final int version = 4;
+    /**
+     * Size in bytes of a tile record.
+     */
+    public static final int tileRecordSize = 16;
+    /**
+     * Loads a compiled file.
+     * @param compiled the compiled file.
+     * @param source the .xml file it was compiled from. The compiled file is rejected if the source file was modified since.
+     * @param type Type of GameScene you try to create. Accepted values: level, room.
+     * @throws IOException if the file can't be read, has another format, is out of date, or doesn't hold a scene of this type.
+     */
+    public BinaryLevelReader(File compiled, File source, String type) throws IOException {
+        try (FileChannel channel = FileChannel.open(compiled.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != magic || buffer.getInt() != version) throw new IOException("unknown format");
+            long sourceLength = buffer.getLong();
+            long sourceModified = buffer.getLong();
+            if (source.isFile() && (source.length() != sourceLength || source.lastModified() != sourceModified))
+                throw new IOException("out of date");
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            if (!type.equals(strings[buffer.getInt()])) throw new IOException("not a " + type);
+            System.out.println("Actual File :\t" + compiled);
+            startPosX = buffer.getDouble();
+            startPosY = buffer.getDouble();
+            speed = buffer.getInt();
+            gravity = buffer.getDouble();
+            keyOrder = buffer.getInt();
+            rotation = buffer.getInt();
+            blink = buffer.get() != 0;
+            renderMode = strings[buffer.getInt()];
+            int image = buffer.getInt();
+            backGroundFileName = image >= 0 ? strings[image] : null;
+            backGroundX = buffer.getDouble();
+            backGroundY = buffer.getDouble();
+            backGroundWidth = buffer.getDouble();
+            backGroundHeight = buffer.getDouble();
+
+            int roomCount = buffer.getInt();
+            for (int i = 0; i < roomCount; i++)
+                roomFiles.add(strings[buffer.getInt()]);
+
+            int layerCount = buffer.getInt();
+            for (int i = 0; i < layerCount; i++) {
+                String fileName = strings[buffer.getInt()];
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double width = buffer.getDouble();
+                double height = buffer.getDouble();
+                double scroll = buffer.getDouble();
+                byte repeat = buffer.get();
+                backgroundLayers.add(new BackgroundLayer(fileName, x, y, width, height, scroll, (repeat & 1) != 0, (repeat & 2) != 0));
+            }
+
+            int tileMap = buffer.getInt();
+            tileMapFileName = tileMap >= 0 ? strings[tileMap] : null;
+            tileTypesFileName = strings[buffer.getInt()];
+            tileMapX = buffer.getInt();
+            tileMapY = buffer.getInt();
+            regionLoadRadius = buffer.getInt();
+            regionUnloadRadius = buffer.getInt();
+
+            TileElement[] types = new TileElement[buffer.getInt()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = new TileElement();
+                types[i].reset(strings[buffer.getInt()]);
+                types[i].setFileName(strings[buffer.getInt()]);
+                int propertyCount = buffer.getShort() & 0xFFFF;
+                for (int j = 0; j < propertyCount; j++)
+                    types[i].setProperty(strings[buffer.getInt()], strings[buffer.getInt()]);
+            }
+
+            int tileCount = buffer.getInt();
+            for (int i = 0; i < tileCount; i++) {
+                TileElement tile = types[buffer.getShort() & 0xFFFF];
+                boolean collision = buffer.get() != 0;
+                buffer.get();
+                int x = buffer.getInt();
+                int y = buffer.getInt();
+                int numberX = buffer.getShort();
+                int numberY = buffer.getShort();
+                tile.setCell(x, y, collision, numberX, numberY);
+                addTile(tile);
+            }
+        } catch (RuntimeException e) {
+            // A truncated or corrupted file reads out of bounds.
+            throw new IOException("corrupted file", e);
+        }
+        loadTileMap();
+    }
+}
@@ -35,6 +35,26 @@ public class Camera {
      */
     private double worldY;
 
+    /**
+     * X-axis coordinate at the end of the previous simulation step.
+     */
+    private double previousX;
+
+    /**
+     * Y-axis coordinate at the end of the previous simulation step.
+     */
+    private double previousY;
+
+    /**
+     * X-axis coordinate used by the actual frame's display.
+     */
+    private double renderX;
+
+    /**
+     * Y-axis coordinate used by the actual frame's display.
+     */
+    private double renderY;
+
     /**
      * Creates a camera with specified dimensions attached to a Hero.
      * @param WIDTH  WIDTH of the camera
@@ -45,10 +65,11 @@ public class Camera {
     public Camera(int WIDTH, int HEIGHT, Hero hero) {
         this.HEIGHT = HEIGHT;
         this.WIDTH = WIDTH;
-        this.worldX = hero.getX() + hero.getHitBox().getWidth() / 2 - this.WIDTH / 2;
-        this.worldY = hero.getY() + hero.getHitBox().getHeight() / 2 - this.HEIGHT / 2;
+        this.worldX = hero.getX() + hero.getHitWidth() / 2 - this.WIDTH / 2;
+        this.worldY = hero.getY() + hero.getHitHeight() / 2 - this.HEIGHT / 2;
         this.hero = hero;
-
+        savePreviousPosition();
+        interpolate(1);
     }
 
     /**
@@ -57,6 +78,7 @@ public class Camera {
      */
 
     public void update(double time) {
+        savePreviousPosition();
         double velocityX = hero.getVelocityX();
         double velocityY = hero.getVelocityY();
         worldX += velocityX * time;
@@ -67,8 +89,26 @@ public class Camera {
      * Recenter the Camera on the attached Hero.
      */
     public void recenterOnHero() {
-        worldX = hero.getX() + hero.getHitBox().getWidth() / 2 - WIDTH / 2;
-        worldY = hero.getY() + hero.getHitBox().getHeight() / 2 - HEIGHT / 2;
+        worldX = hero.getX() + hero.getHitWidth() / 2 - WIDTH / 2;
+        worldY = hero.getY() + hero.getHitHeight() / 2 - HEIGHT / 2;
+        savePreviousPosition();
+    }
+
+    /**
+     * Saves the actual world coordinates as the previous simulation state.
+     */
+    private void savePreviousPosition() {
+        previousX = worldX;
+        previousY = worldY;
+    }
+
+    /**
+     * Computes the coordinates used to display the actual frame by interpolating between the last two simulation steps.
+     * @param alpha progress between the previous and the actual simulation step, from 0 to 1.
+     */
+    public void interpolate(double alpha) {
+        renderX = previousX + (worldX - previousX) * alpha;
+        renderY = previousY + (worldY - previousY) * alpha;
     }
 
     /**
@@ -85,6 +125,20 @@ public class Camera {
         return worldY;
     }
 
+    /**
+     * @return the renderX's property value.
+     */
+    public double getRenderX() {
+        return renderX;
+    }
+
+    /**
+     * @return the renderY's property value.
+     */
+    public double getRenderY() {
+        return renderY;
+    }
+
     @Override
     public String toString() {
         return ("worldX=" + worldX + "," + "worldY=" + worldY);
@@ -1,14 +1,14 @@
 package utilities;
 
+import entities.Entity;
 import entities.Hero;
-import javafx.geometry.Point2D;
-import javafx.scene.media.AudioClip;
-import main.Main;
 import scenes.GameScene;
+import simulation.World;
+import simulation.WorldListener;
 import tiles.*;
 
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.Arrays;
 
 /*
  * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
@@ -19,105 +19,153 @@ import java.util.Objects;
 public class CollisionChecker {
 
     /**
-     * GameScene property where the CollisionChecker belongs to.
-     * @see GameScene
+     * World property where the CollisionChecker belongs to.
+     * @see World
      */
-    private final GameScene gameScene;
+    private final World world;
 
     /**
-     * List of platforms in collision with the Hero.
+     * List of platforms in collision with the Hero, once per cell in collision.
      */
     private final ArrayList<Platform> collisionPlatforms = new ArrayList<>();
 
     /**
-     * Creates a CollisionChecker object in the specified GameScene.
-     * @param gameScene The GameScene this object is attached to.
+     * Index of the cell in collision with the Hero, for each element of collisionPlatforms.
+     * @see Tile#getCellX(int)
      */
-    public CollisionChecker(GameScene gameScene) {
-        this.gameScene = gameScene;
+    private int[] collisionCells = new int[16];
+
+    /**
+     * List of platforms sharing a grid cell with the Hero.
+     * @see manager.TileManager#queryPlatforms(double, double, double, double, ArrayList)
+     */
+    private final ArrayList<Platform> nearbyPlatforms = new ArrayList<>();
+
+    /**
+     * Creates a CollisionChecker object in the specified World.
+     * @param world The World this object is attached to.
+     */
+    public CollisionChecker(World world) {
+        this.world = world;
     }
 
     /**
-     * Checks for collisions between the Hero and the platform objects of the GameScene.
+     * Checks for collisions between the Hero and the platform objects of the World.
      * Note : the algorithm used is all but perfect, feel free to modify/update it for a better one.
      * @param hero Hero object to check the collisions with.
      */
     public void checkCollision(Hero hero) {
-        double heroLeftX = hero.getHitBox().getX();
-        double heroRightX = hero.getHitBox().getX() + hero.getHitBox().getWidth();
-        double heroTopY = hero.getHitBox().getY();
-        double heroBottomY = hero.getHitBox().getY() + hero.getHitBox().getHeight();
+        double heroLeftX = hero.getX();
+        double heroTopY = hero.getY();
 
-        double offset = 6;
-        double width = hero.getImageView().getImage().getWidth();
-        double height = hero.getImageView().getImage().getHeight();
-        double yLimit = height - offset;
-        double xLimit = width - offset;
+        double width = hero.getHitWidth();
+        double height = hero.getHitHeight();
 
         collisionPlatforms.clear();
-        ArrayList<Object> vectors = new ArrayList<>();
+        nearbyPlatforms.clear();
 
-        for (Platform platform : gameScene.getTileManager().getPlatforms()) {
-            if (platform.getHitBox().getBoundsInParent().intersects(hero.getHitBox().getBoundsInParent())) {
-                collisionPlatforms.add(platform);
+        // Only the platforms sharing a grid cell with the Hero are tested.
+        world.getTileManager().queryPlatforms(heroLeftX, heroTopY, width, height, nearbyPlatforms);
+        for (int i = 0; i < nearbyPlatforms.size(); i++) {
+            Platform platform = nearbyPlatforms.get(i);
+            // A run of platforms is checked cell by cell, as if each cell was a separate platform.
+            for (int cell = 0; cell < platform.getCellCount(); cell++) {
+                if (intersects(hero, platform, cell)) {
+                    if (collisionPlatforms.size() == collisionCells.length)
+                        collisionCells = Arrays.copyOf(collisionCells, collisionCells.length * 2);
+                    collisionCells[collisionPlatforms.size()] = cell;
+                    collisionPlatforms.add(platform);
+                }
             }
         }
 
 
-        if (collisionPlatforms.size() > 0) {
-            for (Platform touchedPlatform : collisionPlatforms) {
-                if (touchedPlatform.getCollision()) {
-                    Point2D vector;
-                    switch (hero.getState()) {
-                        case JUMP -> {
-                            vector = new Point2D((float) (heroLeftX - (touchedPlatform.getHitBox().getX())),
-                                    (float) (heroTopY - touchedPlatform.getHitBox().getY()));
-                            vectors.add(vector);
-                            if (vector.getY() > -height && vector.getY() < -yLimit && Math.abs(Math.abs(vector.getX()) - Math.abs(vector.getY())) > offset && hero.getVelocityY() >= 0) {
-                                hero.setCollision("Down");
-                            } else if (vector.getY() > yLimit - 4 && vector.getY() < height && Math.abs(Math.abs(vector.getX()) - Math.abs(vector.getY())) > 10 && hero.getVelocityY() < 0)
-                                hero.setCollision("Up");
-                            else if (vector.getX() > -width && vector.getX() < -xLimit && vector.getY() > -yLimit && hero.getVelocityX() > 0) {
-                                hero.setCollision("Right");
-                            } else if (vector.getX() < width && vector.getX() > xLimit && vector.getY() > -yLimit && hero.getVelocityX() < 0) {
-                                hero.setCollision("Left");
-                            }
-                        }
-                        case FLOOR -> {
-                            vector = new Point2D((float) (heroLeftX - (touchedPlatform.getHitBox().getX())),
-                                    (float) (heroTopY - touchedPlatform.getHitBox().getY()));
-                            vectors.add(vector);
-                            if (vector.getY() > -height && vector.getY() < -yLimit && hero.getVelocityY() >= 0) {
-                                hero.setCollision("Down");
-                                hero.setY(touchedPlatform.getWorldY() - hero.getHitBox().getHeight() + 1);
-                            } else if (vector.getX() > -width && vector.getX() < -xLimit && vector.getY() > -yLimit && hero.getVelocityX() > 0) {
-                                hero.setCollision("Right");
-                                hero.setX(touchedPlatform.getWorldX() - hero.getHitBox().getWidth() + 1);
-                            } else if (vector.getX() < width && vector.getX() > xLimit && vector.getY() > -yLimit && hero.getVelocityX() < 0) {
-                                hero.setCollision("Left");
-                                hero.setX(touchedPlatform.getWorldX() + hero.getHitBox().getWidth() - 1);
-                            }
-                        }
-                    }
+        for (int i = 0; i < collisionPlatforms.size(); i++) {
+            Platform touchedPlatform = collisionPlatforms.get(i);
+            int cell = collisionCells[i];
+            if (touchedPlatform.getCollision())
+                collide(hero, heroLeftX, heroTopY, touchedPlatform.getCellHitX(cell), touchedPlatform.getCellHitY(cell), touchedPlatform.getCellX(cell), touchedPlatform.getCellY(cell));
+        }
+
+        // The solid cells of the TileMap are read from the grid, without any Platform object.
+        TileMap tileMap = world.getTileManager().getTileMap();
+        if (tileMap == null) return;
+        int firstColumn = tileMap.columnAt(heroLeftX - 1), lastColumn = tileMap.columnAt(heroLeftX + width);
+        int firstRow = tileMap.rowAt(heroTopY - 1), lastRow = tileMap.rowAt(heroTopY + height);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                TileType type = tileMap.getType(column, row);
+                if (type == null || !type.isSolid() || !intersects(hero, tileMap, column, row)) continue;
+                double cellX = tileMap.getCellX(column);
+                double cellY = tileMap.getCellY(row);
+                collide(hero, heroLeftX, heroTopY, cellX, cellY, cellX, cellY);
+            }
+        }
+    }
+
+    /**
+     * Resolves the collision between the Hero and a solid cell, based on the Hero's state and on the vector between their top left corners.
+     * @param hero Hero object in collision.
+     * @param heroLeftX X-axis coordinate of the Hero before any collision was resolved.
+     * @param heroTopY Y-axis coordinate of the Hero before any collision was resolved.
+     * @param hitX X-axis world coordinate of the cell's hit box.
+     * @param hitY Y-axis world coordinate of the cell's hit box.
+     * @param cellX X-axis world coordinate of the cell, used to move the Hero against it.
+     * @param cellY Y-axis world coordinate of the cell, used to move the Hero against it.
+     */
+    private void collide(Hero hero, double heroLeftX, double heroTopY, double hitX, double hitY, double cellX, double cellY) {
+        double offset = 6;
+        double width = hero.getHitWidth();
+        double height = hero.getHitHeight();
+        double yLimit = height - offset;
+        double xLimit = width - offset;
+
+        // Vector between the Hero's and the cell's top left corners.
+        double vectorX = heroLeftX - hitX;
+        double vectorY = heroTopY - hitY;
+        switch (hero.getState()) {
+            case JUMP -> {
+                if (vectorY > -height && vectorY < -yLimit && Math.abs(Math.abs(vectorX) - Math.abs(vectorY)) > offset && hero.getVelocityY() >= 0) {
+                    hero.setCollision("Down");
+                } else if (vectorY > yLimit - 4 && vectorY < height && Math.abs(Math.abs(vectorX) - Math.abs(vectorY)) > 10 && hero.getVelocityY() < 0)
+                    hero.setCollision("Up");
+                else if (vectorX > -width && vectorX < -xLimit && vectorY > -yLimit && hero.getVelocityX() > 0) {
+                    hero.setCollision("Right");
+                } else if (vectorX < width && vectorX > xLimit && vectorY > -yLimit && hero.getVelocityX() < 0) {
+                    hero.setCollision("Left");
+                }
+            }
+            case FLOOR -> {
+                if (vectorY > -height && vectorY < -yLimit && hero.getVelocityY() >= 0) {
+                    hero.setCollision("Down");
+                    hero.setY(cellY - height + 1);
+                } else if (vectorX > -width && vectorX < -xLimit && vectorY > -yLimit && hero.getVelocityX() > 0) {
+                    hero.setCollision("Right");
+                    hero.setX(cellX - width + 1);
+                } else if (vectorX < width && vectorX > xLimit && vectorY > -yLimit && hero.getVelocityX() < 0) {
+                    hero.setCollision("Left");
+                    hero.setX(cellX + width - 1);
                 }
             }
         }
     }
 
     /**
-     * Checks for interactions between the Hero and the coin objects of the GameScene.
-     * Every time a coin is collected, it is added to the Hero's inventory and a sound is played.
+     * Checks for interactions between the Hero and the coin objects of the World.
+     * Every time a coin is collected, it is added to the Hero's inventory, the World's listener hides it and a sound is played.
      * @param hero Hero object to check the interactions with.
      * @see Hero#addScore(int amount)
      */
     public void collectCoin(Hero hero) {
-        for (Coin coin : gameScene.getTileManager().getCoins()) {
-
-            if (coin.getImageView().getBoundsInParent().intersects(hero.getHitBox().getBoundsInParent()) && coin.getCollision()) {
-                coin.setCollision(false);
-                coin.getImageView().setVisible(false);
-                gameScene.getHero().addScore(1);
-                System.out.println(gameScene.getHero().getScore());
+        // Indexed loops don't allocate any Iterator on each step.
+        ArrayList<Coin> coins = world.getTileManager().getCoins();
+        for (int i = 0; i < coins.size(); i++) {
+            Coin coin = coins.get(i);
+            if (coin.getCollision() && intersects(hero, coin)) {
+                coin.collect();
+                hero.addScore(1);
+                System.out.println(hero.getScore());
+                world.getListener().coinCollected(coin);
                 playSound("music/Coin.wav");
 
             }
@@ -125,66 +173,122 @@ public class CollisionChecker {
     }
 
     /**
-     * Checks for collisions between the Hero and the spike objects of the GameScene.
+     * Checks for collisions between the Hero and the spike objects and deadly TileMap cells of the World.
      * If the Hero dies, a sound is played, and he automatically respawns at the beginning of the actual Room/Level.
      * @param hero Hero object to check the collisions with.
      * @see Hero#setSpawnCoordinates(double, double)
      */
     public void isDead(Hero hero) {
-        for (Spike spike : gameScene.getTileManager().getSpikes())
-            if (hero.getHitBox().getBoundsInParent().intersects(spike.getHitBox().getBoundsInParent())) {
-                System.out.println("My Hero Is Dead");
-                playSound("./music/Death2.wav");
-                hero.setSpawnCoordinates(gameScene.reader.getStartPosX(), gameScene.reader.getStartPosY());
+        ArrayList<Spike> spikes = world.getTileManager().getSpikes();
+        for (int i = 0; i < spikes.size(); i++)
+            if (intersects(hero, spikes.get(i))) die(hero);
+
+        TileMap tileMap = world.getTileManager().getTileMap();
+        if (tileMap == null) return;
+        for (int row = tileMap.rowAt(hero.getY() - 1); row <= tileMap.rowAt(hero.getY() + hero.getHitHeight()); row++) {
+            for (int column = tileMap.columnAt(hero.getX() - 1); column <= tileMap.columnAt(hero.getX() + hero.getHitWidth()); column++) {
+                TileType type = tileMap.getType(column, row);
+                if (type != null && type.isDeadly() && intersects(hero, tileMap, column, row)) {
+                    die(hero);
+                    return;
+                }
             }
+        }
     }
 
     /**
-     * Checks for interactions between the Hero and the Npc objects of the GameScene.
-     * If it occurs, a dialog starts with the Npc.
+     * Plays the death sound and respawns the Hero at the beginning of the actual Room/Level.
+     * @param hero the dead Hero.
+     */
+    private void die(Hero hero) {
+        System.out.println("My Hero Is Dead");
+        playSound("./music/Death2.wav");
+        hero.setSpawnCoordinates(world.getReader().getStartPosX(), world.getReader().getStartPosY());
+    }
+
+    /**
+     * Checks for interactions between the Hero and the Npc objects of the World.
+     * If it occurs, the World's listener starts a dialog with the Npc.
      * @param hero Hero object to check the collisions with.
-     * @see Npc#displayDialog(GameScene)
+     * @see WorldListener#talkTo(Npc)
      */
     public void isTalking(Hero hero) {
-        for (Npc npc : gameScene.getTileManager().getNpc())
-            if (hero.getHitBox().getBoundsInParent().intersects(npc.getHitBox().getBoundsInParent())) {
+        for (Npc npc : world.getTileManager().getNpc())
+            if (intersects(hero, npc)) {
                 hero.setInteract(false);
-                npc.displayDialog(gameScene);
+                world.getListener().talkTo(npc);
             }
     }
 
     /**
-     * Is used to play a sound saved in the resources' directory that matches with the filename parameter.
-     * If none of the files match, a NullPointerException is thrown.
+     * Asks the World's listener to play a sound saved in the resources' directory that matches with the filename parameter.
      * @param filename sound's file name to be played.
-     * @see AudioClip
+     * @see WorldListener#playSound(String)
      */
     public void playSound(String filename) {
-        String url = Objects.requireNonNull(getClass().getResource("/" + filename)).toString();
-        AudioClip clip = new AudioClip(url);
-        clip.play();
+        world.getListener().playSound(filename);
     }
 
     /**
-     * Checks for interactions between the Hero and the Door objects of the GameScene.
-     * If it occurs, the Hero is teleported to the direction defined at the door's direction property value.
+     * Checks for interactions between the Hero and the Door objects of the World.
+     * If it occurs, the World's listener teleports the Hero to the direction defined at the door's direction property value.
      * @param hero Hero object to check the collisions with.
      * @see Door#getDirection()
+     * @see WorldListener#borrowDoor(String)
      */
     public void borrowDoor(Hero hero) {
         if (hero.isInteracting()) {
-            for (Door door : gameScene.getTileManager().getDoors())
-                if (hero.getHitBox().getBoundsInParent().intersects(door.getHitBox().getBoundsInParent()) && hero.getState().equals(Hero.State.FLOOR)) {
+            for (Door door : world.getTileManager().getDoors())
+                if (intersects(hero, door) && hero.getState().equals(Hero.State.FLOOR)) {
                     hero.setInteract(false);
-                    String direction = door.getDirection();
-                    if (direction.contains("Room"))
-                        Main.actualRoom = direction;
-                    else if (direction.contains("Level")) {
-                        Main.actualLevel = direction;
-                        Main.actualRoom = "default";
-                    } else Main.actualRoom = "default";
+                    world.getListener().borrowDoor(door.getDirection());
                 }
         }
     }
-}
 
+    /**
+     * Checks whether the hit boxes of an Entity and a Tile intersect. Both hit boxes are expressed in world coordinates,
+     * so the result depends neither on the camera nor on the transforms applied to the scene.
+     * Note : touching edges count as an intersection.
+     * @param entity Entity whose hit box is tested.
+     * @param tile Tile whose hit box is tested.
+     * @return true if the hit boxes intersect.
+     */
+    public static boolean intersects(Entity entity, Tile tile) {
+        for (int cell = 0; cell < tile.getCellCount(); cell++)
+            if (intersects(entity, tile, cell)) return true;
+        return false;
+    }
+
+    /**
+     * Checks whether the hit boxes of an Entity and of a Tile's cell intersect.
+     * Note : touching edges count as an intersection.
+     * @param entity Entity whose hit box is tested.
+     * @param tile Tile whose cell's hit box is tested.
+     * @param cell index of the cell in the Tile's run.
+     * @return true if the hit boxes intersect.
+     * @see Tile#getCellHitX(int)
+     */
+    public static boolean intersects(Entity entity, Tile tile, int cell) {
+        double tileX = tile.getCellHitX(cell);
+        double tileY = tile.getCellHitY(cell);
+        return entity.getX() <= tileX + tile.getCellHitWidth() && entity.getX() + entity.getHitWidth() >= tileX
+                && entity.getY() <= tileY + tile.getCellHitHeight() && entity.getY() + entity.getHitHeight() >= tileY;
+    }
+
+    /**
+     * Checks whether the hit box of an Entity and a TileMap's cell intersect. A cell's hit box is the whole cell.
+     * Note : touching edges count as an intersection.
+     * @param entity Entity whose hit box is tested.
+     * @param tileMap TileMap holding the cell.
+     * @param column column of the cell.
+     * @param row row of the cell.
+     * @return true if the hit boxes intersect.
+     */
+    public static boolean intersects(Entity entity, TileMap tileMap, int column, int row) {
+        double tileX = tileMap.getCellX(column);
+        double tileY = tileMap.getCellY(row);
+        return entity.getX() <= tileX + GameScene.tileSize && entity.getX() + entity.getHitWidth() >= tileX
+                && entity.getY() <= tileY + GameScene.tileSize && entity.getY() + entity.getHitHeight() >= tileY;
+    }
+}
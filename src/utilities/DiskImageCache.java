@@ -0,0 +1,257 @@
+package utilities;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Keeps the decoded and scaled images on disk between two launches, as raw 32 bits ARGB pixels.
+ * An image is identified by the hash of its source file and by a variant describing how it was scaled,
+ * so that a modified source file or another requested size never reads a stale image.
+ * A cached image is read through a memory-mapped file and copied into a WritableImage, without any PNG nor JPEG decoding.
+ * Images can be loaded from any thread.
+ * @see #load(String, String, Supplier)
+ */
+public final class DiskImageCache {
+
+    /**
+     * First int of every cached file.
+     */
+    private static final int magic = 0x41524742;
+    /**
+     * Version of the cached files' layout. Files of another version are decoded again.
+     */
+    private static final int version = 1;
+    /**
+     * Size in bytes of a cached file's header : magic, version, width and height.
+     */
+    private static final int headerSize = 16;
+
+    /**
+     * Hashes of the source files, by file name. A source file is only hashed once per launch.
+     */
+    private static final HashMap<String, String> sourceHashes = new HashMap<>();
+    /**
+     * Directory holding the cached files.
+     */
+    private static volatile Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "platformer-image-cache");
+    /**
+     * Whether the images are read from and written to the disk.
+     */
+    private static volatile boolean enabled = true;
+    /**
+     * Number of images read from the disk.
+     */
+    private static long hits;
+    /**
+     * Number of images that had to be decoded.
+     */
+    private static long misses;
+
+    private DiskImageCache() {
+    }
+
+    /**
+     * Returns the image cached on disk for a source file and a variant, or decodes it and writes it on disk.
+     * @param fileName directory and name of the source image, as given to the Image constructor.
+     * @param variant description of the scaling applied to the source image, for example its requested size.
+     * @param decoder decodes the image when it isn't cached. It may return null.
+     * @return the cached or decoded image, or null if the decoder returned null.
+     */
+    public static Image load(String fileName, String variant, Supplier<Image> decoder) {
+        Path path = enabled ? pathOf(fileName, variant) : null;
+        if (path != null) {
+            Image image = read(path);
+            if (image != null) {
+                synchronized (sourceHashes) {
+                    hits++;
+                }
+                return image;
+            }
+        }
+        synchronized (sourceHashes) {
+            misses++;
+        }
+
+        Image image = decoder.get();
+        if (path != null && image != null && !image.isError() && image.getProgress() >= 1) write(path, image);
+        return image;
+    }
+
+    /**
+     * Deletes every cached file.
+     */
+    public static void clear() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files)
+                Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Nothing is cached yet.
+        }
+    }
+
+    /**
+     * Sets the directory holding the cached files.
+     * @param directory the value to set.
+     */
+    public static void setDirectory(Path directory) {
+        DiskImageCache.directory = directory;
+    }
+
+    /**
+     * @return the directory's property value.
+     */
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Enables or disables the cache. A disabled cache always decodes the images.
+     * @param enabled the value to set.
+     */
+    public static void setEnabled(boolean enabled) {
+        DiskImageCache.enabled = enabled;
+    }
+
+    /**
+     * @return the enabled's property value.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the number of images read from the disk.
+     */
+    public static long getHits() {
+        synchronized (sourceHashes) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of images that had to be decoded.
+     */
+    public static long getMisses() {
+        synchronized (sourceHashes) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the cached file's path of an image, or null if its source file can't be read.
+     */
+    private static Path pathOf(String fileName, String variant) {
+        String sourceHash;
+        synchronized (sourceHashes) {
+            sourceHash = sourceHashes.get(fileName);
+        }
+        if (sourceHash == null) {
+            URL url = ImageSize.resolve(fileName);
+            if (url == null) return null;
+            try (InputStream in = url.openStream()) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[65536];
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer))
+                    digest.update(buffer, 0, read);
+                sourceHash = HexFormat.of().formatHex(digest.digest());
+            } catch (IOException | NoSuchAlgorithmException e) {
+                return null;
+            }
+            synchronized (sourceHashes) {
+                sourceHashes.put(fileName, sourceHash);
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((sourceHash + "|" + variant).getBytes());
+            return directory.resolve(HexFormat.of().formatHex(digest.digest()) + ".argb");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Maps a cached file and copies its pixels into a new image.
+     * @return the cached image, or null if the file is missing or invalid.
+     */
+    private static Image read(Path path) {
+        if (!Files.isRegularFile(path)) return null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < headerSize) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int width = buffer.getInt(4 * 2);
+            int height = buffer.getInt(4 * 3);
+            if (buffer.getInt(0) != magic || buffer.getInt(4) != version || width <= 0 || height <= 0
+                    || size != headerSize + 4L * width * height) return null;
+
+            IntBuffer pixels = buffer.position(headerSize).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, width);
+            return image;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes an image's pixels in a temporary file, then moves it to its cached file's path,
+     * so that a reader never maps a partially written file.
+     */
+    private static void write(Path path, Image image) {
+        PixelReader reader = image.getPixelReader();
+        if (reader == null) return;
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, "image", ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize + 4L * width * height);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(magic).putInt(version).putInt(width).putInt(height);
+                IntBuffer pixels = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                reader.getPixels(0, 0, width, height, WritablePixelFormat.getIntArgbInstance(), pixels, width);
+                buffer.force();
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                if (temporary != null) Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // The temporary file is left in the cache's directory.
+            }
+        }
+    }
+}
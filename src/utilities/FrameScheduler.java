@@ -0,0 +1,235 @@
+package utilities;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Owns the single AnimationTimer of the game and dispatches every pulse to the registered callbacks.
+ * Callbacks are run by increasing priority, optionally at a limited rate, and the ones that belong to a Scene
+ * are only run while this Scene is the active one.
+ * @see #register(Object, int, double, Callback)
+ */
+public final class FrameScheduler {
+
+    /**
+     * Priority of the callbacks that switch the displayed Scene.
+     */
+    public static final int transitionPriority = 0;
+    /**
+     * Priority of the simulation's callbacks.
+     */
+    public static final int updatePriority = 100;
+    /**
+     * Priority of the sprite animations' callbacks.
+     */
+    public static final int animationPriority = 200;
+    /**
+     * Priority of the callbacks that prepare work in the background.
+     */
+    public static final int backgroundPriority = 300;
+
+    /**
+     * Registered tasks, sorted by increasing priority.
+     */
+    private static final ArrayList<Task> tasks = new ArrayList<>();
+    /**
+     * Tasks registered since the last pulse. They are merged at the beginning of the next pulse,
+     * so that a callback may register a task while the tasks are being dispatched.
+     */
+    private static final ArrayList<Task> pendingTasks = new ArrayList<>();
+    /**
+     * Whether a task was cancelled since the last pulse.
+     */
+    private static boolean dirty;
+    /**
+     * The Scene actually shown on the Stage.
+     */
+    private static Scene activeScene;
+    /**
+     * The timer that owns the pulse. It is started on the first registration.
+     */
+    private static AnimationTimer timer;
+
+    private FrameScheduler() {
+    }
+
+    /**
+     * Registers a callback to be run on every pulse, or at most rate times per second.
+     * @param owner the Scene (or a Node of the Scene) the callback belongs to, or null for a callback that always runs.
+     * @param priority callbacks with a lower priority run first.
+     * @param rate maximum number of calls per second, or 0 to be called on every pulse.
+     * @param callback the callback to run.
+     * @return the registered Task, used to cancel it.
+     */
+    public static Task register(Object owner, int priority, double rate, Callback callback) {
+        Task task = new Task(owner, priority, rate > 0 ? (long) (1000000000.0 / rate) : 0, callback);
+        pendingTasks.add(task);
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    pulse(now);
+                }
+            };
+            timer.start();
+        }
+        return task;
+    }
+
+    /**
+     * Sets the Scene whose callbacks are dispatched. The callbacks of the other Scenes are paused.
+     * @param scene the Scene actually shown on the Stage.
+     */
+    public static void setActiveScene(Scene scene) {
+        activeScene = scene;
+    }
+
+    /**
+     * @return the activeScene's property value.
+     */
+    public static Scene getActiveScene() {
+        return activeScene;
+    }
+
+    /**
+     * @return the number of registered tasks.
+     */
+    public static int getTaskCount() {
+        return tasks.size() + pendingTasks.size();
+    }
+
+    /**
+     * Dispatches a pulse to the registered tasks.
+     * @param now the pulse's timestamp in nanoseconds.
+     */
+    private static void pulse(long now) {
+        if (dirty) {
+            tasks.removeIf(Task::isCancelled);
+            pendingTasks.removeIf(Task::isCancelled);
+            dirty = false;
+        }
+        if (!pendingTasks.isEmpty()) {
+            tasks.addAll(pendingTasks);
+            pendingTasks.clear();
+            tasks.sort(Comparator.comparingInt(task -> task.priority));
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.cancelled) continue;
+            if (task.paused || !task.isActive()) {
+                // A paused task doesn't accumulate the time spent in the background.
+                task.lastTime = now;
+                continue;
+            }
+            long elapsed = now - task.lastTime;
+            if (elapsed >= task.period) {
+                task.lastTime = now;
+                task.callback.handle(now, elapsed / 1000000000.0);
+            }
+        }
+    }
+
+    /**
+     * A callback run by the FrameScheduler.
+     */
+    @FunctionalInterface
+    public interface Callback {
+        /**
+         * @param now the pulse's timestamp in nanoseconds.
+         * @param elapsedTime elapsed time in seconds since the callback's last call.
+         */
+        void handle(long now, double elapsedTime);
+    }
+
+    /**
+     * A callback registered in the FrameScheduler.
+     */
+    public static final class Task {
+
+        /**
+         * The Scene or Node the callback belongs to, or null.
+         */
+        private final Object owner;
+        /**
+         * Callbacks with a lower priority run first.
+         */
+        private final int priority;
+        /**
+         * Minimum time in nanoseconds between two calls.
+         */
+        private final long period;
+        /**
+         * The callback to run.
+         */
+        private final Callback callback;
+        /**
+         * Timestamp of the last call.
+         */
+        private long lastTime = System.nanoTime();
+        /**
+         * Whether the task was cancelled.
+         */
+        private boolean cancelled;
+        /**
+         * Whether the task is paused.
+         */
+        private boolean paused;
+
+        private Task(Object owner, int priority, long period, Callback callback) {
+            this.owner = owner;
+            this.priority = priority;
+            this.period = period;
+            this.callback = callback;
+        }
+
+        /**
+         * Stops the callback from being run. The task is removed from the scheduler on the next pulse.
+         */
+        public void cancel() {
+            cancelled = true;
+            dirty = true;
+        }
+
+        /**
+         * Pauses or resumes the callback. A paused task stays registered but isn't run.
+         * @param paused the value to set.
+         */
+        public void setPaused(boolean paused) {
+            this.paused = paused;
+        }
+
+        /**
+         * @return the paused's property value.
+         */
+        public boolean isPaused() {
+            return paused;
+        }
+
+        /**
+         * @return the cancelled's property value.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return true if the task has no owner, or if its owner belongs to the active Scene.
+         */
+        private boolean isActive() {
+            if (owner == null) return true;
+            if (owner instanceof Node) return ((Node) owner).getScene() == activeScene;
+            return owner == activeScene;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package utilities;
+
+import javafx.scene.image.Image;
+
+import java.util.HashMap;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Shares the decoded images between every Tile, Room and Level : an image is decoded once for a given file and requested size,
+ * then handed to every user until the last one releases it.
+ * Images can be acquired from any thread, and two threads acquiring the same image wait for a single decoding.
+ * @see #acquire(String, double, double, boolean, boolean)
+ * @see #release(String, double, double, boolean, boolean)
+ */
+public final class ImageCache {
+
+    /**
+     * Cached images by file name and requested size.
+     */
+    private static final HashMap<String, Entry> entries = new HashMap<>();
+    /**
+     * Number of acquisitions served by an image already cached.
+     */
+    private static long hits;
+    /**
+     * Number of acquisitions that had to decode an image.
+     */
+    private static long misses;
+    /**
+     * Number of bytes held by the cached images, decoded in 32 bits ARGB.
+     */
+    private static long bytes;
+
+    private ImageCache() {
+    }
+
+    /**
+     * Returns the image decoded with the provided parameters, decoding it if it isn't cached yet.
+     * Every call has to be matched by a call to release once the image isn't used anymore.
+     * @param fileName directory and name of the image, as given to the Image constructor.
+     * @param requestedWidth the image's requested width.
+     * @param requestedHeight the image's requested height.
+     * @param preserveRatio whether the image's aspect ratio is kept.
+     * @param smooth whether a better quality filtering algorithm is used to scale the image.
+     * @return the shared decoded image.
+     * @see Image#Image(String, double, double, boolean, boolean)
+     */
+    public static Image acquire(String fileName, double requestedWidth, double requestedHeight, boolean preserveRatio, boolean smooth) {
+        String key = key(fileName, requestedWidth, requestedHeight, preserveRatio, smooth);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                misses++;
+            } else hits++;
+            entry.references++;
+        }
+
+        // The image is decoded outside the cache's lock, so that different images can be decoded at the same time.
+        synchronized (entry) {
+            if (entry.image == null) {
+                entry.image = DiskImageCache.load(fileName, key.substring(fileName.length()),
+                        () -> new Image(fileName, requestedWidth, requestedHeight, preserveRatio, smooth));
+                entry.bytes = (long) entry.image.getWidth() * (long) entry.image.getHeight() * 4;
+                synchronized (entries) {
+                    if (entries.get(key) == entry) bytes += entry.bytes;
+                }
+            }
+            return entry.image;
+        }
+    }
+
+    /**
+     * Releases an image acquired with the same parameters. The image is dropped from the cache once it isn't used anymore.
+     * @param fileName directory and name of the image.
+     * @param requestedWidth the image's requested width.
+     * @param requestedHeight the image's requested height.
+     * @param preserveRatio whether the image's aspect ratio is kept.
+     * @param smooth whether a better quality filtering algorithm is used to scale the image.
+     */
+    public static void release(String fileName, double requestedWidth, double requestedHeight, boolean preserveRatio, boolean smooth) {
+        String key = key(fileName, requestedWidth, requestedHeight, preserveRatio, smooth);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) return;
+            if (--entry.references <= 0) {
+                entries.remove(key);
+                bytes -= entry.bytes;
+            }
+        }
+    }
+
+    /**
+     * @return the number of acquisitions served by an image already cached.
+     */
+    public static long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of acquisitions that had to decode an image.
+     */
+    public static long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the number of bytes held by the cached images.
+     */
+    public static long getBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    /**
+     * @return the number of cached images.
+     */
+    public static int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(String fileName, double requestedWidth, double requestedHeight, boolean preserveRatio, boolean smooth) {
+        return fileName + "|" + requestedWidth + "x" + requestedHeight + (preserveRatio ? "|ratio" : "") + (smooth ? "|smooth" : "");
+    }
+
+    /**
+     * A cached image and the number of its users.
+     */
+    private static final class Entry {
+        /**
+         * The decoded image, null until it is decoded.
+         */
+        private Image image;
+        /**
+         * Number of bytes of the decoded image.
+         */
+        private long bytes;
+        /**
+         * Number of acquisitions not released yet.
+         */
+        private int references;
+    }
+}
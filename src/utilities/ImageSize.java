@@ -0,0 +1,152 @@
+package utilities;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Reads the dimensions of PNG, GIF and JPEG images from their header, without decoding them.
+ * This allows the simulation to compute the hit boxes of the tiles without any JavaFX toolkit.
+ */
+public final class ImageSize {
+
+    /**
+     * Source dimensions already read, by file name, so that the tiles sharing an image only read its header once.
+     */
+    private static final HashMap<String, int[]> sizes = new HashMap<>();
+
+    private ImageSize() {
+    }
+
+    /**
+     * Computes the dimensions a JavaFX Image would have once loaded with the requested size,
+     * following the same rounding rules as the JavaFX image loader.
+     * If the image's header can't be read, the requested size is returned.
+     * @param fileName directory and name of the image, as given to the Image constructor.
+     * @param requestedWidth the image's requested width.
+     * @param requestedHeight the image's requested height.
+     * @param preserveRatio whether the image's aspect ratio is kept.
+     * @return the width and height of the loaded image.
+     */
+    public static double[] fit(String fileName, double requestedWidth, double requestedHeight, boolean preserveRatio) {
+        int[] source = read(fileName);
+        if (source == null) return new double[]{requestedWidth, requestedHeight};
+
+        int width = (int) requestedWidth;
+        int height = (int) requestedHeight;
+        if (width == 0 && height == 0) {
+            width = source[0];
+            height = source[1];
+        } else if (width != source[0] || height != source[1]) {
+            if (preserveRatio) {
+                if (width == 0) width = Math.round((float) source[0] * height / source[1]);
+                else if (height == 0) height = Math.round((float) source[1] * width / source[0]);
+                else {
+                    float scale = Math.min((float) width / source[0], (float) height / source[1]);
+                    width = Math.round(source[0] * scale);
+                    height = Math.round(source[1] * scale);
+                }
+            }
+            if (width == 0) width = 1;
+            if (height == 0) height = 1;
+        }
+        return new double[]{width, height};
+    }
+
+    /**
+     * Reads the source dimensions of an image from its header. The header is only read on the first call for a file.
+     * @param fileName directory and name of the image, as given to the Image constructor.
+     * @return the width and height of the source image, or null if they can't be read. The returned array must not be modified.
+     */
+    public static int[] read(String fileName) {
+        synchronized (sizes) {
+            if (sizes.containsKey(fileName)) return sizes.get(fileName);
+        }
+        int[] size = readHeader(fileName);
+        synchronized (sizes) {
+            sizes.put(fileName, size);
+        }
+        return size;
+    }
+
+    /**
+     * Reads the source dimensions of an image from its header.
+     */
+    private static int[] readHeader(String fileName) {
+        URL url = resolve(fileName);
+        if (url == null) return null;
+        try (DataInputStream in = new DataInputStream(url.openStream())) {
+            byte[] signature = new byte[2];
+            in.readFully(signature);
+            if ((signature[0] & 0xFF) == 0x89 && signature[1] == 'P') {
+                // PNG : 8 bytes signature, then the IHDR chunk's length and type, then width and height.
+                in.skipNBytes(14);
+                return new int[]{in.readInt(), in.readInt()};
+            }
+            if (signature[0] == 'G' && signature[1] == 'I') {
+                // GIF : 6 bytes signature, then the logical screen's width and height in little endian.
+                in.skipNBytes(4);
+                return new int[]{readLittleEndianShort(in), readLittleEndianShort(in)};
+            }
+            if ((signature[0] & 0xFF) == 0xFF && (signature[1] & 0xFF) == 0xD8) return readJpeg(in);
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Resolves an image's file name the same way the JavaFX Image class does for the names without URL scheme.
+     * @param fileName directory and name of the image.
+     * @return the image's URL, or null if no resource matches.
+     */
+    public static URL resolve(String fileName) {
+        if (fileName.contains(":")) {
+            try {
+                return new URL(fileName);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        String path = fileName;
+        if (path.startsWith("./")) path = path.substring(2);
+        if (path.startsWith("/")) path = path.substring(1);
+        return ImageSize.class.getResource("/" + path);
+    }
+
+    /**
+     * Walks through the JPEG markers until a start of frame marker is found.
+     */
+    private static int[] readJpeg(DataInputStream in) throws IOException {
+        while (true) {
+            int marker = in.readUnsignedByte();
+            if (marker != 0xFF) return null;
+            int type = in.readUnsignedByte();
+            while (type == 0xFF) type = in.readUnsignedByte();
+            int length = in.readUnsignedShort();
+            boolean startOfFrame = type >= 0xC0 && type <= 0xCF && type != 0xC4 && type != 0xC8 && type != 0xCC;
+            if (startOfFrame) {
+                in.readUnsignedByte();
+                int height = in.readUnsignedShort();
+                int width = in.readUnsignedShort();
+                return new int[]{width, height};
+            }
+            in.skipNBytes(length - 2);
+        }
+    }
+
+    private static int readLittleEndianShort(InputStream in) throws IOException {
+        int low = in.read();
+        int high = in.read();
+        if ((low | high) < 0) throw new IOException("Unexpected end of file");
+        return low | (high << 8);
+    }
+}
@@ -0,0 +1,221 @@
+package utilities;
+
+import tiles.TileElement;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Compiles the .xml level and room files into the binary format read by the BinaryLevelReader.
+ * Each compiled file is written next to its .xml file, and is ignored at load time once the .xml file is modified.
+ * Usage : {@code LevelCompiler [file or directory]...}, for example {@code LevelCompiler data} to compile every file of the data directory.
+ * @see BinaryLevelReader
+ */
+public class LevelCompiler {
+
+    public static void main(String[] args) throws IOException {
+        String[] paths = args.length > 0 ? args : new String[]{"./data"};
+        for (String path : paths)
+            compileAll(new File(path));
+    }
+
+    /**
+     * Compiles a .xml file, or every .xml file of a directory and its subdirectories.
+     * @param file the file or directory to compile.
+     */
+    private static void compileAll(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                compileAll(child);
+        } else if (file.getName().endsWith(".xml")) {
+            String type = readType(file);
+            if (type == null) {
+                System.out.println("Skipped " + file + " : no level nor room element");
+                return;
+            }
+            String name = file.getPath().substring(0, file.getPath().length() - ".xml".length());
+            File compiled = new File(name + BinaryLevelReader.extension);
+            int tiles = compile(new XmlReader(file.getPath(), type, true), type, file, compiled);
+            System.out.println("Compiled " + file + " into " + compiled + " (" + tiles + " tiles)");
+        }
+    }
+
+    /**
+     * Writes a loaded scene in a compiled file.
+     * @param reader the scene, loaded from its .xml file with its tile elements kept.
+     * @param type the scene's type. Accepted values: level, room.
+     * @param source the .xml file the scene was loaded from.
+     * @param compiled the compiled file to write.
+     * @return the number of tile records written.
+     */
+    public static int compile(LevelReader reader, String type, File source, File compiled) throws IOException {
+        ArrayList<String> strings = new ArrayList<>();
+        HashMap<String, Integer> stringIndexes = new HashMap<>();
+        ArrayList<TileElement> types = new ArrayList<>();
+        HashMap<String, Integer> typeIndexes = new HashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        out.writeInt(index(type, strings, stringIndexes));
+        out.writeDouble(reader.getStartPosX());
+        out.writeDouble(reader.getStartPosY());
+        out.writeInt(reader.getSpeed());
+        out.writeDouble(reader.getGravity());
+        out.writeInt(reader.getKeyOrder());
+        out.writeInt(reader.getRotation());
+        out.writeByte(reader.getBlink() ? 1 : 0);
+        out.writeInt(index(reader.getRenderMode(), strings, stringIndexes));
+        out.writeInt(reader.getBackGroundFileName() != null ? index(reader.getBackGroundFileName(), strings, stringIndexes) : -1);
+        out.writeDouble(reader.getBackGroundX());
+        out.writeDouble(reader.getBackGroundY());
+        out.writeDouble(reader.getBackGroundWidth());
+        out.writeDouble(reader.getBackGroundHeight());
+
+        out.writeInt(reader.getRoomFiles().size());
+        for (String roomFile : reader.getRoomFiles())
+            out.writeInt(index(roomFile, strings, stringIndexes));
+
+        out.writeInt(reader.getBackgroundLayers().size());
+        for (BackgroundLayer layer : reader.getBackgroundLayers()) {
+            out.writeInt(index(layer.getFileName(), strings, stringIndexes));
+            out.writeDouble(layer.getX());
+            out.writeDouble(layer.getY());
+            out.writeDouble(layer.getWidth());
+            out.writeDouble(layer.getHeight());
+            out.writeDouble(layer.getScrollFactor());
+            out.writeByte((layer.isRepeatX() ? 1 : 0) | (layer.isRepeatY() ? 2 : 0));
+        }
+
+        out.writeInt(reader.getTileMapFileName() != null ? index(reader.getTileMapFileName(), strings, stringIndexes) : -1);
+        out.writeInt(index(reader.getTileTypesFileName(), strings, stringIndexes));
+        out.writeInt(reader.getTileMapX());
+        out.writeInt(reader.getTileMapY());
+        out.writeInt(reader.getRegionLoadRadius());
+        out.writeInt(reader.getRegionUnloadRadius());
+
+        // The tile records are written once the tile-type table is known.
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream tileOut = new DataOutputStream(records);
+        if (reader.getTileElements() == null) throw new IOException("The tile elements weren't kept");
+        int tiles = writeTiles(reader.getTileElements(), tileOut, types, typeIndexes);
+
+        out.writeInt(types.size());
+        for (TileElement tileType : types) {
+            out.writeInt(index(tileType.getKind(), strings, stringIndexes));
+            out.writeInt(index(tileType.getFileName(), strings, stringIndexes));
+            out.writeShort(tileType.getProperties().size());
+            for (Map.Entry<String, String> property : new TreeMap<>(tileType.getProperties()).entrySet()) {
+                out.writeInt(index(property.getKey(), strings, stringIndexes));
+                out.writeInt(index(property.getValue(), strings, stringIndexes));
+            }
+        }
+        out.writeInt(tiles);
+        records.writeTo(out);
+        out.flush();
+
+        File temporary = new File(compiled.getPath() + ".tmp");
+        try (DataOutputStream file = new DataOutputStream(Files.newOutputStream(temporary.toPath()))) {
+            file.writeInt(BinaryLevelReader.magic);
+            file.writeInt(BinaryLevelReader.version);
+            file.writeLong(source.length());
+            file.writeLong(source.lastModified());
+            file.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > 0xFFFF) throw new IOException("String too long : " + string);
+                file.writeShort(bytes.length);
+                file.write(bytes);
+            }
+            body.writeTo(file);
+        }
+        Files.move(temporary.toPath(), compiled.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return tiles;
+    }
+
+    /**
+     * Writes the records of the tile elements, and adds their types to the tile-type table.
+     * Elements of the same kind, image and properties share their type.
+     * @return the number of records written.
+     */
+    private static int writeTiles(List<TileElement> elements, DataOutputStream out, ArrayList<TileElement> types, HashMap<String, Integer> typeIndexes) throws IOException {
+        for (TileElement element : elements) {
+            String key = element.getKind() + "|" + element.getFileName() + "|" + new TreeMap<>(element.getProperties());
+            Integer typeIndex = typeIndexes.get(key);
+            if (typeIndex == null) {
+                if (types.size() > 0xFFFF) throw new IOException("Too many tile types");
+                if (element.getProperties().size() > 0xFFFF) throw new IOException("Too many properties at " + element.getX() + ", " + element.getY());
+                typeIndex = types.size();
+                types.add(element);
+                typeIndexes.put(key, typeIndex);
+            }
+            if (Math.abs(element.getNumberX()) > Short.MAX_VALUE || Math.abs(element.getNumberY()) > Short.MAX_VALUE)
+                throw new IOException("Tile run too long at " + element.getX() + ", " + element.getY());
+
+            out.writeShort(typeIndex);
+            out.writeByte(element.getCollision() ? 1 : 0);
+            out.writeByte(0);
+            out.writeInt(element.getX());
+            out.writeInt(element.getY());
+            out.writeShort(element.getNumberX());
+            out.writeShort(element.getNumberY());
+        }
+        return elements.size();
+    }
+
+    /**
+     * @return the index of a string in the string table, adding it if it isn't there yet.
+     */
+    private static int index(String string, ArrayList<String> strings, HashMap<String, Integer> indexes) {
+        Integer index = indexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            indexes.put(string, index);
+        }
+        return index;
+    }
+
+    /**
+     * @return the name of the first element inside the file's root element, level or room, or null if there is none.
+     */
+    private static String readType(File file) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            while (xml.hasNext()) {
+                if (xml.next() != XMLStreamConstants.START_ELEMENT) continue;
+                String name = xml.getLocalName();
+                if (name.equals("level") || name.equals("room")) return name;
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,490 @@
+package utilities;
+
+import entities.Hero;
+import manager.TileManager;
+import scenes.GameScene;
+import scenes.Level;
+import scenes.Room;
+import tiles.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Holds the parameters and the Tile objects of a Level or a Room, loaded from one of the level file formats.
+ * @see XmlReader
+ * @see BinaryLevelReader
+ * @see #open(String, String)
+ */
+public abstract class LevelReader {
+
+    /**
+     * List of all Platform objects.
+     * @see Platform
+     */
+    protected final ArrayList<Platform> platformElements = new ArrayList<>();
+
+    /**
+     * List of all Coin objects.
+     * @see Coin
+     */
+    protected final ArrayList<Coin> coinElements = new ArrayList<>();
+
+    /**
+     * List of all Door objects.
+     * @see Door
+     */
+    protected final ArrayList<Door> doorElements = new ArrayList<>();
+
+    /**
+     * List of all Spike objects.
+     * @see Spike
+     */
+    protected final ArrayList<Spike> spikeElements = new ArrayList<>();
+
+    /**
+     * List of all Npc objects.
+     * @see Npc
+     */
+    protected final ArrayList<Npc> npcElements = new ArrayList<>();
+
+    /**
+     * List of the Tile objects of the kinds registered besides the default ones.
+     * @see TileRegistry
+     */
+    protected final ArrayList<Tile> otherElements = new ArrayList<>();
+
+    /**
+     * Copies of the tile elements read, in reading order, or null if they aren't kept.
+     * They are only kept to compile the level file.
+     * @see LevelCompiler
+     */
+    protected ArrayList<TileElement> tileElements;
+
+    /**
+     * List of .xml files and directories for the creation af a Level's rooms.
+     * Note : If this class is used for the creation of a Room object, this ArrayList will be empty.
+     * @see Level
+     */
+    protected final ArrayList<String> roomFiles = new ArrayList<>();
+
+    /**
+     * X-axis Hero's initial coordinate property.
+     * @see Hero
+     */
+    protected double startPosX;
+
+    /**
+     * Y-axis Hero's initial coordinate property.
+     * @see Hero
+     */
+    protected double startPosY;
+
+    /**
+     * Hero's movement speed property inside the Level/Room.
+     * @see Hero
+     */
+    protected int speed;
+
+    /**
+     * Hero's Y-axis gravity property inside the Level/Room.
+     * @see Hero
+     */
+    protected double gravity;
+
+    /**
+     * GameScene's rotation angle property.
+     * @see GameScene
+     */
+    protected int rotation;
+
+    /**
+     * Hero's keyOrder property.
+     * @see Hero
+     */
+    protected int keyOrder;
+
+    /**
+     * BackGround's image's directory and fileName.
+     * @see Background
+     */
+    protected String backGroundFileName;
+
+    /**
+     * BackGround's X-axis coordinate.
+     * @see Background
+     */
+    protected double backGroundX;
+
+    /**
+     * BackGround's Y-axis coordinate.
+     * @see Background
+     */
+    protected double backGroundY;
+
+    /**
+     * BackGround's width property value.
+     * @see Background
+     */
+    protected double backGroundWidth;
+
+    /**
+     * BackGround's height property value.
+     * @see Background
+     */
+    protected double backGroundHeight;
+
+    /**
+     * Platform's blink property value.
+     * @see TileManager#render(long time)
+     */
+    protected boolean blink;
+
+    /**
+     * Tiles' render mode, read from the optional renderMode element. Accepted values: node (default), canvas.
+     * @see manager.TileRenderer
+     */
+    protected String renderMode = "node";
+
+    /**
+     * Background's layers, read from the optional backgroundLayer elements, or made of the image element otherwise.
+     * @see BackgroundLayer
+     */
+    protected final ArrayList<BackgroundLayer> backgroundLayers = new ArrayList<>();
+
+    /**
+     * Directory and name of the TileMap's grid file, read from the optional tileMap element, or null if there is none.
+     * @see TileMap
+     */
+    protected String tileMapFileName;
+
+    /**
+     * Directory and name of the TileMap's tile-type table.
+     * @see TileMap
+     */
+    protected String tileTypesFileName = "/tiles.txt";
+
+    /**
+     * X-axis world coordinate of the TileMap's top left corner.
+     */
+    protected int tileMapX;
+
+    /**
+     * Y-axis world coordinate of the TileMap's top left corner.
+     */
+    protected int tileMapY;
+
+    /**
+     * Distance in regions from the Hero under which the regions of a streamed TileMap are read.
+     * @see TileMap#open(String, String, int, int, int, int)
+     */
+    protected int regionLoadRadius = 1;
+
+    /**
+     * Distance in regions from the Hero beyond which the regions of a streamed TileMap are released.
+     * @see TileMap#open(String, String, int, int, int, int)
+     */
+    protected int regionUnloadRadius = 2;
+
+    /**
+     * Dense grid of tile IDs, loaded once the level file is read, or null if there is none.
+     * @see TileMap
+     */
+    protected TileMap tileMap;
+
+    /**
+     * Loads a Level or a Room from its compiled .lvl file if there is an up-to-date one, or from its .xml file otherwise.
+     * A compiled file that can't be read is ignored.
+     * @param fileName directory and name of the file, without extension.
+     * @param type Type of GameScene you try to create. Accepted values: level, room.
+     * @return the LevelReader holding the loaded parameters and tiles.
+     * @see LevelCompiler
+     */
+    public static LevelReader open(String fileName, String type) {
+        File compiled = new File(fileName + BinaryLevelReader.extension);
+        File source = new File(fileName + ".xml");
+        if (compiled.isFile()) {
+            try {
+                return new BinaryLevelReader(compiled, source, type);
+            } catch (IOException e) {
+                System.out.println("Ignored " + compiled + " : " + e.getMessage());
+            }
+        }
+        return new XmlReader(source.getPath(), type);
+    }
+
+    /**
+     * Creates the Tile objects described by a tile element through the TileRegistry, and adds them to the list of their kind.
+     * @param element the tile element. It can be reused once this method returns.
+     * @see TileRegistry#create(TileElement, java.util.function.Consumer)
+     */
+    protected void addTile(TileElement element) {
+        if (tileElements != null) tileElements.add(element.copy());
+        TileRegistry.create(element, this::addElement);
+    }
+
+    /**
+     * Adds a created Tile to the list of its kind.
+     * @param tile the Tile.
+     */
+    private void addElement(Tile tile) {
+        if (tile instanceof Platform) platformElements.add((Platform) tile);
+        else if (tile instanceof Spike) spikeElements.add((Spike) tile);
+        else if (tile instanceof Coin) coinElements.add((Coin) tile);
+        else if (tile instanceof Npc) npcElements.add((Npc) tile);
+        else if (tile instanceof Door) doorElements.add((Door) tile);
+        else otherElements.add(tile);
+    }
+
+    /**
+     * Loads the TileMap referenced by the level file, if any. A TileMap that can't be loaded is ignored.
+     * A RegionFile is streamed, while any other file is read entirely.
+     * @see TileMap#load(String, String, int, int)
+     * @see TileMap#open(String, String, int, int, int, int)
+     */
+    protected void loadTileMap() {
+        if (tileMapFileName == null) return;
+        try {
+            if (tileMapFileName.endsWith(RegionFile.extension))
+                tileMap = TileMap.open(tileMapFileName, tileTypesFileName, tileMapX, tileMapY, regionLoadRadius, regionUnloadRadius);
+            else tileMap = TileMap.load(tileMapFileName, tileTypesFileName, tileMapX, tileMapY);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds the single layer made of the image element if no backgroundLayer element was read.
+     */
+    protected void addDefaultBackgroundLayer() {
+        if (backgroundLayers.isEmpty() && backGroundFileName != null)
+            backgroundLayers.add(new BackgroundLayer(backGroundFileName, backGroundX, backGroundY, backGroundWidth, backGroundHeight, 1, false, false));
+    }
+
+    /**
+     * @return backGroundX's property value.
+     */
+    public double getBackGroundX() {
+        return backGroundX;
+    }
+
+    /**
+     * @return backGroundY's property value.
+     */
+    public double getBackGroundY() {
+        return backGroundY;
+    }
+
+    /**
+     * @return backGroundWidth's property value.
+     */
+    public double getBackGroundWidth() {
+        return backGroundWidth;
+    }
+
+    /**
+     * @return backGroundHeight's property value.
+     */
+    public double getBackGroundHeight() {
+        return backGroundHeight;
+    }
+
+    /**
+     * Returns the appropriate room .xml file based on its room number.
+     * Note : If the room number doesn't exist a NoSuchFile string is returned.
+     * @param roomNumber The room's number that refers to the file you try to get.
+     * @return the .xml file that matches to the roomNumber parameter.
+     */
+    public String getRoomFile(String roomNumber) {
+        if (!roomNumber.startsWith("Room")) return "NoSuchFile";
+        try {
+            int index = Integer.parseInt(roomNumber.substring(4)) - 1;
+            if (index >= 0 && index < roomFiles.size()) return roomFiles.get(index);
+        } catch (NumberFormatException ignored) {
+        }
+        return "NoSuchFile";
+    }
+
+    /**
+     * @return roomFiles' property value.
+     */
+    public ArrayList<String> getRoomFiles() {
+        return roomFiles;
+    }
+
+    /**
+     * @return PlatformElements' property value.
+     */
+    public ArrayList<Platform> getPlatformElements() {
+        return platformElements;
+    }
+
+    /**
+     * @return CoinElements' property value.
+     */
+    public ArrayList<Coin> getCoinElements() {
+        return coinElements;
+    }
+
+    /**
+     * @return DoorElements' property value.
+     */
+    public ArrayList<Door> getDoorElements() {
+        return doorElements;
+    }
+
+    /**
+     * @return SpikeElements' property value.
+     */
+    public ArrayList<Spike> getSpikeElements() {
+        return spikeElements;
+    }
+
+    /**
+     * @return NpcElements' property value.
+     */
+    public ArrayList<Npc> getNpcElements() {
+        return npcElements;
+    }
+
+    /**
+     * @return otherElements' property value.
+     */
+    public ArrayList<Tile> getOtherElements() {
+        return otherElements;
+    }
+
+    /**
+     * @return tileElements' property value, null if the tile elements weren't kept.
+     */
+    public ArrayList<TileElement> getTileElements() {
+        return tileElements;
+    }
+
+    /**
+     * @return tileMap's property value, null if the level has no TileMap.
+     */
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    /**
+     * @return tileMapFileName's property value, null if the level has no TileMap.
+     */
+    public String getTileMapFileName() {
+        return tileMapFileName;
+    }
+
+    /**
+     * @return tileTypesFileName's property value.
+     */
+    public String getTileTypesFileName() {
+        return tileTypesFileName;
+    }
+
+    /**
+     * @return tileMapX's property value.
+     */
+    public int getTileMapX() {
+        return tileMapX;
+    }
+
+    /**
+     * @return tileMapY's property value.
+     */
+    public int getTileMapY() {
+        return tileMapY;
+    }
+
+    /**
+     * @return regionLoadRadius' property value.
+     */
+    public int getRegionLoadRadius() {
+        return regionLoadRadius;
+    }
+
+    /**
+     * @return regionUnloadRadius' property value.
+     */
+    public int getRegionUnloadRadius() {
+        return regionUnloadRadius;
+    }
+
+    /**
+     * @return startPositionX's property value.
+     */
+    public double getStartPosX() {
+        return startPosX;
+    }
+
+    /**
+     * @return startPositionY's property value.
+     */
+    public double getStartPosY() {
+        return startPosY;
+    }
+
+    /**
+     * @return speed's property value.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return gravity's property value.
+     */
+    public double getGravity() {
+        return gravity;
+    }
+
+    /**
+     * @return keyOrder's property value.
+     */
+    public int getKeyOrder() {
+        return keyOrder;
+    }
+
+    /**
+     * @return backGroundFileName's property value.
+     */
+    public String getBackGroundFileName() {
+        return backGroundFileName;
+    }
+
+    /**
+     * @return rotation's property value.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * @return blink's property value.
+     */
+    public boolean getBlink() {
+        return blink;
+    }
+
+    /**
+     * @return renderMode's property value.
+     */
+    public String getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * @return backgroundLayers' property value.
+     */
+    public ArrayList<BackgroundLayer> getBackgroundLayers() {
+        return backgroundLayers;
+    }
+
+}
@@ -0,0 +1,245 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+public class SpatialGrid<T> {
+
+    /**
+     * Size in pixels of a square cell of the grid.
+     */
+    private final int cellSize;
+
+    /**
+     * List of all the indexed elements.
+     */
+    private final ArrayList<T> items = new ArrayList<>();
+
+    /**
+     * Bounds of the indexed elements, stored four by four (x, y, width, height).
+     */
+    private double[] bounds = new double[64];
+
+    /**
+     * Column index of the grid's first cell.
+     */
+    private int minColumn;
+
+    /**
+     * Row index of the grid's first cell.
+     */
+    private int minRow;
+
+    /**
+     * Number of columns of the grid.
+     */
+    private int columns;
+
+    /**
+     * Number of rows of the grid.
+     */
+    private int rows;
+
+    /**
+     * Start offset of each cell inside the cellItems array. The cell i owns the indexes from cellStart[i] to cellStart[i + 1].
+     */
+    private int[] cellStart = new int[1];
+
+    /**
+     * Indexes of the elements referenced by each cell.
+     */
+    private int[] cellItems = new int[0];
+
+    /**
+     * Last query's stamp of each element, used to report an element spanning several cells only once.
+     */
+    private int[] stamps = new int[0];
+
+    /**
+     * Stamp of the actual query.
+     */
+    private int stamp;
+
+    /**
+     * Number of distinct elements tested by the last query.
+     */
+    private int visited;
+
+    /**
+     * Indexes of the elements matched by the actual query, sorted before being reported.
+     */
+    private int[] found = new int[16];
+
+    /**
+     * Creates an empty SpatialGrid made of square cells.
+     * Elements have to be added with {@link #add(Object, double, double, double, double)} before calling {@link #build()}.
+     * @param cellSize size in pixels of a cell, usually the GameScene's tileSize.
+     */
+    public SpatialGrid(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an element to the grid with its world bounds.
+     * Note : the grid has to be built again for this element to be returned by the queries.
+     * @param item element to index.
+     * @param x X-axis coordinate.
+     * @param y Y-axis coordinate.
+     * @param width element's width.
+     * @param height element's height.
+     */
+    public void add(T item, double x, double y, double width, double height) {
+        int index = items.size();
+        if (bounds.length < (index + 1) * 4) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        bounds[index * 4] = x;
+        bounds[index * 4 + 1] = y;
+        bounds[index * 4 + 2] = width;
+        bounds[index * 4 + 3] = height;
+        items.add(item);
+    }
+
+    /**
+     * Sorts the added elements into the cells they overlap.
+     * This method is called once, after every element of the level has been added.
+     */
+    public void build() {
+        int count = items.size();
+        stamps = new int[count];
+        if (count == 0) {
+            columns = rows = 0;
+            cellStart = new int[1];
+            cellItems = new int[0];
+            return;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, cell(bounds[i * 4]));
+            minY = Math.min(minY, cell(bounds[i * 4 + 1]));
+            maxX = Math.max(maxX, cell(bounds[i * 4] + bounds[i * 4 + 2]));
+            maxY = Math.max(maxY, cell(bounds[i * 4 + 1] + bounds[i * 4 + 3]));
+        }
+        minColumn = minX;
+        minRow = minY;
+        columns = maxX - minX + 1;
+        rows = maxY - minY + 1;
+
+        // First pass counts the elements of each cell, second pass fills them in.
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < count; i++) {
+            for (int row = firstRow(i); row <= lastRow(i); row++)
+                for (int column = firstColumn(i); column <= lastColumn(i); column++)
+                    cellStart[row * columns + column + 1]++;
+        }
+        for (int i = 0; i < columns * rows; i++) cellStart[i + 1] += cellStart[i];
+
+        cellItems = new int[cellStart[columns * rows]];
+        int[] fill = Arrays.copyOf(cellStart, columns * rows);
+        for (int i = 0; i < count; i++) {
+            for (int row = firstRow(i); row <= lastRow(i); row++)
+                for (int column = firstColumn(i); column <= lastColumn(i); column++)
+                    cellItems[fill[row * columns + column]++] = i;
+        }
+    }
+
+    /**
+     * Adds to the result list every element whose bounds intersect the provided rectangle.
+     * Only the cells overlapped by the rectangle are visited, and each element is reported once, in the order the elements were added.
+     * Note : the result list isn't cleared, and touching edges count as an intersection.
+     * @param x X-axis coordinate of the rectangle.
+     * @param y Y-axis coordinate of the rectangle.
+     * @param width rectangle's width.
+     * @param height rectangle's height.
+     * @param result list in which the matching elements are added.
+     */
+    public void query(double x, double y, double width, double height, List<? super T> result) {
+        visited = 0;
+        if (columns == 0) return;
+        int firstColumn = Math.max(cell(x) - minColumn, 0);
+        int lastColumn = Math.min(cell(x + width) - minColumn, columns - 1);
+        int firstRow = Math.max(cell(y) - minRow, 0);
+        int lastRow = Math.min(cell(y + height) - minRow, rows - 1);
+        if (firstColumn > lastColumn || firstRow > lastRow) return;
+
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cellIndex = row * columns + column;
+                for (int i = cellStart[cellIndex]; i < cellStart[cellIndex + 1]; i++) {
+                    int index = cellItems[i];
+                    if (stamps[index] != stamp) {
+                        stamps[index] = stamp;
+                        visited++;
+                        if (intersects(index, x, y, width, height)) {
+                            if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                            found[count++] = index;
+                        }
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        for (int i = 0; i < count; i++) result.add(items.get(found[i]));
+    }
+
+    /**
+     * @return the number of distinct elements tested by the last query, matching or not.
+     */
+    public int getVisited() {
+        return visited;
+    }
+
+    /**
+     * @return the number of indexed elements.
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * @param coordinate X or Y-axis coordinate.
+     * @return the absolute index of the cell containing the coordinate.
+     */
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int firstColumn(int index) {
+        return cell(bounds[index * 4]) - minColumn;
+    }
+
+    private int lastColumn(int index) {
+        return cell(bounds[index * 4] + bounds[index * 4 + 2]) - minColumn;
+    }
+
+    private int firstRow(int index) {
+        return cell(bounds[index * 4 + 1]) - minRow;
+    }
+
+    private int lastRow(int index) {
+        return cell(bounds[index * 4 + 1] + bounds[index * 4 + 3]) - minRow;
+    }
+
+    /**
+     * @return true if the element's bounds intersect the provided rectangle.
+     */
+    private boolean intersects(int index, double x, double y, double width, double height) {
+        double itemX = bounds[index * 4];
+        double itemY = bounds[index * 4 + 1];
+        return x <= itemX + bounds[index * 4 + 2] && x + width >= itemX
+                && y <= itemY + bounds[index * 4 + 3] && y + height >= itemY;
+    }
+}
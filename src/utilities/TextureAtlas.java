@@ -0,0 +1,236 @@
+package utilities;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Combines many sprites into a few atlas images, and indexes the region of each sprite by name.
+ * The sprites are packed on shelves : they are sorted by decreasing height and placed from left to right on rows,
+ * a new row being started when the actual one is full, and a new page when the actual one reaches the maximum size.
+ * An atlas can be built on any thread, since its pages are only written through a PixelWriter before being displayed.
+ * @see Builder
+ */
+public class TextureAtlas {
+
+    /**
+     * Maximum width and height of an atlas page.
+     */
+    public static final int maxPageSize = 2048;
+    /**
+     * Transparent pixels left between two regions, so that a scaled region doesn't sample its neighbours.
+     */
+    private static final int padding = 1;
+
+    /**
+     * Atlas images.
+     */
+    private final ArrayList<WritableImage> pages = new ArrayList<>();
+    /**
+     * Regions by name.
+     */
+    private final HashMap<String, Region> regions = new HashMap<>();
+
+    private TextureAtlas() {
+    }
+
+    /**
+     * Names a sprite decoded with a requested size.
+     * @param fileName directory and name of the sprite's image.
+     * @param requestedWidth the sprite's requested width.
+     * @param requestedHeight the sprite's requested height.
+     * @return the region's name.
+     */
+    public static String regionName(String fileName, double requestedWidth, double requestedHeight) {
+        return fileName + "@" + (int) requestedWidth + "x" + (int) requestedHeight;
+    }
+
+    /**
+     * @param name the region's name.
+     * @return the region, or null if no sprite was packed with this name.
+     */
+    public Region getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * @return the number of regions.
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return the number of atlas images.
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * @return the number of bytes of the atlas images, decoded in 32 bits ARGB.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (WritableImage page : pages)
+            bytes += (long) page.getWidth() * (long) page.getHeight() * 4;
+        return bytes;
+    }
+
+    /**
+     * A sprite's area inside an atlas image.
+     */
+    public static final class Region {
+        /**
+         * The region's name.
+         */
+        private final String name;
+        /**
+         * The atlas image that holds the region.
+         */
+        private final Image image;
+        /**
+         * Area of the sprite inside the atlas image.
+         */
+        private final Rectangle2D viewport;
+
+        private Region(String name, Image image, int x, int y, int width, int height) {
+            this.name = name;
+            this.image = image;
+            viewport = new Rectangle2D(x, y, width, height);
+        }
+
+        /**
+         * @return the name's property value.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the atlas image that holds the region.
+         */
+        public Image getImage() {
+            return image;
+        }
+
+        /**
+         * @return the region's area inside the atlas image, to be used as an ImageView's viewport.
+         */
+        public Rectangle2D getViewport() {
+            return viewport;
+        }
+
+        /**
+         * @return the X-axis coordinate of the region inside the atlas image.
+         */
+        public double getX() {
+            return viewport.getMinX();
+        }
+
+        /**
+         * @return the Y-axis coordinate of the region inside the atlas image.
+         */
+        public double getY() {
+            return viewport.getMinY();
+        }
+
+        /**
+         * @return the region's width.
+         */
+        public double getWidth() {
+            return viewport.getWidth();
+        }
+
+        /**
+         * @return the region's height.
+         */
+        public double getHeight() {
+            return viewport.getHeight();
+        }
+    }
+
+    /**
+     * Collects the sprites to pack, then packs them into a TextureAtlas.
+     */
+    public static final class Builder {
+
+        /**
+         * Sprites to pack, by name.
+         */
+        private final HashMap<String, Image> sprites = new HashMap<>();
+
+        /**
+         * Adds a decoded sprite to pack. A sprite whose name was already added, that couldn't be decoded,
+         * or whose pixels can't be read, like an animated GIF, is ignored.
+         * @param name the region's name.
+         * @param image the decoded sprite.
+         */
+        public void add(String name, Image image) {
+            if (image.isError() || image.getWidth() < 1 || image.getHeight() < 1 || image.getPixelReader() == null) return;
+            sprites.putIfAbsent(name, image);
+        }
+
+        /**
+         * Packs the added sprites. Each page is only as large as its packed regions need.
+         * @return the built TextureAtlas.
+         */
+        public TextureAtlas build() {
+            TextureAtlas atlas = new TextureAtlas();
+            ArrayList<String> names = new ArrayList<>(sprites.keySet());
+            names.sort(Comparator.comparingDouble((String name) -> -sprites.get(name).getHeight()).thenComparing(name -> name));
+
+            // First pass computes the layout of each page, second pass copies the sprites' pixels.
+            ArrayList<int[]> positions = new ArrayList<>();
+            ArrayList<int[]> pageSizes = new ArrayList<>();
+            int page = 0, x = 0, y = 0, shelfHeight = 0, pageWidth = 0;
+            for (String name : names) {
+                Image image = sprites.get(name);
+                int width = (int) image.getWidth() + padding;
+                int height = (int) image.getHeight() + padding;
+                if (x > 0 && x + width > maxPageSize) {
+                    x = 0;
+                    y += shelfHeight;
+                    shelfHeight = 0;
+                }
+                if (y > 0 && y + height > maxPageSize) {
+                    pageSizes.add(new int[]{pageWidth, y + shelfHeight});
+                    page++;
+                    x = y = shelfHeight = pageWidth = 0;
+                }
+                positions.add(new int[]{page, x, y});
+                x += width;
+                shelfHeight = Math.max(shelfHeight, height);
+                pageWidth = Math.max(pageWidth, x);
+            }
+            if (!names.isEmpty()) pageSizes.add(new int[]{pageWidth, y + shelfHeight});
+
+            for (int[] size : pageSizes)
+                atlas.pages.add(new WritableImage(size[0], size[1]));
+
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                Image image = sprites.get(name);
+                int[] position = positions.get(i);
+                WritableImage pageImage = atlas.pages.get(position[0]);
+                int width = (int) image.getWidth();
+                int height = (int) image.getHeight();
+                PixelReader reader = image.getPixelReader();
+                pageImage.getPixelWriter().setPixels(position[1], position[2], width, height, reader, 0, 0);
+                atlas.regions.put(name, new Region(name, pageImage, position[1], position[2], width, height));
+            }
+            return atlas;
+        }
+    }
+}
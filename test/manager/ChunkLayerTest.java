@@ -0,0 +1,73 @@
+package manager;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+import scenes.GameScene;
+import tiles.Platform;
+import tiles.Tile;
+import utilities.TextureAtlas;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static manager.ChunkLayer.chunkSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that the ChunkLayer shows exactly the baked chunks overlapping the view, while the view moves anywhere around the level.
+ * @see ChunkLayer#render(double, double, double, double)
+ */
+class ChunkLayerTest {
+
+    @Test
+    void rendersTheChunksOverlappingTheView() {
+        // Platforms scattered over a few chunks, leaving some chunks empty, some of them left of and above the origin.
+        Random random = new Random(1);
+        ArrayList<Tile> tiles = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            double x = (random.nextInt(100) - 20) * GameScene.tileSize;
+            double y = (random.nextInt(24) - 8) * GameScene.tileSize;
+            if (Math.floorMod((int) Math.floor(x / chunkSize), 3) == 1) continue;
+            tiles.add(new Platform("/images/Tiles_256x256/BGTile (3).png", x, y, true));
+        }
+        TextureAtlas.Builder builder = new TextureAtlas.Builder();
+        WritableImage sprite = new WritableImage(GameScene.tileSize, GameScene.tileSize);
+        for (int i = 0; i < GameScene.tileSize; i++)
+            sprite.getPixelWriter().setArgb(i, i, 0xFF000000);
+        builder.add(tiles.get(0).getRegionName(), sprite);
+        TextureAtlas atlas = builder.build();
+        for (Tile tile : tiles)
+            tile.setRegion(atlas.getRegion(tile.getRegionName()));
+
+        ChunkLayer layer = ChunkLayer.bake(tiles);
+        Group root = new Group();
+        layer.attach(root);
+
+        for (int i = 0; i < 500; i++) {
+            double viewX = random.nextDouble() * chunkSize * 10 - chunkSize * 4;
+            double viewY = random.nextDouble() * chunkSize * 6 - chunkSize * 3;
+            // Views aligned on the chunks' edges too.
+            if (i % 5 == 0) viewX = Math.floor(viewX / chunkSize) * chunkSize;
+            layer.render(viewX, viewY, GameScene.screenWidth, GameScene.screenHeight);
+
+            int expected = 0;
+            for (Node node : root.getChildren()) {
+                ImageView chunk = (ImageView) node;
+                boolean overlaps = chunk.getX() < viewX + GameScene.screenWidth && chunk.getX() + chunkSize > viewX
+                        && chunk.getY() < viewY + GameScene.screenHeight && chunk.getY() + chunkSize > viewY;
+                assertEquals(overlaps, chunk.isVisible(), "chunk at " + chunk.getX() + ", " + chunk.getY() + " for the view at " + viewX + ", " + viewY);
+                if (overlaps) expected++;
+            }
+            assertEquals(expected, layer.getDrawnChunks());
+        }
+    }
+}
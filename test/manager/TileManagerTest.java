@@ -0,0 +1,61 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.FxToolkit;
+import utilities.ImageCache;
+import utilities.LevelReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that a sprite that can't be decoded doesn't leak the other sprites acquired by TileManager.buildAtlas.
+ * @see TileManager#buildAtlas(java.util.function.BiConsumer)
+ */
+class TileManagerTest {
+
+    @Test
+    void failedAtlasReleasesEverySprite(@TempDir Path directory) throws IOException, InterruptedException {
+        FxToolkit.start();
+        // The missing sprite is collected first, so that it fails while the other sprites are still being decoded.
+        StringBuilder level = new StringBuilder("<?xml version=\"1.0\"?>\n<jeux>\n<level id=\"1\">\n");
+        level.append(platform("Missing.png", 0));
+        for (int i = 1; i <= 15; i++)
+            level.append(platform("Tile (" + i + ").png", i));
+        for (int i = 1; i <= 7; i++)
+            level.append(platform("BGTile (" + i + ").png", 15 + i));
+        level.append("</level>\n</jeux>\n");
+        Files.writeString(directory.resolve("Broken.xml"), level, StandardCharsets.UTF_8);
+
+        int size = ImageCache.getSize();
+        long bytes = ImageCache.getBytes();
+        TileManager tileManager = new TileManager(LevelReader.open(directory.resolve("Broken").toString(), "level"));
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> tileManager.buildAtlas(null));
+        assertTrue(failure.getMessage().startsWith("Can't decode /images/Tiles_256x256/Missing.png"), failure.getMessage());
+        assertNull(tileManager.getAtlas());
+        assertEquals(size, ImageCache.getSize());
+        assertEquals(bytes, ImageCache.getBytes());
+    }
+
+    /**
+     * @return a platform element of a single tile.
+     */
+    private static String platform(String sprite, int column) {
+        return "<platform><coordinates>" + column * 64 + ",0</coordinates><sprite>" + sprite
+                + "</sprite><collision>true</collision><numberX>1</numberX><numberY>1</numberY></platform>\n";
+    }
+}
@@ -0,0 +1,100 @@
+package manager;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scenes.GameScene;
+import tiles.TileMap;
+import tiles.TileType;
+import utilities.FxToolkit;
+import utilities.TextureAtlas;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static manager.ChunkLayer.chunkSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that the TileMapLayer bakes at most one chunk per render, catches up with the view once it stops,
+ * and reuses the images of the released chunks while the view crosses a wide grid.
+ * @see TileMapLayer#render(double, double, double, double)
+ */
+class TileMapLayerTest {
+
+    /**
+     * Grid's number of columns : 25 chunks.
+     */
+    private static final int columns = 400;
+    /**
+     * Grid's number of rows : 3 chunks.
+     */
+    private static final int rows = 40;
+
+    @Test
+    void bakesOneChunkPerRenderAndReusesImages(@TempDir Path directory) throws IOException, InterruptedException {
+        FxToolkit.start();
+        // Every cell is Tile (1).png, so that no chunk is empty.
+        StringBuilder grid = new StringBuilder();
+        for (int row = 0; row < rows; row++)
+            grid.append("14 ".repeat(columns)).append('\n');
+        Path gridFile = directory.resolve("grid.txt");
+        Files.writeString(gridFile, grid, StandardCharsets.UTF_8);
+        TileMap map = TileMap.load(gridFile.toUri().toString(), "/tiles.txt", 0, 0);
+
+        TextureAtlas.Builder builder = new TextureAtlas.Builder();
+        WritableImage sprite = new WritableImage(GameScene.tileSize, GameScene.tileSize);
+        for (int i = 0; i < GameScene.tileSize; i++)
+            sprite.getPixelWriter().setArgb(i, i, 0xFF000000);
+        for (TileType type : map.getTypes())
+            if (!type.isEmpty()) builder.add(type.getRegionName(), sprite);
+        TileMapLayer layer = new TileMapLayer(map, builder.build());
+        Group root = new Group();
+        layer.attach(root);
+        Group chunks = (Group) root.getChildren().get(0);
+
+        Set<Node> imageViews = Collections.newSetFromMap(new IdentityHashMap<>());
+        double viewY = chunkSize / 2.0;
+        for (double viewX = 0; viewX + GameScene.screenWidth <= columns * GameScene.tileSize; viewX += GameScene.tileSize) {
+            int baked = layer.getBakedChunks();
+            layer.render(viewX, viewY, GameScene.screenWidth, GameScene.screenHeight);
+            assertTrue(layer.getBakedChunks() - baked <= TileMapLayer.bakesPerRender, "more than one chunk baked at " + viewX);
+            // At most 4 x 3 chunks are held around a view of 2 x 2 chunks, and a few more by the pool.
+            assertTrue(layer.getHeldImages() <= 12 + TileMapLayer.pooledImages, layer.getHeldImages() + " images held at " + viewX);
+            imageViews.addAll(chunks.getChildren());
+        }
+        assertTrue(imageViews.size() < layer.getBakedChunks() / 2, imageViews.size() + " ImageView objects for " + layer.getBakedChunks() + " chunks baked");
+
+        // Once the view stops, the chunks it overlaps are all baked and drawn within a few renders.
+        double viewX = 10.5 * chunkSize;
+        for (int i = 0; i < 4; i++)
+            layer.render(viewX, viewY, GameScene.screenWidth, GameScene.screenHeight);
+        assertEquals(4, layer.getDrawnChunks());
+        for (Node node : chunks.getChildren()) {
+            ImageView chunk = (ImageView) node;
+            boolean overlaps = chunk.getX() < viewX + GameScene.screenWidth && chunk.getX() + chunkSize > viewX
+                    && chunk.getY() < viewY + GameScene.screenHeight && chunk.getY() + chunkSize > viewY;
+            assertEquals(overlaps, chunk.isVisible(), "chunk at " + chunk.getX() + ", " + chunk.getY());
+            // A reused image holds the chunk's cells : the sprite's diagonal starts at the chunk's corner.
+            assertEquals(0xFF000000, ((WritableImage) chunk.getImage()).getPixelReader().getArgb(0, 0));
+            assertEquals(0, ((WritableImage) chunk.getImage()).getPixelReader().getArgb(1, 0));
+        }
+        layer.dispose();
+        assertEquals(0, layer.getHeldImages());
+    }
+}
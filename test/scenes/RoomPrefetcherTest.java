@@ -0,0 +1,100 @@
+package scenes;
+
+import org.junit.jupiter.api.Test;
+import utilities.FxToolkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that the RoomPrefetcher keeps the prefetched scenes within its memory budget, counting the scenes still loading,
+ * that a scene dropped to respect the budget isn't loaded again while the Hero stays close to its door,
+ * and that a prefetched scene still waiting for the prefetching worker thread is dropped once requested.
+ * The prefetcher is called on the JavaFX thread, like the SceneDirector does.
+ * @see RoomPrefetcher
+ */
+class RoomPrefetcherTest {
+
+    private static final String room1 = "Level1/Room1";
+    private static final String room2 = "Level1/Room2";
+
+    @Test
+    void evictedSceneIsNotLoadedAgain() throws Exception {
+        FxToolkit.start();
+        RoomPrefetcher prefetcher = new RoomPrefetcher();
+        FxToolkit.run(() -> prefetcher.prefetch(room1, Room.getType()));
+        FxToolkit.waitUntil(() -> prefetcher.getPendingBytes() == 0, room1);
+        long[] size = new long[1];
+        FxToolkit.run(() -> size[0] = prefetcher.getUsedBytes());
+        assertTrue(size[0] > 0, "nothing decoded");
+
+        FxToolkit.run(() -> {
+            prefetcher.setMemoryBudget(size[0] - 1);
+            assertEquals(0, prefetcher.getUsedBytes());
+            // The Hero stays close to the door : the dropped scene, now known to be too large, isn't loaded again.
+            for (int i = 0; i < 10; i++) {
+                prefetcher.prefetch(room1, Room.getType());
+                assertEquals(0, prefetcher.getPendingBytes());
+            }
+            assertNull(prefetcher.take(room1, Room.getType()));
+            prefetcher.clear();
+        });
+    }
+
+    @Test
+    void runningLoadingsAreCharged() throws Exception {
+        FxToolkit.start();
+        RoomPrefetcher prefetcher = new RoomPrefetcher();
+        long budget = RoomPrefetcher.defaultEstimate * 3 / 2;
+        FxToolkit.run(() -> {
+            prefetcher.setMemoryBudget(budget);
+            prefetcher.prefetch(room1, Room.getType());
+            // Two running loadings would exceed the budget once loaded.
+            prefetcher.prefetch(room2, Room.getType());
+            assertEquals(RoomPrefetcher.defaultEstimate, prefetcher.getPendingBytes());
+        });
+        FxToolkit.waitUntil(() -> prefetcher.getPendingBytes() == 0, room1);
+
+        FxToolkit.run(() -> {
+            assertTrue(prefetcher.getUsedBytes() > 0 && prefetcher.getUsedBytes() <= budget, prefetcher.getUsedBytes() + " bytes used");
+            prefetcher.prefetch(room2, Room.getType());
+            assertEquals(0, prefetcher.getPendingBytes());
+            assertNull(prefetcher.take(room2, Room.getType()));
+
+            // Nothing is prefetched once the budget is used up.
+            prefetcher.setMemoryBudget(prefetcher.getUsedBytes());
+            prefetcher.prefetch(room2, Room.getType());
+            assertEquals(0, prefetcher.getPendingBytes());
+            prefetcher.clear();
+        });
+    }
+
+    @Test
+    void queuedPrefetchIsCancelledWhenTaken() throws Exception {
+        FxToolkit.start();
+        RoomPrefetcher prefetcher = new RoomPrefetcher();
+        boolean[] loaded = new boolean[1];
+        FxToolkit.run(() -> {
+            prefetcher.setMemoryBudget(RoomPrefetcher.defaultEstimate * 2);
+            prefetcher.prefetch(room1, Room.getType());
+            prefetcher.prefetch(room2, Room.getType());
+            // Room2 waits behind Room1 on the prefetching worker thread : it is dropped, so that the SceneDirector loads it at once.
+            assertNull(prefetcher.take(room2, Room.getType()));
+            assertEquals(RoomPrefetcher.defaultEstimate, prefetcher.getPendingBytes());
+        });
+        FxToolkit.waitUntil(() -> prefetcher.getPendingBytes() == 0, room1);
+        FxToolkit.run(() -> {
+            SceneLoader loader = prefetcher.take(room1, Room.getType());
+            loaded[0] = loader != null && loader.getValue() != null;
+            if (loader != null) loader.discard();
+        });
+        assertTrue(loaded[0], "Room1 wasn't prefetched");
+    }
+}
@@ -0,0 +1,119 @@
+package scenes;
+
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utilities.FrameScheduler;
+import utilities.FxToolkit;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that switching between Levels and Rooms doesn't leak : the FrameScheduler's tasks of a hidden or disposed GameScene
+ * are removed, every GameScene left behind is disposed, and none of them stays reachable.
+ * @see SceneDirector
+ * @see GameScene#dispose()
+ */
+class SceneDirectorTest {
+
+    /**
+     * Number of Level -> Room -> Level cycles.
+     */
+    private static final int cycles = 12;
+
+    private static Stage stage;
+
+    @BeforeAll
+    static void start() throws Exception {
+        FxToolkit.start();
+        FxToolkit.run(() -> {
+            stage = new Stage();
+            SceneDirector.start(stage);
+            stage.show();
+        });
+        FxToolkit.waitUntil(() -> stage.getScene() instanceof MainMenuScene, "the main menu");
+    }
+
+    @Test
+    void transitionsReleaseEveryScene() throws Exception {
+        ArrayList<WeakReference<GameScene>> scenes = new ArrayList<>();
+        int[] taskCounts = new int[cycles];
+        Runtime runtime = Runtime.getRuntime();
+        long firstHeap = 0;
+
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            // Switching Level every cycle disposes the previous Level and its Rooms.
+            String levelName = cycle % 2 == 0 ? "Level1" : "Level2";
+            FxToolkit.run(() -> SceneDirector.requestLevel(levelName));
+            FxToolkit.waitUntil(() -> stage.getScene() instanceof Level && levelName.equals(SceneDirector.getActualLevel()), levelName);
+            Scene level = show(null);
+            scenes.add(new WeakReference<>((GameScene) level));
+
+            FxToolkit.run(() -> SceneDirector.requestRoom("Room1"));
+            FxToolkit.waitUntil(() -> stage.getScene() instanceof Room, levelName + "/Room1");
+            scenes.add(new WeakReference<>((GameScene) show(null)));
+
+            FxToolkit.run(() -> SceneDirector.requestRoom(SceneDirector.defaultRoom));
+            FxToolkit.waitUntil(() -> stage.getScene() == level, levelName + " again");
+            show(level);
+
+            // The cancelled tasks are removed on the next pulse.
+            FxToolkit.waitPulses(3);
+            int[] count = new int[1];
+            FxToolkit.run(() -> count[0] = FrameScheduler.getTaskCount());
+            taskCounts[cycle] = count[0];
+            if (cycle == 1) firstHeap = usedHeap(runtime);
+        }
+
+        for (int cycle = 1; cycle < cycles; cycle++)
+            assertEquals(taskCounts[0], taskCounts[cycle], "FrameScheduler tasks after cycle " + cycle);
+
+        FxToolkit.run(() -> SceneDirector.requestLevel(SceneDirector.mainMenu));
+        FxToolkit.waitUntil(() -> stage.getScene() instanceof MainMenuScene, "the main menu");
+        for (WeakReference<GameScene> scene : scenes) {
+            GameScene gameScene = scene.get();
+            assertTrue(gameScene == null || gameScene.isDisposed(), "GameScene not disposed");
+        }
+
+        // Nothing may keep a disposed GameScene, with its World and images, reachable.
+        FxToolkit.waitPulses(3);
+        long lastHeap = usedHeap(runtime);
+        for (WeakReference<GameScene> scene : scenes)
+            assertNull(scene.get(), "GameScene still reachable");
+        assertTrue(lastHeap < firstHeap + 64L * 1048576, "heap grew from " + firstHeap / 1048576 + " MB to " + lastHeap / 1048576 + " MB");
+    }
+
+    /**
+     * Returns the Scene shown on the Stage, after checking that it is the expected one.
+     * @param expected the expected Scene, or null to accept any Scene.
+     */
+    private static Scene show(Scene expected) throws Exception {
+        Scene[] shown = new Scene[1];
+        FxToolkit.run(() -> shown[0] = stage.getScene());
+        if (expected != null) assertEquals(expected, shown[0]);
+        return shown[0];
+    }
+
+    /**
+     * @return the heap's used bytes, once the unreachable objects are collected.
+     */
+    private static long usedHeap(Runtime runtime) throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,76 @@
+package scenes;
+
+import javafx.concurrent.Worker;
+import org.junit.jupiter.api.Test;
+import simulation.World;
+import utilities.FxToolkit;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that a SceneLoader discarded at the end of its loading releases the loaded World : the TileManager's atlas is dropped once disposed.
+ * @see SceneLoader#discard()
+ */
+class SceneLoaderTest {
+
+    private static final String room = "Level1/Room1";
+
+    /**
+     * SceneLoader discarded once its World is loaded, before it is handed back to the JavaFX thread.
+     */
+    private static class LateDiscardedLoader extends SceneLoader {
+
+        private volatile World world;
+
+        private LateDiscardedLoader() {
+            super(room, Room.getType());
+        }
+
+        @Override
+        protected World call() {
+            world = super.call();
+            try {
+                FxToolkit.run(this::discard);
+            } catch (Exception e) {
+                fail(e);
+            }
+            return world;
+        }
+    }
+
+    @Test
+    void cancelledAfterLoadingReleasesWorld() throws Exception {
+        FxToolkit.start();
+        LateDiscardedLoader loader = new LateDiscardedLoader();
+        FxToolkit.run(loader::start);
+        FxToolkit.waitUntil(() -> loader.getState() == Worker.State.CANCELLED, "the cancellation");
+        assertNotNull(loader.world, "the World wasn't loaded");
+        assertNull(loader.world.getTileManager().getAtlas(), "the World wasn't disposed");
+    }
+
+    @Test
+    void discardedBeforeSuccessReleasesWorld() throws Exception {
+        FxToolkit.start();
+        SceneLoader loader = new SceneLoader(room, Room.getType());
+        // The JavaFX thread is held until the loading ended, so that it is discarded before it succeeds.
+        FxToolkit.run(() -> {
+            loader.start();
+            while (!loader.isDone()) Thread.onSpinWait();
+            assertNotEquals(Worker.State.SUCCEEDED, loader.getState());
+            loader.discard();
+        });
+        FxToolkit.waitUntil(() -> loader.getState() == Worker.State.SUCCEEDED, "the success");
+        World[] world = new World[1];
+        FxToolkit.run(() -> world[0] = loader.getValue());
+        assertNull(world[0].getTileManager().getAtlas(), "the World wasn't disposed");
+    }
+}
@@ -0,0 +1,77 @@
+package simulation;
+
+import com.sun.management.ThreadMXBean;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.Test;
+import scenes.GameScene;
+import tiles.TileMap;
+import utilities.KeyHandler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Walks the Hero across a world generated by the WorldGenerator, stepping the World like the HeadlessRunner,
+ * and checks that the streamed TileMap never holds more regions than the square of the unload radius around the Hero's region.
+ * It also checks that the steps during which the Hero stays in the same region don't allocate.
+ * @see TileMap#stream(double, double, double, double)
+ * @see WorldGenerator
+ */
+class StreamedWorldTest {
+
+    /**
+     * Number of columns of the generated world : 24 regions.
+     */
+    private static final int columns = 24 * TileMap.regionTiles;
+    /**
+     * Number of rows of the generated world : 4 regions.
+     */
+    private static final int rows = 4 * TileMap.regionTiles;
+
+    @Test
+    void heldRegionsStayBounded() throws IOException {
+        String name = WorldGenerator.generate("StreamedWorldTest", columns, rows);
+        KeyHandler keyHandler = new KeyHandler();
+        keyHandler.keysPressed.add(KeyCode.D);
+        World world = new World(name, "room", keyHandler);
+        TileMap tileMap = world.getTileManager().getTileMap();
+        assertTrue(tileMap.isStreamed());
+        int unloadRadius = world.getReader().getRegionUnloadRadius();
+        int maximum = (2 * unloadRadius + 1) * (2 * unloadRadius + 1);
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double step = 1.0 / GameScene.defaultTickRate;
+        double end = (columns - 4) * (double) GameScene.tileSize;
+        long allocated = 0;
+        int steps = 0, measured = 0;
+        while (world.getHero().getX() < end && steps < 2000000) {
+            int region = tileMap.columnAt(world.getHero().getX()) / TileMap.regionTiles;
+            long readRegions = tileMap.getReadRegions();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            world.step(step);
+            long after = threads.getThreadAllocatedBytes(threadId);
+            steps++;
+            assertTrue(tileMap.getLoadedRegions() <= maximum, tileMap.getLoadedRegions() + " regions held at step " + steps);
+
+            // The steps entering another region request its neighbours, and the steps receiving a region may allocate.
+            if (steps < 10000 || region != tileMap.columnAt(world.getHero().getX()) / TileMap.regionTiles
+                    || readRegions != tileMap.getReadRegions()) continue;
+            allocated += after - before;
+            measured++;
+        }
+        assertTrue(world.getHero().getX() >= end, "the Hero stopped at " + world.getHero().getX());
+        assertTrue(tileMap.getReadRegions() > maximum, "only " + tileMap.getReadRegions() + " regions read");
+        assertTrue(measured > steps / 2, "only " + measured + " steps measured");
+        // A few hundred bytes may be allocated once while the compiler replaces the step's code.
+        assertTrue(allocated < 4096, allocated + " bytes allocated in " + measured + " steps");
+    }
+}
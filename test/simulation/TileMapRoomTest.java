@@ -0,0 +1,113 @@
+package simulation;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import scenes.GameScene;
+import utilities.BinaryLevelReader;
+import utilities.KeyHandler;
+import utilities.LevelCompiler;
+import utilities.XmlReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks the collisions with the cells of a TileMap, on a Room made of resources/levels/level_1.txt only, loaded from its .xml and its compiled file.
+ * The grid's row 7 is solid from column 2 to 27, except for two acid cells at columns 14 and 15 :
+ * the Hero lands on the solid cells, and dies on the acid cells.
+ * The Room is written in data/generated, which is ignored by git.
+ * @see utilities.CollisionChecker
+ * @see tiles.TileMap
+ */
+class TileMapRoomTest {
+
+    /**
+     * Row of the grid's floor.
+     */
+    private static final int floorRow = 7;
+    /**
+     * Number of steps run, two seconds.
+     */
+    private static final int steps = 2 * GameScene.defaultTickRate;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void heroLandsOnSolidCells(boolean compiled) throws IOException {
+        World world = load("TileMapSolid", 4, compiled);
+        int[] deaths = listen(world);
+        for (int i = 0; i < steps; i++)
+            world.step(1.0 / GameScene.defaultTickRate);
+
+        assertEquals(0, deaths[0]);
+        assertEquals(floorRow * GameScene.tileSize, world.getHero().getY() + world.getHero().getHitHeight(), 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void heroDiesOnAcidCells(boolean compiled) throws IOException {
+        World world = load("TileMapAcid", 14, compiled);
+        int[] deaths = listen(world);
+        for (int i = 0; i < steps; i++)
+            world.step(1.0 / GameScene.defaultTickRate);
+
+        assertTrue(deaths[0] > 0, "the Hero never died");
+    }
+
+    /**
+     * Writes a Room over level_1.txt whose Hero starts two rows above the floor, compiles it if requested, and loads it.
+     * @param column column of the grid the Hero starts on.
+     * @param compiled whether the Room is loaded from its compiled file rather than from its .xml file.
+     */
+    private static World load(String name, int column, boolean compiled) throws IOException {
+        File source = new File("./data/generated/" + name + ".xml");
+        File binary = new File("./data/generated/" + name + BinaryLevelReader.extension);
+        Files.createDirectories(source.getParentFile().toPath());
+        Files.writeString(source.toPath(), """
+                <?xml version="1.0"?>
+                <jeux>
+                    <room id="1">
+                        <startPositionX>%d</startPositionX>
+                        <startPositionY>%d</startPositionY>
+                        <startVelocity>150</startVelocity>
+                        <keyOrder>1</keyOrder>
+                        <gravity>250</gravity>
+                        <rotation>0</rotation>
+                        <tileMap x="0" y="0">/levels/level_1.txt</tileMap>
+                    </room>
+                </jeux>
+                """.formatted(column * GameScene.tileSize + 8, (floorRow - 2) * GameScene.tileSize), StandardCharsets.UTF_8);
+        Files.deleteIfExists(binary.toPath());
+        if (compiled) LevelCompiler.compile(new XmlReader(source.getPath(), "room", true), "room", source, binary);
+
+        World world = new World("generated/" + name, "room", new KeyHandler());
+        assertEquals(compiled, world.getReader() instanceof BinaryLevelReader);
+        assertFalse(world.getTileManager().getTileMap() == null, "the TileMap wasn't loaded");
+        return world;
+    }
+
+    /**
+     * @return the number of deaths of the Hero, updated as the World is stepped.
+     */
+    private static int[] listen(World world) {
+        int[] deaths = new int[1];
+        world.setListener(new WorldListener() {
+            @Override
+            public void playSound(String filename) {
+                if (filename.contains("Death")) deaths[0]++;
+            }
+        });
+        return deaths;
+    }
+}
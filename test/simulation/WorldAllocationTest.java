@@ -0,0 +1,80 @@
+package simulation;
+
+import com.sun.management.ThreadMXBean;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import scenes.GameScene;
+import tiles.Coin;
+import utilities.KeyHandler;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that stepping a warmed up World doesn't allocate : a step only updates preallocated state.
+ * The World is driven like the HeadlessRunner's bot, and the bytes allocated by the test's thread are read from the ThreadMXBean around each step.
+ * The steps that notify the World's listener, like a death or a collected coin, print a message and are left out.
+ * @see World#step(double)
+ * @see HeadlessRunner
+ */
+class WorldAllocationTest {
+
+    /**
+     * Number of steps run before measuring, so that the code is compiled and the lists have reached their final size.
+     */
+    private static final int warmUpSteps = 30000;
+    /**
+     * Number of measured steps.
+     */
+    private static final int steps = 20000;
+
+    @ParameterizedTest
+    @CsvSource({"Level1, level", "Level2, level", "Level1/Room1, room", "Level3/Room2, room"})
+    void stepDoesNotAllocate(String fileName, String type) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        KeyHandler keyHandler = new KeyHandler();
+        keyHandler.keysPressed.add(KeyCode.D);
+        World world = new World(fileName, type, keyHandler);
+        int[] events = new int[1];
+        world.setListener(new WorldListener() {
+            @Override
+            public void playSound(String filename) {
+                events[0]++;
+            }
+
+            @Override
+            public void coinCollected(Coin coin) {
+                events[0]++;
+            }
+        });
+        double step = 1.0 / GameScene.defaultTickRate;
+
+        long allocated = 0;
+        int measured = 0;
+        for (int i = 0; i < warmUpSteps + steps; i++) {
+            // The jump key is held during one step every second.
+            if (i % GameScene.defaultTickRate == 0) keyHandler.keysPressed.add(KeyCode.Z);
+            else keyHandler.keysPressed.remove(KeyCode.Z);
+            int eventCount = events[0];
+            long before = threads.getThreadAllocatedBytes(threadId);
+            world.step(step);
+            long after = threads.getThreadAllocatedBytes(threadId);
+            if (i < warmUpSteps || events[0] != eventCount) continue;
+            allocated += after - before;
+            measured++;
+        }
+        assertTrue(measured > steps / 2, "only " + measured + " steps without any event");
+        // A few hundred bytes may be allocated once while the compiler replaces the step's code,
+        // but nothing may be allocated on each step : a single Iterator per step would add more than 600 KB.
+        assertTrue(allocated < 4096, allocated + " bytes allocated in " + measured + " steps");
+    }
+}
@@ -0,0 +1,113 @@
+package utilities;
+
+import com.sun.management.ThreadMXBean;
+import entities.Attitude;
+import javafx.scene.image.ImageView;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Checks that playing the Hero's clips doesn't allocate : advancing a frame only swaps a precomputed viewport,
+ * and switching the attitude only swaps the clip's image and viewport.
+ * The sprite is stepped on the JavaFX thread, through frame wraps of looping and non-looping clips and through attitude switches,
+ * and the bytes allocated by the JavaFX thread are read from the ThreadMXBean around each step.
+ * The clips are packed in a single atlas like the AnimatedThing does : the ImageView allocates a few bytes each time its image changes,
+ * which the packed clips avoid, as they all share the atlas' image.
+ * @see entities.AnimatedThing#getImageView()
+ * @see AnimatedSprite#step(double)
+ * @see AnimatedSprite#setAttitude(Attitude)
+ */
+class AnimatedSpriteTest {
+
+    /**
+     * Directory of the Hero's sprite sheets.
+     */
+    private static final String spriteDirectory = "/images/Tiles_32x32/Virtual Guy/";
+    /**
+     * Duration of a frame in seconds.
+     */
+    private static final double frameDuration = 0.06;
+    /**
+     * Number of steps run before measuring, so that the code is compiled and every clip's image is decoded.
+     */
+    private static final int warmUpSteps = 50000;
+    /**
+     * Number of measured steps.
+     */
+    private static final int steps = 100000;
+    /**
+     * Attitudes played in turn : looping clips of several frames, mirrored or not, a non-looping clip of several frames, and clips of a single frame.
+     */
+    private static final Attitude[] attitudes = {Attitude.IDLE, Attitude.RUN_RIGHT, Attitude.DEAD, Attitude.RUN_LEFT, Attitude.JUMP, Attitude.IDLE, Attitude.FALL_LEFT};
+
+    @Test
+    void stepDoesNotAllocate() throws Exception {
+        FxToolkit.start();
+        EnumMap<Attitude, AnimationClip> clips = new EnumMap<>(Attitude.class);
+        clips.put(Attitude.IDLE, new AnimationClip(spriteDirectory + "Idle.png", 11, frameDuration, true, AnimationClip.Mirroring.KEEP));
+        clips.put(Attitude.RUN_RIGHT, new AnimationClip(spriteDirectory + "Run.png", 12, frameDuration, true, AnimationClip.Mirroring.RIGHT));
+        clips.put(Attitude.RUN_LEFT, new AnimationClip(spriteDirectory + "Run.png", 12, frameDuration, true, AnimationClip.Mirroring.LEFT));
+        clips.put(Attitude.JUMP, new AnimationClip(spriteDirectory + "Jump.png", 1, frameDuration, false, AnimationClip.Mirroring.KEEP));
+        clips.put(Attitude.FALL_LEFT, new AnimationClip(spriteDirectory + "Fall.png", 1, frameDuration, false, AnimationClip.Mirroring.LEFT));
+        clips.put(Attitude.DEAD, new AnimationClip(spriteDirectory + "Hit.png", 7, frameDuration, false, AnimationClip.Mirroring.KEEP));
+
+        long[] result = new long[2];
+        FxToolkit.run(() -> {
+            AnimationClip.pack(clips.values());
+            // The ImageView doesn't belong to any Scene, so that the FrameScheduler never steps the sprite itself.
+            ImageView imageView = new ImageView();
+            AnimatedSprite sprite = new AnimatedSprite(imageView, clips, 1);
+            checkFrames(sprite, imageView, clips);
+
+            ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            for (int i = 0; i < warmUpSteps + steps; i++) {
+                // The attitude changes every few frames, and some steps last several frames, wrapping the looping clips at once.
+                Attitude attitude = attitudes[(i / 40) % attitudes.length];
+                double elapsedTime = i % 7 == 0 ? 0.5 : 0.025;
+                long before = threads.getThreadAllocatedBytes(threadId);
+                sprite.setAttitude(attitude);
+                sprite.step(elapsedTime);
+                long after = threads.getThreadAllocatedBytes(threadId);
+                if (i < warmUpSteps) continue;
+                result[0] += after - before;
+                result[1]++;
+            }
+            sprite.dispose();
+        });
+        // A few hundred bytes may be allocated once while the compiler replaces the step's code,
+        // but nothing may be allocated on each step : a single Rectangle2D per step would add more than 3 MB.
+        assertTrue(result[0] < 4096, result[0] + " bytes allocated in " + result[1] + " steps");
+    }
+
+    /**
+     * Checks that the looping clips wrap to their first frame, and that the non-looping clips stay on their last frame.
+     */
+    private static void checkFrames(AnimatedSprite sprite, ImageView imageView, EnumMap<Attitude, AnimationClip> clips) {
+        AnimationClip run = clips.get(Attitude.RUN_RIGHT);
+        sprite.setAttitude(Attitude.RUN_RIGHT);
+        sprite.step(frameDuration * (run.getFrameCount() - 1) + frameDuration / 2);
+        assertSame(run.getViewport(run.getFrameCount() - 1), imageView.getViewport());
+        sprite.step(frameDuration);
+        assertSame(run.getViewport(0), imageView.getViewport());
+
+        AnimationClip dead = clips.get(Attitude.DEAD);
+        sprite.setAttitude(Attitude.DEAD);
+        assertSame(dead.getImage(), imageView.getImage());
+        sprite.step(frameDuration * dead.getFrameCount() * 3);
+        assertSame(dead.getViewport(dead.getFrameCount() - 1), imageView.getViewport());
+        sprite.setAttitude(Attitude.IDLE);
+        assertSame(clips.get(Attitude.IDLE).getViewport(0), imageView.getViewport());
+    }
+}
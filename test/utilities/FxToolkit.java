@@ -0,0 +1,102 @@
+package utilities;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/*
+ * @author : Alexandros KOSSYFIDIS - Nordine LAOUEDJ
+ * @mailto : alexkossyfidis1@gmail.com - nordine.laouedj@ensea.fr
+ * @date : 23/04/2022
+ */
+
+/**
+ * Starts the JavaFX toolkit once for the tests that need a Stage or decoded images, and runs code on the JavaFX thread.
+ * Without any display, the tests have to be launched with the Monocle headless platform in the classpath and
+ * {@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}.
+ */
+public final class FxToolkit {
+
+    /**
+     * Maximum time in seconds waited for the JavaFX thread.
+     */
+    public static final int timeout = 30;
+    /**
+     * Whether the toolkit was started.
+     */
+    private static boolean started;
+
+    private FxToolkit() {
+    }
+
+    /**
+     * Starts the JavaFX toolkit, unless it is already running. The toolkit is kept running once the last window is closed.
+     */
+    public static synchronized void start() throws InterruptedException {
+        if (started) return;
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (IllegalStateException e) {
+            // Already started by another test class.
+            latch.countDown();
+        }
+        if (!latch.await(timeout, TimeUnit.SECONDS)) throw new IllegalStateException("JavaFX toolkit not started");
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    /**
+     * Runs an action on the JavaFX thread and waits for it.
+     * @param action the action to run.
+     * @throws ExecutionException if the action threw an exception.
+     */
+    public static void run(Runnable action) throws InterruptedException, ExecutionException, TimeoutException {
+        FutureTask<Void> task = new FutureTask<>(action, null);
+        Platform.runLater(task);
+        task.get(timeout, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Waits for pulses of the JavaFX thread, so that the work deferred to the next pulses is done.
+     * @param pulses number of pulses to wait for.
+     */
+    public static void waitPulses(int pulses) throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch latch = new CountDownLatch(pulses);
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                latch.countDown();
+            }
+        };
+        run(timer::start);
+        try {
+            if (!latch.await(timeout, TimeUnit.SECONDS)) throw new TimeoutException("Timed out waiting for " + pulses + " pulses");
+        } finally {
+            run(timer::stop);
+        }
+    }
+
+    /**
+     * Waits until a condition, checked on the JavaFX thread, is true.
+     * @param condition the condition to wait for.
+     * @param description the awaited state, used in the TimeoutException's message.
+     * @throws TimeoutException if the condition is still false after the timeout.
+     */
+    public static void waitUntil(BooleanSupplier condition, String description) throws InterruptedException, ExecutionException, TimeoutException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+        boolean[] met = new boolean[1];
+        while (System.nanoTime() < end) {
+            run(() -> met[0] = condition.getAsBoolean());
+            if (met[0]) return;
+            Thread.sleep(10);
+        }
+        throw new TimeoutException("Timed out waiting for " + description);
+    }
+}